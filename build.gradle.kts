@@ -18,6 +18,8 @@ dependencies {
     implementation(platform("com.google.cloud:libraries-bom:26.80.0"))
     implementation("com.google.cloud:google-cloud-dataform")
     implementation("com.google.cloud:google-cloud-bigquery")
+    implementation("com.google.cloud:google-cloud-bigquerystorage")
+    implementation("org.apache.avro:avro:1.11.4")
     testImplementation("org.mockito:mockito-core:5.11.0")
     testImplementation("org.mockito:mockito-junit-jupiter:5.11.0")
 
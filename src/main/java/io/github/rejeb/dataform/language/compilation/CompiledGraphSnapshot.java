@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.compilation;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonReader;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of a compiled graph JSON tree, stored in the IDE system directory
+ * instead of the project workspace XML.
+ * <p>
+ * Layout: a header ({@link #MAGIC}, {@link #VERSION}) followed by one tagged value. Strings
+ * of at most {@link #MAX_INTERNED_LENGTH} characters, including object keys, are interned: the
+ * first occurrence is written in full and later occurrences as a varint index, which collapses
+ * the schema, database, file and tag names repeated across thousands of actions. Longer
+ * strings, mostly SQL bodies, are written inline so that the writer does not keep a second
+ * copy of the graph text in its intern table. Arrays and objects are closed by an {@link #END} tag
+ * rather than prefixed with their size, so a snapshot can be written straight from a
+ * {@link JsonReader} without materializing the tree first.
+ */
+public final class CompiledGraphSnapshot {
+
+    static final int MAGIC = 0x44464347; // "DFCG"
+    static final int VERSION = 3;
+    static final int MAX_INTERNED_LENGTH = 128;
+
+    private static final byte NULL = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 2;
+    private static final byte NUMBER = 3;
+    private static final byte STRING = 4;
+    private static final byte STRING_REF = 5;
+    private static final byte ARRAY = 6;
+    private static final byte OBJECT = 7;
+    private static final byte END = 8;
+    private static final byte INLINE_STRING = 9;
+
+    private CompiledGraphSnapshot() {
+    }
+
+    /**
+     * Encodes the JSON document read from {@code json} into {@code target} atomically: readers
+     * see either the previous snapshot or the complete new one.
+     */
+    public static void write(@NotNull Path target, @NotNull JsonReader json) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path tmp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16)) {
+                write(out, json);
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @NotNull
+    public static JsonElement read(@NotNull Path source) throws IOException {
+        return read(ByteBuffer.wrap(Files.readAllBytes(source)));
+    }
+
+    static void write(@NotNull OutputStream out, @NotNull JsonReader json) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        new Writer(data).value(json);
+        data.flush();
+    }
+
+    @NotNull
+    static JsonElement read(@NotNull ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < 8 || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a compiled graph snapshot");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported compiled graph snapshot version " + version);
+        }
+        try {
+            return new Reader(buffer).value();
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupted compiled graph snapshot", e);
+        }
+    }
+
+    private static final class Writer {
+        private final DataOutputStream out;
+        private final Map<String, Integer> interned = new HashMap<>();
+
+        private Writer(DataOutputStream out) {
+            this.out = out;
+        }
+
+        private void value(JsonReader json) throws IOException {
+            switch (json.peek()) {
+                case NULL -> {
+                    json.nextNull();
+                    out.writeByte(NULL);
+                }
+                case BOOLEAN -> out.writeByte(json.nextBoolean() ? TRUE : FALSE);
+                case NUMBER -> {
+                    out.writeByte(NUMBER);
+                    string(json.nextString());
+                }
+                case STRING -> string(json.nextString());
+                case BEGIN_ARRAY -> {
+                    json.beginArray();
+                    out.writeByte(ARRAY);
+                    while (json.hasNext()) {
+                        value(json);
+                    }
+                    json.endArray();
+                    out.writeByte(END);
+                }
+                case BEGIN_OBJECT -> {
+                    json.beginObject();
+                    out.writeByte(OBJECT);
+                    while (json.hasNext()) {
+                        string(json.nextName());
+                        value(json);
+                    }
+                    json.endObject();
+                    out.writeByte(END);
+                }
+                default -> throw new IOException("Unexpected JSON token " + json.peek());
+            }
+        }
+
+        private void string(String value) throws IOException {
+            if (value.length() > MAX_INTERNED_LENGTH) {
+                out.writeByte(INLINE_STRING);
+                bytes(value);
+                return;
+            }
+            Integer index = interned.get(value);
+            if (index != null) {
+                out.writeByte(STRING_REF);
+                varint(index);
+                return;
+            }
+            interned.put(value, interned.size());
+            out.writeByte(STRING);
+            bytes(value);
+        }
+
+        private void bytes(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            varint(bytes.length);
+            out.write(bytes);
+        }
+
+        private void varint(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                out.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.writeByte(value);
+        }
+    }
+
+    private static final class Reader {
+        private final ByteBuffer in;
+        private final List<String> interned = new ArrayList<>();
+
+        private Reader(ByteBuffer in) {
+            this.in = in;
+        }
+
+        private JsonElement value() throws IOException {
+            byte tag = in.get();
+            return switch (tag) {
+                case NULL -> JsonNull.INSTANCE;
+                case TRUE -> new JsonPrimitive(true);
+                case FALSE -> new JsonPrimitive(false);
+                case NUMBER -> new JsonPrimitive(new BigDecimal(string(in.get())));
+                case STRING, STRING_REF, INLINE_STRING -> new JsonPrimitive(string(tag));
+                case ARRAY -> {
+                    JsonArray array = new JsonArray();
+                    while (in.get(in.position()) != END) {
+                        array.add(value());
+                    }
+                    in.get();
+                    yield array;
+                }
+                case OBJECT -> {
+                    JsonObject object = new JsonObject();
+                    byte keyTag;
+                    while ((keyTag = in.get()) != END) {
+                        String key = string(keyTag);
+                        object.add(key, value());
+                    }
+                    yield object;
+                }
+                default -> throw new IOException("Unknown value tag " + tag);
+            };
+        }
+
+        private String string(byte tag) throws IOException {
+            if (tag == STRING_REF) {
+                return interned.get(varint());
+            }
+            if (tag != STRING && tag != INLINE_STRING) {
+                throw new IOException("Expected a string, found tag " + tag);
+            }
+            int length = varint();
+            String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+            if (tag == STRING) {
+                interned.add(value);
+            }
+            return value;
+        }
+
+        private int varint() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = in.get();
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+}
@@ -79,8 +79,7 @@ public final class DataformBuildManager {
                     StartBuildEvent.builder("Running dataform compile...", descriptor).build());
 
             try {
-                DataformCompilationService service = DataformCompilationService.getInstance(project);
-                CompiledGraph compiledGraph = service.compile(true);
+                CompiledGraph compiledGraph = DataformCompileScheduler.getInstance(project).requestCompile(true).join();
 
                 if (compiledGraph == null) {
                     context.errors.incrementAndGet();
@@ -124,6 +123,8 @@ public final class DataformBuildManager {
                     return;
                 }
 
+                // An explicit build re-extracts every schema, including declarations whose
+                // fingerprint cannot see changes made to their table in BigQuery.
                 DataformTableSchemaService.getInstance(project)
                         .refreshAsync(compiledGraph, true);
 
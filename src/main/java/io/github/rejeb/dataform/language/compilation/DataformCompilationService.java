@@ -32,10 +32,23 @@ public interface DataformCompilationService extends Disposable, PersistentStateC
 
     CompiledGraph getCompiledGraph();
 
+    /**
+     * Like {@link #getCompiledGraph()}, but first waits for the persisted graph to be decoded
+     * when that is still in progress. Must be called off the EDT.
+     */
+    CompiledGraph awaitRestoredGraph();
+
     class State {
+        /**
+         * Compiled graph inlined as JSON by earlier versions. Only read to migrate to
+         * {@link #snapshotFile}.
+         */
         @Tag("compiledGraphJson")
         public String compiledGraphJson = null;
 
+        @Tag("snapshotFile")
+        public String snapshotFile = null;
+
         @Tag("lastCompileTimestamp")
         public long lastCompileTimestamp = -1;
     }
@@ -18,15 +18,22 @@ package io.github.rejeb.dataform.language.compilation;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonReader;
+import com.intellij.openapi.application.PathManager;
 import com.intellij.execution.configurations.GeneralCommandLine;
-import com.intellij.execution.process.ProcessOutput;
-import com.intellij.execution.util.ExecUtil;
 import com.intellij.openapi.components.State;
 import com.intellij.openapi.components.Storage;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.project.ProjectUtil;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import io.github.rejeb.dataform.language.compilation.model.CompilationError;
 import io.github.rejeb.dataform.language.compilation.model.CompiledGraph;
 import io.github.rejeb.dataform.language.compilation.model.GraphErrors;
@@ -34,8 +41,15 @@ import io.github.rejeb.dataform.language.setup.DataformInterpreterManager;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import static io.github.rejeb.dataform.language.util.Utils.flushFiles;
 
@@ -48,16 +62,26 @@ public final class DataformCompilationServiceImpl
 
     private static final Logger LOG = Logger.getInstance(DataformCompilationServiceImpl.class);
     private static final Gson GSON = new GsonBuilder().create();
+    private static final int COMPILE_TIMEOUT_MS = 300000;
 
     private final Project project;
 
     private volatile CompiledGraph compiledGraph;
+    private volatile boolean persistedGraphRestored = false;
 
+    private boolean sourcesChanged = true;
+    private boolean trackingSinceLastCompile = false;
 
     private State currentState = new State();
 
     public DataformCompilationServiceImpl(Project project) {
         this.project = project;
+        project.getMessageBus().connect(this).subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+            @Override
+            public void after(@NotNull List<? extends VFileEvent> events) {
+                events.forEach(DataformCompilationServiceImpl.this::recordSourceChange);
+            }
+        });
     }
 
     @Override
@@ -68,15 +92,12 @@ public final class DataformCompilationServiceImpl
     @Override
     public void loadState(@NotNull State state) {
         this.currentState = state;
-        if (state.compiledGraphJson != null && !state.compiledGraphJson.isBlank()) {
-            try {
-                this.compiledGraph = GSON.fromJson(state.compiledGraphJson, CompiledGraph.class);
-                LOG.info("Restored compiled graph from persistent state");
-            } catch (Exception e) {
-                LOG.warn("Failed to deserialize compiled graph from state: " + e.getMessage());
-                this.compiledGraph = buildEmptyCompiledGraph(e);
-                this.currentState = new State(); // reset corrupted state
-            }
+        this.compiledGraph = null;
+        this.persistedGraphRestored = false;
+        if (state.snapshotFile != null || state.compiledGraphJson != null) {
+            // Decoding a large graph takes a while: do it now in the background rather than
+            // on the first, possibly EDT or read-action, call to getCompiledGraph().
+            AppExecutorUtil.getAppExecutorService().execute(this::restorePersistedGraph);
         }
     }
 
@@ -86,52 +107,230 @@ public final class DataformCompilationServiceImpl
             return null;
         }
         flushFiles(project);
-        if (compiledGraph != null
+        boolean sourcesChanged = consumeSourcesChanged();
+        CompiledGraph cached = restorePersistedGraph();
+        if (cached != null
                 && currentState.lastCompileTimestamp > 0
-                && !hasSourcesChangedSince(currentState.lastCompileTimestamp)
+                && !sourcesChanged
                 && !forceRefresh) {
             LOG.info("Sources unchanged, using cached compiled graph");
-            return compiledGraph;
+            return cached;
+        }
+        long previousCompileTimestamp = currentState.lastCompileTimestamp;
+        CompiledGraph result = runCompilation();
+        if (currentState.lastCompileTimestamp == previousCompileTimestamp) {
+            markSourcesChanged();
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether a compilation input changed since the previous call and resets the flag.
+     * Until the first compilation of the session, changes made while the IDE was closed are
+     * unknown, so the persisted timestamp is checked against the source tree once.
+     */
+    private synchronized boolean consumeSourcesChanged() {
+        boolean changed = sourcesChanged;
+        if (!trackingSinceLastCompile) {
+            changed = currentState.lastCompileTimestamp <= 0
+                    || hasSourcesChangedSince(currentState.lastCompileTimestamp);
+            trackingSinceLastCompile = true;
+        }
+        sourcesChanged = false;
+        return changed;
+    }
+
+    private synchronized void markSourcesChanged() {
+        sourcesChanged = true;
+    }
+
+    private void recordSourceChange(@NotNull VFileEvent event) {
+        String basePath = project.getBasePath();
+        if (basePath == null) return;
+        recordSourceChange(basePath, event.getPath(), event.getFile() != null && event.getFile().isDirectory());
+        if (event instanceof VFileMoveEvent move) {
+            recordSourceChange(basePath, move.getOldPath(), move.getFile().isDirectory());
+        } else if (event instanceof VFilePropertyChangeEvent property && property.isRename()) {
+            recordSourceChange(basePath, property.getOldPath(), property.getFile().isDirectory());
+        }
+    }
+
+    private synchronized void recordSourceChange(@NotNull String basePath, @NotNull String path, boolean isDirectory) {
+        if (!path.startsWith(basePath + "/")) return;
+        if (DataformSources.isCompilationInput(path.substring(basePath.length() + 1), isDirectory)) {
+            sourcesChanged = true;
         }
-        return runCompilation();
     }
 
 
+    /**
+     * Compiles into a temporary file and decodes the graph from there, so the multi-megabyte
+     * {@code compile --json} output is never held in memory as a string or JSON tree.
+     */
     private CompiledGraph runCompilation() {
+        Path output = null;
+        Path errors = null;
         try {
-            Optional<GeneralCommandLine> cmd = project.getService(DataformInterpreterManager.class)
-                    .buildDataformCompileCommand();
+            output = Files.createTempFile("dataform-compile", ".json");
+            DataformInterpreterManager interpreterManager = project.getService(DataformInterpreterManager.class);
+            if (interpreterManager.compileWithWorker(output, COMPILE_TIMEOUT_MS)) {
+                return acceptCompilationResult(output);
+            }
+
+            Optional<GeneralCommandLine> cmd = interpreterManager.buildDataformCompileCommand();
             if (cmd.isPresent()) {
-                ProcessOutput output = ExecUtil.execAndGetOutput(cmd.get(), 300000);
-                String compilationResult = output.getStdout();
+                errors = Files.createTempFile("dataform-compile", ".err");
+                Process process = cmd.get().toProcessBuilder()
+                        .redirectOutput(output.toFile())
+                        .redirectError(errors.toFile())
+                        .start();
+                if (!process.waitFor(COMPILE_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    process.destroyForcibly();
+                    return buildEmptyCompiledGraph(null);
+                }
 
-                if (compilationResult.isBlank()) {
-                    CompilationError compilationError = new CompilationError(output.getStderr());
+                if (isBlank(output)) {
+                    CompilationError compilationError = new CompilationError(Files.readString(errors));
                     GraphErrors graphErrors = new GraphErrors();
                     graphErrors.setCompilationErrors(List.of(compilationError));
                     this.compiledGraph = new CompiledGraph();
                     this.compiledGraph.setGraphErrors(graphErrors);
-                } else {
-                    this.compiledGraph = GSON.fromJson(compilationResult, CompiledGraph.class);
-                    currentState.compiledGraphJson = GSON.toJson(this.compiledGraph);
-                    currentState.lastCompileTimestamp = System.currentTimeMillis();
+                    return this.compiledGraph;
                 }
-
-                return this.compiledGraph;
+                return acceptCompilationResult(output);
             }
         } catch (Exception e) {
             LOG.warn("Error during compilation", e);
             return buildEmptyCompiledGraph(e);
+        } finally {
+            deleteQuietly(output);
+            deleteQuietly(errors);
         }
 
         return buildEmptyCompiledGraph(null);
     }
 
+    private CompiledGraph acceptCompilationResult(@NotNull Path output) throws IOException {
+        try (Reader reader = Files.newBufferedReader(output, StandardCharsets.UTF_8)) {
+            this.compiledGraph = GSON.fromJson(new JsonReader(reader), CompiledGraph.class);
+        }
+        this.persistedGraphRestored = true;
+        try (Reader reader = Files.newBufferedReader(output, StandardCharsets.UTF_8)) {
+            persistSnapshot(new JsonReader(reader));
+        }
+        currentState.lastCompileTimestamp = System.currentTimeMillis();
+        return this.compiledGraph;
+    }
+
+    private static boolean isBlank(@NotNull Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            int c;
+            while ((c = reader.read()) != -1) {
+                if (!Character.isWhitespace(c)) return false;
+            }
+        }
+        return true;
+    }
+
+    private static void deleteQuietly(@Nullable Path file) {
+        if (file == null) return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOG.debug("Failed to delete " + file, e);
+        }
+    }
+
+    /**
+     * Returns the last compiled graph, or {@code null} while the persisted one is still being
+     * decoded in the background. Never blocks on the decoding.
+     */
     @Override
     public CompiledGraph getCompiledGraph() {
         return compiledGraph;
     }
 
+    @Override
+    public CompiledGraph awaitRestoredGraph() {
+        return restorePersistedGraph();
+    }
+
+    /**
+     * Decodes the persisted graph once, on a pooled thread started by {@link #loadState} or by
+     * the first compilation, whichever comes first, then announces it on
+     * {@link DataformCompilationListener#TOPIC} so that editors opened meanwhile refresh.
+     */
+    private CompiledGraph restorePersistedGraph() {
+        CompiledGraph restored = decodePersistedGraph();
+        if (restored != null && !project.isDisposed()) {
+            project.getMessageBus()
+                    .syncPublisher(DataformCompilationListener.TOPIC)
+                    .compilationFinished(restored);
+        }
+        return compiledGraph;
+    }
+
+    /**
+     * Returns the graph decoded by this call, or {@code null} when there was nothing to decode
+     * or another call already did.
+     */
+    @Nullable
+    private synchronized CompiledGraph decodePersistedGraph() {
+        if (persistedGraphRestored) return null;
+        persistedGraphRestored = true;
+        try {
+            if (currentState.compiledGraphJson != null && !currentState.compiledGraphJson.isBlank()) {
+                String json = currentState.compiledGraphJson;
+                this.compiledGraph = GSON.fromJson(json, CompiledGraph.class);
+                persistSnapshot(new JsonReader(new StringReader(json)));
+                LOG.info("Migrated compiled graph from workspace state to snapshot");
+            } else if (currentState.snapshotFile != null) {
+                JsonElement tree = CompiledGraphSnapshot.read(Path.of(currentState.snapshotFile));
+                this.compiledGraph = GSON.fromJson(tree, CompiledGraph.class);
+                LOG.info("Restored compiled graph from snapshot");
+            }
+        } catch (Exception e) {
+            LOG.warn("Failed to restore compiled graph: " + e.getMessage());
+            this.compiledGraph = null;
+            replaceSnapshotFile(null);
+            this.currentState = new State(); // reset corrupted state, next compile rebuilds it
+        }
+        return compiledGraph;
+    }
+
+    private void persistSnapshot(@NotNull JsonReader json) {
+        Path snapshot = snapshotPath();
+        try {
+            CompiledGraphSnapshot.write(snapshot, json);
+            replaceSnapshotFile(snapshot.toString());
+        } catch (IOException e) {
+            LOG.warn("Failed to write compiled graph snapshot to " + snapshot, e);
+            deleteQuietly(snapshot);
+            replaceSnapshotFile(null);
+        }
+        currentState.compiledGraphJson = null;
+    }
+
+    /**
+     * Points the state at {@code snapshotFile}, deleting the previous snapshot unless it is the
+     * same file, e.g. one written before the project was moved.
+     */
+    private void replaceSnapshotFile(@Nullable String snapshotFile) {
+        String previous = currentState.snapshotFile;
+        if (previous != null && !previous.equals(snapshotFile)) {
+            deleteQuietly(Path.of(previous));
+        }
+        currentState.snapshotFile = snapshotFile;
+    }
+
+    @NotNull
+    private Path snapshotPath() {
+        return PathManager.getSystemDir()
+                .resolve("dataform")
+                .resolve("compiled-graph")
+                .resolve(project.getLocationHash() + ".bin");
+    }
+
     @Override
     public void dispose() {
         compiledGraph = null;
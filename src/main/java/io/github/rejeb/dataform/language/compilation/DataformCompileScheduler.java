@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.compilation;
+
+import com.intellij.openapi.project.Project;
+import io.github.rejeb.dataform.language.compilation.model.CompiledGraph;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Single entry point for compiling the project. At most one compilation runs at a time;
+ * requests made while it runs share one follow-up compilation, and saves in {@code definitions/}
+ * or {@code includes/} trigger a debounced compilation. Results are broadcast on
+ * {@link DataformCompilationListener#TOPIC}.
+ */
+public interface DataformCompileScheduler {
+
+    static DataformCompileScheduler getInstance(Project project) {
+        return project.getService(DataformCompileScheduler.class);
+    }
+
+    /**
+     * Compiles the project, or joins the compilation queued behind the running one. With
+     * {@code force} false the cached graph is returned when no source changed.
+     */
+    @NotNull
+    CompletableFuture<CompiledGraph> requestCompile(boolean force);
+
+    /**
+     * Requests a compilation once sources have been quiet for a short delay.
+     */
+    void scheduleCompile();
+}
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.compilation;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import io.github.rejeb.dataform.language.compilation.model.CompiledGraph;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+public final class DataformCompileSchedulerImpl implements DataformCompileScheduler, Disposable {
+
+    private static final Logger LOG = Logger.getInstance(DataformCompileSchedulerImpl.class);
+    private static final long DEBOUNCE_MS = 1000;
+
+    private final Project project;
+
+    private @Nullable CompletableFuture<CompiledGraph> running;
+    private @Nullable CompletableFuture<CompiledGraph> queued;
+    private boolean queuedForce;
+    private @Nullable ScheduledFuture<?> debounced;
+    private boolean disposed;
+
+    public DataformCompileSchedulerImpl(@NotNull Project project) {
+        this.project = project;
+        project.getMessageBus().connect(this).subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+            @Override
+            public void after(@NotNull List<? extends VFileEvent> events) {
+                if (events.stream().anyMatch(DataformCompileSchedulerImpl.this::isSourceChange)) {
+                    scheduleCompile();
+                }
+            }
+        });
+    }
+
+    @Override
+    public synchronized @NotNull CompletableFuture<CompiledGraph> requestCompile(boolean force) {
+        if (running == null) {
+            running = new CompletableFuture<>();
+            submit(running, force);
+            return running;
+        }
+        // The running compilation may have started before the latest edits: queue one follow-up
+        // shared by every request made in the meantime.
+        if (queued == null) {
+            queued = new CompletableFuture<>();
+        }
+        queuedForce |= force;
+        return queued;
+    }
+
+    @Override
+    public synchronized void scheduleCompile() {
+        if (disposed) return;
+        if (debounced != null) {
+            debounced.cancel(false);
+        }
+        debounced = AppExecutorUtil.getAppScheduledExecutorService().schedule(() -> {
+            // Only keep projects that were compiled at least once up to date.
+            if (!project.isDisposed() && DataformCompilationService.getInstance(project).getCompiledGraph() != null) {
+                requestCompile(false);
+            }
+        }, DEBOUNCE_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void dispose() {
+        disposed = true;
+        if (debounced != null) {
+            debounced.cancel(false);
+        }
+    }
+
+    private void submit(@NotNull CompletableFuture<CompiledGraph> future, boolean force) {
+        AppExecutorUtil.getAppExecutorService().execute(() -> {
+            try {
+                future.complete(compile(force));
+            } catch (Throwable t) {
+                LOG.warn("Dataform compilation failed", t);
+                future.completeExceptionally(t);
+            } finally {
+                onCompileFinished();
+            }
+        });
+    }
+
+    @Nullable
+    private CompiledGraph compile(boolean force) {
+        if (project.isDisposed()) return null;
+        DataformCompilationService service = DataformCompilationService.getInstance(project);
+        CompiledGraph previous = service.awaitRestoredGraph();
+        CompiledGraph graph = service.compile(force);
+        if (graph != null && graph != previous && !project.isDisposed()) {
+            project.getMessageBus()
+                    .syncPublisher(DataformCompilationListener.TOPIC)
+                    .compilationFinished(graph);
+        }
+        return graph;
+    }
+
+    private synchronized void onCompileFinished() {
+        running = queued;
+        queued = null;
+        if (running != null) {
+            boolean force = queuedForce;
+            queuedForce = false;
+            submit(running, force);
+        }
+    }
+
+    private boolean isSourceChange(@NotNull VFileEvent event) {
+        String basePath = project.getBasePath();
+        if (basePath == null) return false;
+        if (isSourcePath(basePath, event.getPath(), event.getFile() != null && event.getFile().isDirectory())) {
+            return true;
+        }
+        if (event instanceof VFileMoveEvent move) {
+            return isSourcePath(basePath, move.getOldPath(), move.getFile().isDirectory());
+        }
+        if (event instanceof VFilePropertyChangeEvent property && property.isRename()) {
+            return isSourcePath(basePath, property.getOldPath(), property.getFile().isDirectory());
+        }
+        return false;
+    }
+
+    private static boolean isSourcePath(@NotNull String basePath, @NotNull String path, boolean isDirectory) {
+        return path.startsWith(basePath + "/")
+                && DataformSources.isCompilationInput(path.substring(basePath.length() + 1), isDirectory);
+    }
+}
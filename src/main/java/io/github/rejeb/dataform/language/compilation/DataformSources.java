@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.compilation;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Set;
+
+/**
+ * Identifies the project files that are inputs of {@code dataform compile}: definition files,
+ * {@code includes/} and the project configuration files.
+ */
+public final class DataformSources {
+
+    private static final Set<String> CONFIG_FILES = Set.of(
+            "dataform.json", "workflow_settings.yaml", "package.json", "package-lock.json");
+    private static final Set<String> DEFINITION_EXTENSIONS = Set.of("sqlx", "js", "yaml");
+
+    private DataformSources() {
+    }
+
+    /**
+     * Returns {@code true} when a change to the given project-relative path can change the
+     * compiled graph. Directories under {@code definitions/} always count, since moving or
+     * deleting one affects every file it contains.
+     */
+    public static boolean isCompilationInput(@NotNull String relativePath, boolean isDirectory) {
+        if (CONFIG_FILES.contains(relativePath)) return true;
+        if (relativePath.equals("includes") || relativePath.startsWith("includes/")) return true;
+        if (relativePath.equals("definitions")) return true;
+        if (!relativePath.startsWith("definitions/")) return false;
+        if (isDirectory) return true;
+        int dot = relativePath.lastIndexOf('.');
+        String ext = dot >= 0 ? relativePath.substring(dot + 1) : "";
+        return DEFINITION_EXTENSIONS.contains(ext);
+    }
+}
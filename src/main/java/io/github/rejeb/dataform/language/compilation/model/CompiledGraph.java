@@ -20,6 +20,7 @@ package io.github.rejeb.dataform.language.compilation.model;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -30,6 +31,7 @@ public class CompiledGraph {
     private List<Declaration> declarations;
     private ProjectConfig projectConfig;
     private GraphErrors graphErrors;
+    private transient volatile Index index;
 
     public List<CompiledTable> getTables() {
         return tables != null ? tables : Collections.emptyList();
@@ -91,19 +93,19 @@ public class CompiledGraph {
     }
 
     public List<CompiledTable> findTableByFileName(String fileName) {
-        return this.getTables().stream().filter(t -> t.matchFileName(fileName)).toList();
+        return index().tablesByFile.lookup(fileName);
     }
 
     public List<CompiledAssertion> findAssertionByFileName(String fileName) {
-        return this.getAssertions().stream().filter(t -> t.matchFileName(fileName)).toList();
+        return index().assertionsByFile.lookup(fileName);
     }
 
     public List<CompiledOperation> findOperationByFileName(String fileName) {
-        return this.getOperations().stream().filter(t -> t.matchFileName(fileName)).toList();
+        return index().operationsByFile.lookup(fileName);
     }
 
     public List<Declaration> findDeclarationByFileName(String fileName) {
-        return this.getDeclarations().stream().filter(t -> t.matchFileName(fileName)).toList();
+        return index().declarationsByFile.lookup(fileName);
     }
 
 
@@ -113,19 +115,19 @@ public class CompiledGraph {
 
 
     public Optional<CompiledTable> findTableByName(String name) {
-        return this.getTables().stream().filter(t -> t.getTarget().getName().equals(name)).findFirst();
+        return Optional.ofNullable(index().tablesByName.get(name));
     }
 
     public Optional<CompiledAssertion> findAssertionByName(String name) {
-        return this.getAssertions().stream().filter(t -> t.getTarget().getName().equals(name)).findFirst();
+        return Optional.ofNullable(index().assertionsByName.get(name));
     }
 
     public Optional<CompiledOperation> findOperationByName(String name) {
-        return this.getOperations().stream().filter(t -> t.getTarget().getName().equals(name)).findFirst();
+        return Optional.ofNullable(index().operationsByName.get(name));
     }
 
     public Optional<Declaration> findDeclarationByName(String name) {
-        return this.getDeclarations().stream().filter(t -> t.getTarget().getName().equals(name)).findFirst();
+        return Optional.ofNullable(index().declarationsByName.get(name));
     }
 
     public Optional<Target> findTargetByRefName(String refName) {
@@ -149,31 +151,11 @@ public class CompiledGraph {
     }
 
     public Set<String> getTags() {
-        return Stream.of(
-                        getTables().stream()
-                                .flatMap(t -> t.getTags().stream()),
-                        getAssertions().stream()
-                                .flatMap(a -> a.getTags().stream()),
-                        getOperations().stream()
-                                .flatMap(o -> o.getTags().stream())
-                )
-                .flatMap(s -> s)
-                .collect(Collectors.toSet());
+        return index().tags;
     }
 
     public List<String> getAllTargets() {
-        return Stream.of(
-                        getTables().stream()
-                                .map(t -> t.getTarget().getFullName()),
-                        getAssertions().stream()
-                                .map(a -> a.getTarget().getFullName()),
-                        getOperations().stream()
-                                .map(o -> o.getTarget().getFullName())
-                )
-                .flatMap(s -> s)
-                .distinct()
-                .sorted()
-                .toList();
+        return index().allTargets;
     }
 
     @Nullable
@@ -186,27 +168,135 @@ public class CompiledGraph {
 
 
     public Optional<String> findContainingFileInTable(String actionName) {
-        return this.getTables()
-                .stream()
-                .filter(t -> t.getTarget().getFullName().equals(actionName))
-                .findFirst()
+        return Optional.ofNullable(index().tablesByFullName.get(actionName))
                 .map(CompiledTable::getFileName);
     }
 
     public Optional<String> findContainingFileInAssertion(String actionName) {
-        return this.getAssertions()
-                .stream()
-                .filter(t -> t.getTarget().getFullName().equals(actionName))
-                .findFirst()
+        return Optional.ofNullable(index().assertionsByFullName.get(actionName))
                 .map(CompiledAssertion::getFileName);
     }
 
     public Optional<String> findContainingFileInOperation(String actionName) {
-        return this.getOperations()
-                .stream()
-                .filter(t -> t.getTarget().getFullName().equals(actionName))
-                .findFirst()
+        return Optional.ofNullable(index().operationsByFullName.get(actionName))
                 .map(CompiledOperation::getFileName);
     }
-}
 
+    /**
+     * Lookup tables are built once, on first access, since Gson bypasses constructors
+     * when deserializing the graph. The graph's action lists are never mutated afterwards.
+     */
+    private Index index() {
+        Index current = index;
+        if (current == null) {
+            synchronized (this) {
+                current = index;
+                if (current == null) {
+                    current = new Index(this);
+                    index = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static final class Index {
+        private final Map<String, CompiledTable> tablesByName;
+        private final Map<String, CompiledAssertion> assertionsByName;
+        private final Map<String, CompiledOperation> operationsByName;
+        private final Map<String, Declaration> declarationsByName;
+        private final Map<String, CompiledTable> tablesByFullName;
+        private final Map<String, CompiledAssertion> assertionsByFullName;
+        private final Map<String, CompiledOperation> operationsByFullName;
+        private final FileIndex<CompiledTable> tablesByFile;
+        private final FileIndex<CompiledAssertion> assertionsByFile;
+        private final FileIndex<CompiledOperation> operationsByFile;
+        private final FileIndex<Declaration> declarationsByFile;
+        private final Set<String> tags;
+        private final List<String> allTargets;
+
+        private Index(CompiledGraph graph) {
+            tablesByName = byKey(graph.getTables(), t -> t.getTarget().getName());
+            assertionsByName = byKey(graph.getAssertions(), a -> a.getTarget().getName());
+            operationsByName = byKey(graph.getOperations(), o -> o.getTarget().getName());
+            declarationsByName = byKey(graph.getDeclarations(), d -> d.getTarget().getName());
+            tablesByFullName = byKey(graph.getTables(), t -> t.getTarget().getFullName());
+            assertionsByFullName = byKey(graph.getAssertions(), a -> a.getTarget().getFullName());
+            operationsByFullName = byKey(graph.getOperations(), o -> o.getTarget().getFullName());
+            tablesByFile = new FileIndex<>(graph.getTables(), CompiledTable::getFileName);
+            assertionsByFile = new FileIndex<>(graph.getAssertions(), CompiledAssertion::getFileName);
+            operationsByFile = new FileIndex<>(graph.getOperations(), CompiledOperation::getFileName);
+            declarationsByFile = new FileIndex<>(graph.getDeclarations(), Declaration::getFileName);
+            tags = Stream.of(
+                            graph.getTables().stream()
+                                    .flatMap(t -> t.getTags().stream()),
+                            graph.getAssertions().stream()
+                                    .flatMap(a -> a.getTags().stream()),
+                            graph.getOperations().stream()
+                                    .flatMap(o -> o.getTags().stream())
+                    )
+                    .flatMap(s -> s)
+                    .collect(Collectors.toUnmodifiableSet());
+            allTargets = Stream.of(
+                            tablesByFullName.keySet().stream(),
+                            assertionsByFullName.keySet().stream(),
+                            operationsByFullName.keySet().stream()
+                    )
+                    .flatMap(s -> s)
+                    .distinct()
+                    .sorted()
+                    .toList();
+        }
+
+        private static <T> Map<String, T> byKey(List<T> actions, Function<T, String> key) {
+            Map<String, T> result = new HashMap<>(actions.size() * 2);
+            for (T action : actions) {
+                String k = key.apply(action);
+                if (k != null) result.putIfAbsent(k, action);
+            }
+            return Collections.unmodifiableMap(result);
+        }
+    }
+
+    /**
+     * Actions grouped by their project-relative file name. Lookups accept any path ending
+     * with that file name (typically the absolute path of the open file) and probe each
+     * {@code /}-separated suffix of it.
+     */
+    private static final class FileIndex<T> {
+        private final Map<String, List<T>> byFileName;
+
+        private FileIndex(List<T> actions, Function<T, String> fileName) {
+            Map<String, List<T>> result = new HashMap<>();
+            for (T action : actions) {
+                String name = fileName.apply(action);
+                if (name != null) {
+                    result.computeIfAbsent(name.replace("\\", "/"), k -> new ArrayList<>()).add(action);
+                }
+            }
+            result.replaceAll((k, v) -> List.copyOf(v));
+            this.byFileName = Collections.unmodifiableMap(result);
+        }
+
+        private List<T> lookup(String path) {
+            if (path == null || byFileName.isEmpty()) return List.of();
+            List<T> found = null;
+            int from = 0;
+            while (true) {
+                List<T> matches = byFileName.get(path.substring(from));
+                if (matches != null) {
+                    if (found == null) {
+                        found = matches;
+                    } else {
+                        found = new ArrayList<>(found);
+                        found.addAll(matches);
+                    }
+                }
+                int slash = path.indexOf('/', from);
+                if (slash < 0) break;
+                from = slash + 1;
+            }
+            return found != null ? found : List.of();
+        }
+    }
+}
@@ -45,6 +45,7 @@ import com.intellij.sql.SqlFileType;
 import com.intellij.util.ui.JBUI;
 import com.intellij.util.ui.UIUtil;
 import icons.DatabaseIcons;
+import io.github.rejeb.dataform.language.compilation.DataformCompilationListener;
 import io.github.rejeb.dataform.language.compilation.DataformCompilationService;
 import io.github.rejeb.dataform.language.compilation.model.CompiledGraph;
 import io.github.rejeb.dataform.language.compilation.model.CompiledQuery;
@@ -55,12 +56,13 @@ import io.github.rejeb.dataform.language.lineage.extractor.LineageExtractorImpl;
 import io.github.rejeb.dataform.language.lineage.view.LineageFilePanel;
 import io.github.rejeb.dataform.language.gcp.execution.bigquery.BigQueryExecutionService;
 import io.github.rejeb.dataform.language.gcp.execution.bigquery.BigQueryJobResult;
+import io.github.rejeb.dataform.language.gcp.execution.bigquery.QueryCostGuard;
+import io.github.rejeb.dataform.language.gcp.execution.bigquery.QueryExecution;
 import io.github.rejeb.dataform.language.gcp.execution.bigquery.QueryResultsRegistry;
 import io.github.rejeb.dataform.language.gcp.execution.bigquery.serviceview.DataformQueryContributor;
 import io.github.rejeb.dataform.language.gcp.execution.bigquery.serviceview.QueryResultNode;
 import io.github.rejeb.dataform.language.gcp.settings.DataformRepositoryConfig;
 import io.github.rejeb.dataform.language.gcp.settings.GcpRepositorySettings;
-import io.github.rejeb.dataform.language.schema.sql.DataformTableSchemaService;
 import io.github.rejeb.dataform.language.util.PreOperationsFilter;
 import io.github.rejeb.dataform.language.util.Utils;
 import org.jetbrains.annotations.NotNull;
@@ -98,6 +100,8 @@ public class SqlxCompiledPreviewEditor implements FileEditor {
 
         showPanel(View.LINEAGE);
         updateCompiledSql();
+
+        project.getMessageBus().connect(this).subscribe(DataformCompilationListener.TOPIC, graph -> updateCompiledSql());
     }
 
     @NotNull
@@ -129,10 +133,6 @@ public class SqlxCompiledPreviewEditor implements FileEditor {
                     lineageGraphs = LineageGraphHelper.buildGraph(graph, path);
                     fileLineage = new LineageExtractorImpl().extract(graph);
                 }
-                if (graph != null && (graph.getGraphErrors() == null
-                        || graph.getGraphErrors().getCompilationErrors().isEmpty())) {
-                    DataformTableSchemaService.getInstance(project).refreshAsync(graph, false);
-                }
                 indicator.checkCanceled();
             }
 
@@ -288,23 +288,26 @@ public class SqlxCompiledPreviewEditor implements FileEditor {
                         BigQueryExecutionService svc = BigQueryExecutionService.getInstance(project);
                         for (FormattedCompiledQuery q : toExecute) {
                             if (q.query() == null || q.query().isBlank()) continue;
-                            indicator.setText("Executing " + q.tableName() + "...");
+                            indicator.checkCanceled();
 
                             String sql = q.preOps() != null
                                     ? Utils.withPreOperations(
                                             PreOperationsFilter.keepReadOnly(List.of(q.preOps())), q.query())
                                     : q.query();
-                            BigQueryJobResult result = svc.execute(sql, projectId, q.tableName());
-                            registry.put(result);
-                            ServiceEventListener.ServiceEvent resetEvent =
-                                    ServiceEventListener.ServiceEvent.createResetEvent(
-                                            DataformQueryContributor.class);
-                            project.getMessageBus()
-                                    .syncPublisher(ServiceEventListener.TOPIC)
-                                    .handle(resetEvent);
+                            if (!QueryCostGuard.allows(project, sql, projectId, q.tableName(), indicator)) continue;
+                            indicator.setText("Submitting " + q.tableName() + "...");
+                            QueryExecution execution = svc.submit(sql, projectId, q.tableName());
+                            BigQueryJobResult running = BigQueryJobResult.running(execution);
+                            registry.put(running);
+                            resetQueryResultsView();
+                            execution.result().thenAccept(result -> {
+                                if (registry.complete(execution, result)) {
+                                    resetQueryResultsView();
+                                }
+                            });
 
                             ServiceViewManager.getInstance(project)
-                                    .select(new QueryResultNode(result),
+                                    .select(new QueryResultNode(running),
                                             DataformQueryContributor.class,
                                             true,
                                             true);
@@ -314,6 +317,11 @@ public class SqlxCompiledPreviewEditor implements FileEditor {
         );
     }
 
+    private void resetQueryResultsView() {
+        project.getMessageBus()
+                .syncPublisher(ServiceEventListener.TOPIC)
+                .handle(ServiceEventListener.ServiceEvent.createResetEvent(DataformQueryContributor.class));
+    }
 
     private View activeView = View.LINEAGE;
 
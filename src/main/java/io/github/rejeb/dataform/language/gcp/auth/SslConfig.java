@@ -17,11 +17,16 @@
 package io.github.rejeb.dataform.language.gcp.auth;
 
 import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.core.ApiFunction;
 import com.google.auth.http.HttpTransportFactory;
 import com.intellij.util.net.ssl.CertificateManager;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.netty.shaded.io.grpc.netty.GrpcSslContexts;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
 import org.jetbrains.annotations.NotNull;
 
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLException;
 
 /**
  * TLS setup shared by every HTTPS call the plugin makes on its own.
@@ -53,4 +58,24 @@ public final class SslConfig {
                 .build();
         return () -> transport;
     }
+
+    /**
+     * @return a gRPC channel configurator honouring the plugin TLS setup, for the clients that
+     * do not go through an HTTP transport such as the BigQuery Storage Read API
+     */
+    @NotNull
+    public static ApiFunction<ManagedChannelBuilder, ManagedChannelBuilder> grpcChannelConfigurator() {
+        return builder -> {
+            if (builder instanceof NettyChannelBuilder netty) {
+                try {
+                    netty.sslContext(GrpcSslContexts.forClient()
+                            .trustManager(CertificateManager.getInstance().getTrustManager())
+                            .build());
+                } catch (SSLException e) {
+                    throw new IllegalStateException("Cannot set up TLS for gRPC", e);
+                }
+            }
+            return builder;
+        };
+    }
 }
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.gcp.execution.bigquery;
+
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.FieldList;
+import com.google.cloud.bigquery.FieldValue;
+import com.google.cloud.bigquery.FieldValueList;
+import com.google.cloud.bigquery.StandardSQLTypeName;
+import org.apache.avro.generic.GenericRecord;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Converts Avro rows returned by the BigQuery Storage Read API into {@link FieldValueList}s
+ * holding the same string representation as the REST API, so that the result grid displays
+ * them unchanged.
+ */
+final class AvroRowConverter {
+
+    private static final int NUMERIC_SCALE = 9;
+    private static final int BIGNUMERIC_SCALE = 38;
+    private static final DateTimeFormatter TIME_FMT = DateTimeFormatter.ofPattern("HH:mm:ss.SSSSSS");
+
+    private final FieldList fields;
+
+    AvroRowConverter(@NotNull FieldList fields) {
+        this.fields = fields;
+    }
+
+    @NotNull
+    FieldValueList convert(@NotNull GenericRecord row) {
+        return record(row, fields);
+    }
+
+    private static FieldValueList record(@NotNull GenericRecord record, @NotNull FieldList fields) {
+        List<FieldValue> values = new ArrayList<>(fields.size());
+        for (Field field : fields) {
+            values.add(value(record.get(field.getName()), field));
+        }
+        return FieldValueList.of(values, fields);
+    }
+
+    private static FieldValue value(@Nullable Object value, @NotNull Field field) {
+        if (value != null && field.getMode() == Field.Mode.REPEATED) {
+            List<FieldValue> items = new ArrayList<>();
+            for (Object item : (Collection<?>) value) {
+                items.add(single(item, field));
+            }
+            return FieldValue.of(FieldValue.Attribute.REPEATED, items);
+        }
+        return single(value, field);
+    }
+
+    private static FieldValue single(@Nullable Object value, @NotNull Field field) {
+        if (value == null) {
+            return FieldValue.of(FieldValue.Attribute.PRIMITIVE, null);
+        }
+        StandardSQLTypeName type = field.getType().getStandardType();
+        if (type == StandardSQLTypeName.STRUCT) {
+            return FieldValue.of(FieldValue.Attribute.RECORD, record((GenericRecord) value, field.getSubFields()));
+        }
+        return FieldValue.of(FieldValue.Attribute.PRIMITIVE, primitive(value, type));
+    }
+
+    /**
+     * Mirrors the REST encoding: timestamps as seconds since the epoch, bytes as base64 and
+     * dates and times in ISO format.
+     */
+    static String primitive(@NotNull Object value, @NotNull StandardSQLTypeName type) {
+        return switch (type) {
+            case NUMERIC -> decimal((ByteBuffer) value, NUMERIC_SCALE);
+            case BIGNUMERIC -> decimal((ByteBuffer) value, BIGNUMERIC_SCALE);
+            case BYTES -> Base64.getEncoder().encodeToString(bytes((ByteBuffer) value));
+            case DATE -> LocalDate.ofEpochDay(((Number) value).longValue()).toString();
+            case TIME -> TIME_FMT.format(LocalTime.ofNanoOfDay(((Number) value).longValue() * 1_000));
+            case TIMESTAMP -> BigDecimal.valueOf(((Number) value).longValue(), 6).toPlainString();
+            default -> value.toString();
+        };
+    }
+
+    private static String decimal(@NotNull ByteBuffer value, int scale) {
+        return new BigDecimal(new BigInteger(bytes(value)), scale).stripTrailingZeros().toPlainString();
+    }
+
+    private static byte[] bytes(@NotNull ByteBuffer value) {
+        byte[] bytes = new byte[value.remaining()];
+        value.duplicate().get(bytes);
+        return bytes;
+    }
+}
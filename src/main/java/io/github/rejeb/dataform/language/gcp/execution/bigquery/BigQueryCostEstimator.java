@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.gcp.execution.bigquery;
+
+import com.google.cloud.bigquery.BigQuery;
+import com.google.cloud.bigquery.Job;
+import com.google.cloud.bigquery.JobInfo;
+import com.google.cloud.bigquery.JobStatistics;
+import com.google.cloud.bigquery.QueryJobConfiguration;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.diagnostic.Logger;
+import io.github.rejeb.dataform.language.gcp.auth.AuthTrigger;
+import io.github.rejeb.dataform.language.gcp.auth.GcpCalls;
+import io.github.rejeb.dataform.language.util.GcpClientsUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estimates the bytes a query will scan with a BigQuery dry run before it is executed.
+ * <p>
+ * Estimates are cached per project and SQL text for {@link #CACHE_TTL_MS}, so running the same
+ * query again does not cost another dry run. Once a query ran, {@link #recordActual} compares
+ * the estimate with the bytes actually processed.
+ */
+@Service(Service.Level.APP)
+public final class BigQueryCostEstimator {
+
+    private static final Logger LOG = Logger.getInstance(BigQueryCostEstimator.class);
+
+    /** BigQuery on-demand price, used to give an order of magnitude in confirmations. */
+    public static final double ON_DEMAND_USD_PER_TIB = 6.25;
+
+    private static final long CACHE_TTL_MS = TimeUnit.MINUTES.toMillis(10);
+    private static final int CACHE_SIZE = 200;
+
+    private final Map<String, Estimate> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Estimate> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+    private long comparedQueries;
+    private long comparedEstimatedBytes;
+    private long comparedActualBytes;
+
+    public static BigQueryCostEstimator getInstance() {
+        return ApplicationManager.getApplication().getService(BigQueryCostEstimator.class);
+    }
+
+    /**
+     * Returns the bytes {@code sql} would process, from the cache or a new dry run.
+     * Must be called off the EDT.
+     *
+     * @throws RuntimeException when the dry run fails, e.g. on invalid SQL
+     */
+    public long estimate(@NotNull String sql, @NotNull String projectId) {
+        String key = key(sql, projectId);
+        Estimate cached = getCached(key);
+        if (cached != null) return cached.bytes();
+
+        long bytes = GcpCalls.execute(AuthTrigger.USER_ACTION, () -> dryRun(sql, projectId));
+        synchronized (cache) {
+            cache.put(key, new Estimate(bytes, System.currentTimeMillis()));
+        }
+        return bytes;
+    }
+
+    /** Returns the cached estimate of {@code sql}, or {@code null} if none is fresh. */
+    public @Nullable Long getCachedEstimate(@NotNull String sql, @NotNull String projectId) {
+        Estimate cached = getCached(key(sql, projectId));
+        return cached != null ? cached.bytes() : null;
+    }
+
+    /**
+     * Compares the bytes processed by an executed query with its estimate, if it had one.
+     * Cache hits are ignored since they process nothing.
+     */
+    public void recordActual(@NotNull String sql, @NotNull String projectId, long actualBytes, boolean cacheHit) {
+        Long estimated = getCachedEstimate(sql, projectId);
+        if (estimated == null || cacheHit) return;
+        long queries;
+        double ratio;
+        synchronized (cache) {
+            queries = ++comparedQueries;
+            comparedEstimatedBytes += estimated;
+            comparedActualBytes += actualBytes;
+            ratio = comparedEstimatedBytes > 0 ? (double) comparedActualBytes / comparedEstimatedBytes : 1.0;
+        }
+        LOG.info("BigQuery estimate " + estimated + " bytes, processed " + actualBytes
+                + " bytes (actual/estimate over " + queries + " queries: " + String.format("%.2f", ratio) + ")");
+    }
+
+    /** Approximate on-demand cost of scanning {@code bytes}, in US dollars. */
+    public static double estimateCostUsd(long bytes) {
+        return bytes / (double) (1L << 40) * ON_DEMAND_USD_PER_TIB;
+    }
+
+    private @Nullable Estimate getCached(@NotNull String key) {
+        synchronized (cache) {
+            Estimate cached = cache.get(key);
+            if (cached == null) return null;
+            if (System.currentTimeMillis() - cached.createdAt() > CACHE_TTL_MS) {
+                cache.remove(key);
+                return null;
+            }
+            return cached;
+        }
+    }
+
+    private static long dryRun(@NotNull String sql, @NotNull String projectId) {
+        BigQuery bigQuery = GcpClientsUtils.bigQuery(projectId);
+        QueryJobConfiguration config = QueryJobConfiguration.newBuilder(sql)
+                .setDryRun(true)
+                .setUseLegacySql(false)
+                .build();
+        Job job = bigQuery.create(JobInfo.of(config));
+        JobStatistics statistics = job.getStatistics();
+        if (statistics instanceof JobStatistics.QueryStatistics queryStats
+                && queryStats.getTotalBytesProcessed() != null) {
+            return queryStats.getTotalBytesProcessed();
+        }
+        return 0L;
+    }
+
+    private static @NotNull String key(@NotNull String sql, @NotNull String projectId) {
+        return projectId + '\n' + sql;
+    }
+
+    private record Estimate(long bytes, long createdAt) {
+    }
+}
@@ -26,15 +26,17 @@ public interface BigQueryExecutionService {
     }
 
     /**
-     * Executes a SQL query against BigQuery synchronously.
+     * Submits a SQL query to BigQuery and returns without waiting for it. The job status is
+     * then polled with backoff on a scheduled executor, so no thread is held while the query
+     * runs and several queries can run concurrently.
      * Must be called off the EDT.
      *
      * @param sql       compiled SQL to execute
      * @param projectId GCP project ID
      * @param tableName Dataform table name (for display)
-     * @return execution result, never null
+     * @return handle to follow progress, cancel the job and get its result
      */
-    @NotNull BigQueryJobResult execute(
+    @NotNull QueryExecution submit(
             @NotNull String sql,
             @NotNull String projectId,
             @NotNull String tableName
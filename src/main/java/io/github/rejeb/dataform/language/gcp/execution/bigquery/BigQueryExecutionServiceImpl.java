@@ -19,67 +19,182 @@ package io.github.rejeb.dataform.language.gcp.execution.bigquery;
 import com.google.cloud.bigquery.*;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.project.Project;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import io.github.rejeb.dataform.language.gcp.auth.AuthTrigger;
 import io.github.rejeb.dataform.language.gcp.auth.GcpAuthErrors;
+import io.github.rejeb.dataform.language.settings.DataformToolsSettings;
 import io.github.rejeb.dataform.language.util.GcpClientsUtils;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 public final class BigQueryExecutionServiceImpl implements BigQueryExecutionService {
 
     private static final Logger LOG = Logger.getInstance(BigQueryExecutionServiceImpl.class);
 
+    private static final long INITIAL_POLL_MS = 250;
+    private static final long MAX_POLL_MS = 5_000;
+
     public BigQueryExecutionServiceImpl(@NotNull Project project) {
     }
 
     @Override
-    public @NotNull BigQueryJobResult execute(
+    public @NotNull QueryExecution submit(
             @NotNull String sql,
             @NotNull String projectId,
             @NotNull String tableName
     ) {
+        Job job;
         try {
             BigQuery bigQuery = GcpClientsUtils.bigQuery(projectId);
             QueryJobConfiguration config = QueryJobConfiguration.newBuilder(sql)
                     .setUseLegacySql(false)
                     .build();
+            job = bigQuery.create(JobInfo.of(config));
+        } catch (RuntimeException e) {
+            LOG.warn("Failed to submit BigQuery job", e);
+            GcpAuthErrors.reportIfAuthFailure(e, AuthTrigger.USER_ACTION);
+            return QueryExecution.failed(tableName, "Execution error: " + e.getMessage());
+        }
+        QueryExecution execution = new QueryExecution(tableName, job);
+        schedulePoll(execution, job, sql, projectId, INITIAL_POLL_MS);
+        return execution;
+    }
 
-            Job job = bigQuery.create(JobInfo.of(config));
-            job = job.waitFor();
+    /**
+     * Polls the job status after {@code delayMs}, doubling the delay up to {@link #MAX_POLL_MS}
+     * while the job runs. The scheduled executor only hands the HTTP call over to the pool.
+     */
+    private void schedulePoll(@NotNull QueryExecution execution,
+                              @NotNull Job job,
+                              @NotNull String sql,
+                              @NotNull String projectId,
+                              long delayMs) {
+        AppExecutorUtil.getAppScheduledExecutorService().schedule(
+                () -> AppExecutorUtil.getAppExecutorService().execute(
+                        () -> poll(execution, job, sql, projectId, delayMs)),
+                delayMs, TimeUnit.MILLISECONDS);
+    }
 
-            if (job == null) {
-                return failure(tableName, "Job no longer exists after submission");
+    private void poll(@NotNull QueryExecution execution,
+                      @NotNull Job job,
+                      @NotNull String sql,
+                      @NotNull String projectId,
+                      long delayMs) {
+        if (execution.isDone()) return;
+        String tableName = execution.getTableName();
+        try {
+            Job current = job.reload();
+            if (current == null) {
+                execution.complete(failure(tableName, "Job no longer exists after submission"));
+                return;
+            }
+            execution.updateProgress(progress(current));
+            if (!current.isDone()) {
+                schedulePoll(execution, current, sql, projectId, Math.min(delayMs * 2, MAX_POLL_MS));
+                return;
             }
-            if (job.getStatus().getError() != null) {
-                return failure(tableName, job.getStatus().getError().getMessage());
+            if (current.getStatus().getError() != null) {
+                execution.complete(failure(tableName, current.getStatus().getError().getMessage()));
+                return;
             }
 
-            TableResult tableResult = job.getQueryResults();
+            TableResult tableResult = current.getQueryResults();
             Schema schema = tableResult.getSchema();
 
             BigQueryPagedResult pagedResult = new BigQueryPagedResult(
-                    job,
+                    current,
                     schema,
                     tableResult.getTotalRows()
             );
 
-            BigQueryJobStats stats = extractStats(job, projectId, tableResult.getTotalRows());
-            return new BigQueryJobResult(tableName, stats, pagedResult, null);
+            BigQueryJobStats stats = extractStats(current, sql, projectId, tableResult.getTotalRows());
+            if (!execution.complete(new BigQueryJobResult(tableName, stats, pagedResult, null))) {
+                pagedResult.dispose();
+                return;
+            }
+            downloadWithStorageApi(pagedResult, current, schema, sql, projectId, tableResult.getTotalRows());
 
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            return failure(tableName, "Query execution interrupted");
+            execution.complete(failure(tableName, "Query execution interrupted"));
         } catch (RuntimeException e) {
-            LOG.warn("Failed to build BigQuery client", e);
-            GcpAuthErrors.reportIfAuthFailure(e, AuthTrigger.USER_ACTION);
-            return failure(tableName, "Execution error: " + e.getMessage());
-        } catch (Exception e) {
             LOG.warn("BigQuery execution failed", e);
             GcpAuthErrors.reportIfAuthFailure(e, AuthTrigger.USER_ACTION);
-            return failure(tableName, e.getMessage());
+            execution.complete(failure(tableName, "Execution error: " + e.getMessage()));
         }
     }
 
-    private BigQueryJobStats extractStats(@NotNull Job job, @NotNull String projectId, long totalRows) {
+    private static @NotNull BigQueryJobProgress progress(@NotNull Job job) {
+        JobStatistics stats = job.getStatistics();
+        long now = System.currentTimeMillis();
+        long creation = stats != null && stats.getCreationTime() != null ? stats.getCreationTime() : now;
+        long end = stats != null && stats.getEndTime() != null ? stats.getEndTime() : now;
+        long bytes = 0;
+        long slotMs = 0;
+        List<BigQueryJobProgress.Stage> stages = List.of();
+        if (stats instanceof JobStatistics.QueryStatistics qs) {
+            bytes = qs.getTotalBytesProcessed() != null ? qs.getTotalBytesProcessed() : 0L;
+            slotMs = qs.getTotalSlotMs() != null ? qs.getTotalSlotMs() : 0L;
+            if (qs.getQueryPlan() != null) {
+                stages = qs.getQueryPlan().stream()
+                        .map(stage -> new BigQueryJobProgress.Stage(
+                                stage.getName(),
+                                stage.getStatus() != null ? stage.getStatus() : "",
+                                stage.getStartMs() > 0
+                                        ? (stage.getEndMs() > 0 ? stage.getEndMs() : now) - stage.getStartMs()
+                                        : 0))
+                        .toList();
+            }
+        }
+        String state = job.getStatus() != null && job.getStatus().getState() != null
+                ? job.getStatus().getState().name() : "PENDING";
+        return new BigQueryJobProgress(state, end - creation, bytes, slotMs, stages);
+    }
+
+    /**
+     * Downloads the first rows of the result through the Storage Read API in the background when
+     * enabled in the settings. The result pages through the destination table until the download
+     * completes, and keeps doing so for the rows past {@code storageReadMaxRows}.
+     */
+    private void downloadWithStorageApi(
+            @NotNull BigQueryPagedResult pagedResult,
+            @NotNull Job job,
+            @NotNull Schema schema,
+            @NotNull String sql,
+            @NotNull String projectId,
+            long totalRows
+    ) {
+        DataformToolsSettings settings = DataformToolsSettings.getInstance();
+        TableId destination = job.getConfiguration() instanceof QueryJobConfiguration query
+                ? query.getDestinationTable() : null;
+        if (!settings.isStorageReadEnabled() || destination == null
+                || totalRows <= BigQueryPagedResult.DEFAULT_PAGE_SIZE) {
+            return;
+        }
+        int maxRows = settings.getStorageReadMaxRows();
+        // A partial download is completed from the destination table by row offset, so it must
+        // follow the table order, which only a single stream does.
+        boolean singleStream = totalRows > maxRows || BigQueryStorageReader.isOrdered(sql);
+        AppExecutorUtil.getAppExecutorService().execute(() -> {
+            try {
+                long start = System.currentTimeMillis();
+                List<FieldValueList> rows = BigQueryStorageReader.read(
+                        destination, schema, projectId, maxRows, singleStream, pagedResult::isDisposed);
+                LOG.info("Downloaded " + rows.size() + " of " + totalRows + " rows with the Storage Read API in "
+                        + (System.currentTimeMillis() - start) + " ms");
+                pagedResult.useDownloadedRows(rows);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | RuntimeException e) {
+                LOG.warn("BigQuery Storage Read API failed, paging through the destination table instead", e);
+            }
+        });
+    }
+
+    private BigQueryJobStats extractStats(@NotNull Job job, @NotNull String sql, @NotNull String projectId, long totalRows) {
         JobStatistics stats = job.getStatistics();
         JobStatistics.QueryStatistics queryStats = (stats instanceof JobStatistics.QueryStatistics qs) ? qs : null;
         String jobId = job.getJobId().getJob();
@@ -92,7 +207,11 @@ public final class BigQueryExecutionServiceImpl implements BigQueryExecutionServ
         boolean cacheHit = queryStats != null && Boolean.TRUE.equals(queryStats.getCacheHit());
         String stmtType = queryStats != null && queryStats.getStatementType() != null
                 ? queryStats.getStatementType().name() : null;
-        return new BigQueryJobStats(jobId, projectId, location, creation, start, end, bytes, cacheHit, stmtType, totalRows);
+        BigQueryCostEstimator estimator = BigQueryCostEstimator.getInstance();
+        Long estimated = estimator.getCachedEstimate(sql, projectId);
+        estimator.recordActual(sql, projectId, bytes, cacheHit);
+        return new BigQueryJobStats(jobId, projectId, location, creation, start, end, bytes, cacheHit, stmtType,
+                totalRows, estimated);
     }
 
     private BigQueryJobResult failure(@NotNull String tableName, @NotNull String message) {
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.gcp.execution.bigquery;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+import static io.github.rejeb.dataform.language.util.Utils.formatBytes;
+
+/**
+ * Snapshot of a running BigQuery job, refreshed each time its status is polled.
+ *
+ * @param state          job state (e.g. "PENDING", "RUNNING", "DONE")
+ * @param elapsedMs      time since the job was created
+ * @param bytesProcessed bytes processed so far
+ * @param slotMs         slot milliseconds consumed so far
+ * @param stages         query plan stages reported so far
+ */
+public record BigQueryJobProgress(
+        @NotNull String state,
+        long elapsedMs,
+        long bytesProcessed,
+        long slotMs,
+        @NotNull List<Stage> stages
+) {
+    public static final BigQueryJobProgress SUBMITTED = new BigQueryJobProgress("PENDING", 0, 0, 0, List.of());
+
+    /**
+     * @param name       stage name (e.g. "S00: Input")
+     * @param status     stage status (e.g. "RUNNING", "COMPLETE")
+     * @param durationMs stage wall-clock duration, or time since it started while running
+     */
+    public record Stage(@NotNull String name, @NotNull String status, long durationMs) {}
+
+    public @NotNull String describe() {
+        long done = stages.stream().filter(s -> "COMPLETE".equals(s.status())).count();
+        return String.format("%s — %.1f s, %s processed, %,d slot-ms%s",
+                state, elapsedMs / 1000.0, formatBytes(bytesProcessed), slotMs,
+                stages.isEmpty() ? "" : ", stage " + done + "/" + stages.size());
+    }
+}
@@ -26,15 +26,36 @@ import org.jetbrains.annotations.Nullable;
  * @param stats      Job statistics
  * @param pagedResult    Result rows
  * @param errorMessage Non-null if execution failed
+ * @param execution  Non-null while the query is still running
  */
 public record BigQueryJobResult(
         @NotNull String tableName,
         @Nullable BigQueryJobStats stats,
         @Nullable BigQueryPagedResult pagedResult,
-        @Nullable String errorMessage
+        @Nullable String errorMessage,
+        @Nullable QueryExecution execution
 ) {
+    public BigQueryJobResult(
+            @NotNull String tableName,
+            @Nullable BigQueryJobStats stats,
+            @Nullable BigQueryPagedResult pagedResult,
+            @Nullable String errorMessage
+    ) {
+        this(tableName, stats, pagedResult, errorMessage, null);
+    }
+
+    /** Placeholder shown in the Services view until {@code execution} completes. */
+    public static @NotNull BigQueryJobResult running(@NotNull QueryExecution execution) {
+        return new BigQueryJobResult(execution.getTableName(), null, null, null, execution);
+    }
+
     /** @return true if the execution completed without error */
     public boolean isSuccess() {
         return errorMessage == null;
     }
+
+    /** @return true while the query is still running */
+    public boolean isRunning() {
+        return execution != null && !execution.isDone();
+    }
 }
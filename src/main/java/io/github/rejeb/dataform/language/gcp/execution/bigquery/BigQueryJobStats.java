@@ -32,6 +32,7 @@ import org.jetbrains.annotations.Nullable;
  * @param cacheHit         Whether results were served from cache
  * @param statementType    SQL statement type (e.g. "SELECT")
  * @param totalRows        Tolal row count
+ * @param estimatedBytes   Bytes estimated by a dry run before execution, if one was made
  */
 public record BigQueryJobStats(
         @NotNull String jobId,
@@ -43,5 +44,6 @@ public record BigQueryJobStats(
         long bytesProcessed,
         boolean cacheHit,
         @Nullable String statementType,
-        long totalRows
+        long totalRows,
+        @Nullable Long estimatedBytes
 ) {}
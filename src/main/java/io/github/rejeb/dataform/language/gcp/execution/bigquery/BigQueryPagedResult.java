@@ -17,121 +17,509 @@
 package io.github.rejeb.dataform.language.gcp.execution.bigquery;
 
 import com.google.cloud.bigquery.*;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Encapsulates BigQuery pagination state for a completed job.
  * Allows fetching pages without re-executing the job.
+ * <p>
+ * The last {@link #PAGE_CACHE_SIZE} pages visited are kept in memory, and the page following
+ * the displayed one is downloaded in the background, so paging back and forth over a result
+ * only hits BigQuery on the first visit of each page.
+ * <p>
+ * Pages are read from the job's destination table by row offset, so any page is a single
+ * round trip. Jobs without a destination table (scripts) fall back to page tokens, which
+ * must be replayed from the last known page. Once the first rows have been downloaded in the
+ * background through the Storage Read API, the pages they cover are served from memory.
+ * <p>
+ * Filtering and sorting run server-side: the destination table of the original job is queried
+ * again with a {@code WHERE}/{@code ORDER BY} clause and pagination switches to that job.
  */
 public class BigQueryPagedResult {
 
+    private static final Logger LOG = Logger.getInstance(BigQueryPagedResult.class);
+
     public static final int   DEFAULT_PAGE_SIZE  = 100;
+    static final int          PAGE_CACHE_SIZE    = 10;
+    private static final int  ESTIMATE_SAMPLE    = 1_000;
+    private static final long INITIAL_FILTER_POLL_MS = 250;
+    private static final long MAX_FILTER_POLL_MS     = 2_000;
 
-    private final Job                  job;
     private final Schema               schema;
-    private final long                 totalRows;
+    private volatile Source             original;
+    private volatile Source            source;
     private final Map<Integer, String> pageTokenCache = new HashMap<>();
+    private final Map<Integer, List<FieldValueList>> pageCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<FieldValueList>> eldest) {
+            if (size() <= PAGE_CACHE_SIZE) return false;
+            cachedBytes -= estimateBytes(eldest.getValue());
+            return true;
+        }
+    };
+    private final Map<Integer, CompletableFuture<List<FieldValueList>>> prefetching = new HashMap<>();
 
-    private int    pageSize    = DEFAULT_PAGE_SIZE;
-    private int    currentPage = 0;
-    private String pageToken   = null;
+    private int     pageSize    = DEFAULT_PAGE_SIZE;
+    private int     currentPage = 0;
+    private int     generation  = 0;
+    private boolean disposed    = false;
+    private long    cachedBytes = 0;
+    private long    downloadedBytes = 0;
+    private volatile @Nullable Runnable cacheListener;
+    private @Nullable Job filterJob;
 
     public BigQueryPagedResult(
             @NotNull Job job,
             @NotNull Schema schema,
             long totalRows
     ) {
-        this.job       = job;
         this.schema    = schema;
-        this.totalRows = totalRows;
+        this.original  = new Source(job, destinationTable(job), totalRows, null);
+        this.source    = original;
+    }
+
+    /**
+     * Serves the first {@code rows.size()} rows of the unfiltered result from memory from now on.
+     * Later rows keep being read from the destination table. Ignored once disposed.
+     */
+    void useDownloadedRows(@NotNull List<FieldValueList> rows) {
+        long bytes = estimateBytes(rows);
+        synchronized (this) {
+            if (disposed) return;
+            Source downloaded = new Source(original.job(), original.table(), original.totalRows(), rows);
+            if (source == original) {
+                source = downloaded;
+                // Rows read from several streams are not in table order: drop the pages read by
+                // offset so that pages are not mixed from both orders.
+                resetPages();
+            }
+            original = downloaded;
+            downloadedBytes = bytes;
+        }
+        Runnable listener = cacheListener;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    synchronized boolean isDisposed() {
+        return disposed;
     }
 
     public @NotNull List<FieldValueList> loadFirstPage() {
-        currentPage = 0;
-        pageToken   = null;
-        return fetchPage();
+        return showPage(0);
+    }
+
+    public @NotNull List<FieldValueList> reloadCurrentPage() {
+        return showPage(currentPage);
     }
 
     public @NotNull List<FieldValueList> loadNextPage() {
         if (isLastPage()) return List.of();
-        currentPage++;
-        return fetchPage();
+        return showPage(currentPage + 1);
     }
 
     public @NotNull List<FieldValueList> loadPreviousPage() {
         if (isFirstPage()) return List.of();
-        currentPage--;
-        pageToken = pageTokenCache.getOrDefault(currentPage, null);
-        return fetchPage();
+        return showPage(currentPage - 1);
     }
 
     public @NotNull List<FieldValueList> loadPageAtOffset(long rowOffset) {
-        int targetPage = (int) (rowOffset / pageSize);
-        if (pageTokenCache.containsKey(targetPage)) {
-            currentPage = targetPage;
-            pageToken   = pageTokenCache.get(targetPage);
-            return fetchPage();
+        int targetPage = (int) (rowOffset / getPageSize());
+        int lastKnown;
+        synchronized (this) {
+            lastKnown = pageCache.containsKey(targetPage) || canFetch(targetPage)
+                    ? targetPage
+                    : pageTokenCache.keySet().stream().filter(this::hasToken).max(Integer::compare).orElse(0);
         }
         // token non en cache — rejoue depuis le dernier token connu
-        int  lastKnown      = pageTokenCache.isEmpty() ? 0 : Collections.max(pageTokenCache.keySet());
-        String lastToken    = lastKnown == 0 ? null : pageTokenCache.get(lastKnown);
-        currentPage = lastKnown;
-        pageToken   = lastToken;
-        while (currentPage < targetPage) {
-            fetchPage();
-            currentPage++;
+        for (int page = lastKnown; page < targetPage; page++) {
+            fetchPage(page);
+        }
+        return showPage(targetPage);
+    }
+
+    /**
+     * The query that filters and orders the original result, or {@code null} when a blank
+     * filter and no ordering restore the original result.
+     *
+     * @param filter  BigQuery boolean expression over the result columns, may be blank
+     * @param orderBy {@code ORDER BY} items, e.g. {@code `address`.`city` DESC}
+     */
+    public @Nullable String filterQuery(@NotNull String filter, @NotNull List<String> orderBy) {
+        TableId table = original.table();
+        if (table == null) {
+            throw new IllegalStateException("Result has no destination table to filter");
+        }
+        if (filter.isBlank() && orderBy.isEmpty()) return null;
+        StringBuilder sql = new StringBuilder("SELECT * FROM `")
+                .append(table.getProject()).append('.').append(table.getDataset()).append('.')
+                .append(table.getTable()).append('`');
+        if (!filter.isBlank()) {
+            sql.append("\nWHERE ").append(filter);
+        }
+        if (!orderBy.isEmpty()) {
+            sql.append("\nORDER BY ").append(String.join(", ", orderBy));
+        }
+        return sql.toString();
+    }
+
+    /** Project the original job ran in, which filtering jobs are billed to. */
+    public @NotNull String getProjectId() {
+        return original.job().getJobId().getProject();
+    }
+
+    /**
+     * Re-pages through the result of {@code sql}, built by {@link #filterQuery}, or through the
+     * original result when {@code sql} is {@code null}. Must be called off the EDT: it blocks
+     * until the filtering job is done. A filtering job still running is cancelled, and so is
+     * this one when {@code indicator} is cancelled, when a newer filter is applied or when the
+     * result is disposed.
+     *
+     * @throws BigQueryException         when the filtering query fails, e.g. on an invalid filter
+     * @throws ProcessCanceledException when the filtering was cancelled or superseded
+     */
+    public void applyFilterAndSorting(@Nullable String sql, @NotNull ProgressIndicator indicator)
+            throws InterruptedException {
+        Job submitted = sql == null ? null : original.job().getBigQuery().create(JobInfo.of(
+                QueryJobConfiguration.newBuilder(sql).setUseLegacySql(false).build()));
+        cancelFilterJob(submitted);
+        Source next = original;
+        if (submitted != null) {
+            Job done;
+            try {
+                done = awaitFilterJob(submitted, indicator);
+            } catch (ProcessCanceledException | InterruptedException e) {
+                submitted.cancel();
+                throw e;
+            }
+            long total = done.getQueryResults(BigQuery.QueryResultsOption.pageSize(1)).getTotalRows();
+            next = new Source(done, destinationTable(done), total, null);
+        }
+        synchronized (this) {
+            if (disposed || filterJob != submitted) throw new ProcessCanceledException();
+            source = next;
+            resetPages();
+        }
+        currentPage = 0;
+    }
+
+    /**
+     * Polls {@code job} until it is done, backing off up to {@link #MAX_FILTER_POLL_MS}.
+     * Gives up as soon as the job is superseded by a newer filter or the result is disposed.
+     */
+    private @NotNull Job awaitFilterJob(@NotNull Job job, @NotNull ProgressIndicator indicator)
+            throws InterruptedException {
+        long delayMs = INITIAL_FILTER_POLL_MS;
+        while (true) {
+            indicator.checkCanceled();
+            synchronized (this) {
+                if (disposed || filterJob != job) throw new ProcessCanceledException();
+            }
+            Job current = job.reload();
+            if (current == null) {
+                throw new BigQueryException(0, "Filtering job no longer exists after submission");
+            }
+            if (current.isDone()) {
+                if (current.getStatus().getError() != null) {
+                    throw new BigQueryException(0, current.getStatus().getError().getMessage());
+                }
+                return current;
+            }
+            Thread.sleep(delayMs);
+            delayMs = Math.min(delayMs * 2, MAX_FILTER_POLL_MS);
+        }
+    }
+
+    /** Cancels the filtering job still running, if any, and remembers {@code next} instead. */
+    private void cancelFilterJob(@Nullable Job next) {
+        Job previous;
+        synchronized (this) {
+            previous = filterJob;
+            filterJob = next;
+        }
+        if (previous != null) {
+            previous.cancel();
         }
-        return fetchPage();
     }
 
+    /**
+     * Streams every row of the current, possibly filtered, result page by page, without
+     * touching the grid pagination or the page cache. Only one page is held in memory, unless
+     * the whole result was already downloaded. A partial download is ignored and the result
+     * streamed from its destination table instead.
+     */
+    public void forEachPage(int size, @NotNull PageConsumer consumer) throws IOException, InterruptedException {
+        Source current = source;
+        List<FieldValueList> downloadedRows = current.downloadedRows();
+        if (downloadedRows != null && downloadedRows.size() >= current.totalRows()) {
+            for (int from = 0; from < downloadedRows.size(); from += size) {
+                consumer.accept(downloadedRows.subList(from, Math.min(from + size, downloadedRows.size())));
+            }
+            return;
+        }
+        TableResult page = current.table() != null
+                ? current.job().getBigQuery().listTableData(current.table(), schema,
+                        BigQuery.TableDataListOption.pageSize(size))
+                : current.job().getQueryResults(BigQuery.QueryResultsOption.pageSize(size));
+        while (page != null) {
+            List<FieldValueList> rows = new ArrayList<>();
+            for (FieldValueList row : page.getValues()) {
+                rows.add(row);
+            }
+            consumer.accept(rows);
+            page = page.hasNextPage() ? page.getNextPage() : null;
+        }
+    }
+
+    public boolean isFilterAndSortingSupported() { return original.table() != null; }
+
     public boolean isFirstPage() { return currentPage == 0; }
-    public boolean isLastPage()  { return getPageEnd() >= totalRows; }
-    public int     getPageSize() { return pageSize; }
-    public long    getTotalRows(){ return totalRows; }
+    public boolean isLastPage()  { return getPageEnd() >= getTotalRows(); }
+    public synchronized int getPageSize() { return pageSize; }
+    public long    getTotalRows(){ return source.totalRows(); }
     public int     getCurrentPage() { return currentPage; }
-    public long    getPageStart()   { return (long) currentPage * pageSize; }
-    public long    getPageEnd()     { return Math.min(getPageStart() + pageSize, totalRows); }
+    public long    getPageStart()   { return (long) currentPage * getPageSize(); }
+    public long    getPageEnd()     { return Math.min(getPageStart() + getPageSize(), getTotalRows()); }
     public @NotNull Schema getSchema() { return schema; }
 
+    /** Approximate heap used by the downloaded rows and the cached pages. */
+    public synchronized long getEstimatedMemoryBytes() {
+        return downloadedBytes + cachedBytes;
+    }
+
+    /**
+     * Drops the cached pages, keeping the page tokens so that they can be downloaded again.
+     * Rows downloaded up front are kept. Returns the approximate number of bytes released.
+     */
+    public synchronized long trimCache() {
+        long released = cachedBytes;
+        pageCache.clear();
+        cachedBytes = 0;
+        return released;
+    }
+
+    /** Sets a listener called, outside any lock, each time a downloaded page is cached. */
+    public void setCacheListener(@Nullable Runnable listener) {
+        this.cacheListener = listener;
+    }
+
     public void setPageSize(int newPageSize) {
-        this.pageSize    = newPageSize;
+        synchronized (this) {
+            this.pageSize = newPageSize;
+            resetPages();
+        }
         this.currentPage = 0;
-        this.pageToken   = null;
-        this.pageTokenCache.clear();
     }
 
-    private @NotNull List<FieldValueList> fetchPage() {
-        List<BigQuery.QueryResultsOption> options = new ArrayList<>();
-        options.add(BigQuery.QueryResultsOption.pageSize(pageSize));
-        if (pageToken != null) {
-            options.add(BigQuery.QueryResultsOption.pageToken(pageToken));
-        }
+    private @NotNull List<FieldValueList> showPage(int page) {
+        currentPage = page;
+        List<FieldValueList> rows = fetchPage(page);
+        prefetch(page + 1);
+        return rows;
+    }
 
-        TableResult page;
+    private @NotNull List<FieldValueList> fetchPage(int page) {
+        Source current = source;
+        int size = getPageSize();
+        if (inMemory(current, page, size)) {
+            List<FieldValueList> downloadedRows = current.downloadedRows();
+            int from = (int) Math.min((long) page * size, downloadedRows.size());
+            return downloadedRows.subList(from, Math.min(from + size, downloadedRows.size()));
+        }
+        CompletableFuture<List<FieldValueList>> pending;
+        int gen;
+        synchronized (this) {
+            List<FieldValueList> cached = pageCache.get(page);
+            if (cached != null) return cached;
+            pending = prefetching.get(page);
+            gen = generation;
+        }
+        if (pending != null) {
+            try {
+                return pending.join();
+            } catch (CompletionException | CancellationException e) {
+                // prefetch failed or was discarded — download the page in the foreground
+            }
+        }
         try {
-            page = job.getQueryResults(options.toArray(new BigQuery.QueryResultsOption[0]));
+            return download(page, gen);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             return List.of();
         }
+    }
+
+    private void prefetch(int page) {
+        CompletableFuture<List<FieldValueList>> future = new CompletableFuture<>();
+        int gen;
+        synchronized (this) {
+            if (disposed || inMemory(source, page, pageSize) || (long) page * pageSize >= source.totalRows()
+                    || !canFetch(page)
+                    || pageCache.containsKey(page) || prefetching.containsKey(page)) {
+                return;
+            }
+            prefetching.put(page, future);
+            gen = generation;
+        }
+        AppExecutorUtil.getAppExecutorService().execute(() -> {
+            try {
+                future.complete(download(page, gen));
+            } catch (InterruptedException e) {
+                future.cancel(false);
+            } catch (RuntimeException e) {
+                LOG.debug("Failed to prefetch BigQuery result page " + page, e);
+                future.completeExceptionally(e);
+            } finally {
+                synchronized (this) {
+                    prefetching.remove(page, future);
+                }
+            }
+        });
+    }
 
-        String nextToken = page.getNextPageToken();
-        pageTokenCache.put(currentPage + 1, nextToken);
-        pageToken = nextToken;
+    /**
+     * Downloads {@code page}, which must satisfy {@link #canFetch(int)}, and caches it unless
+     * the pagination was reset in the meantime.
+     */
+    private @NotNull List<FieldValueList> download(int page, int gen) throws InterruptedException {
+        String token;
+        int size;
+        Source current;
+        synchronized (this) {
+            token   = pageTokenCache.get(page);
+            size    = pageSize;
+            current = source;
+        }
+        TableResult result;
+        if (current.table() != null) {
+            result = current.job().getBigQuery().listTableData(current.table(), schema,
+                    BigQuery.TableDataListOption.startIndex((long) page * size),
+                    BigQuery.TableDataListOption.pageSize(size));
+        } else {
+            List<BigQuery.QueryResultsOption> options = new ArrayList<>();
+            options.add(BigQuery.QueryResultsOption.pageSize(size));
+            if (token != null) {
+                options.add(BigQuery.QueryResultsOption.pageToken(token));
+            }
+            result = current.job().getQueryResults(options.toArray(new BigQuery.QueryResultsOption[0]));
+        }
 
         List<FieldValueList> rows = new ArrayList<>();
-        for (FieldValueList row : page.getValues()) {
+        for (FieldValueList row : result.getValues()) {
             rows.add(row);
         }
+        rows = Collections.unmodifiableList(rows);
+        boolean cached = false;
+        synchronized (this) {
+            if (gen == generation) {
+                pageTokenCache.put(page + 1, result.getNextPageToken());
+                List<FieldValueList> previous = pageCache.put(page, rows);
+                cachedBytes += estimateBytes(rows) - (previous != null ? estimateBytes(previous) : 0);
+                cached = true;
+            }
+        }
+        Runnable listener = cacheListener;
+        if (cached && listener != null) {
+            listener.run();
+        }
         return rows;
     }
 
-    public void dispose() {
-        job.cancel();
+    private boolean canFetch(int page) {
+        return inMemory(source, page, pageSize) || source.table() != null || hasToken(page);
+    }
+
+    /**
+     * Whether every row of {@code page} is among the rows downloaded up front.
+     */
+    private static boolean inMemory(@NotNull Source source, int page, int size) {
+        List<FieldValueList> rows = source.downloadedRows();
+        return rows != null && Math.min((long) (page + 1) * size, source.totalRows()) <= rows.size();
+    }
+
+    private boolean hasToken(int page) {
+        return page == 0 || pageTokenCache.get(page) != null;
+    }
+
+    private void resetPages() {
+        generation++;
+        prefetching.values().forEach(future -> future.cancel(false));
+        prefetching.clear();
+        pageCache.clear();
         pageTokenCache.clear();
+        cachedBytes = 0;
+    }
+
+    public void dispose() {
+        synchronized (this) {
+            disposed = true;
+            resetPages();
+        }
+        cancelFilterJob(null);
+        original.job().cancel();
+    }
+
+    /**
+     * Rough heap footprint of {@code rows}, extrapolated from at most {@link #ESTIMATE_SAMPLE}
+     * rows spread over the list.
+     */
+    static long estimateBytes(@NotNull List<FieldValueList> rows) {
+        int size = rows.size();
+        if (size == 0) return 0;
+        int step = Math.max(1, size / ESTIMATE_SAMPLE);
+        long sampled = 0;
+        int count = 0;
+        for (int i = 0; i < size; i += step) {
+            sampled += estimateBytes((List<?>) rows.get(i));
+            count++;
+        }
+        return sampled * size / count;
     }
 
+    private static long estimateBytes(@NotNull List<?> values) {
+        long bytes = 48 + 8L * values.size();
+        for (Object value : values) {
+            bytes += 32;
+            Object raw = value instanceof FieldValue fieldValue ? fieldValue.getValue() : value;
+            if (raw instanceof String string) {
+                bytes += 40 + string.length();
+            } else if (raw instanceof List<?> nested) {
+                bytes += estimateBytes(nested);
+            }
+        }
+        return bytes;
+    }
+
+    private static @Nullable TableId destinationTable(@NotNull Job job) {
+        return job.getConfiguration() instanceof QueryJobConfiguration query
+                ? query.getDestinationTable() : null;
+    }
+
+    @FunctionalInterface
+    public interface PageConsumer {
+        void accept(@NotNull List<FieldValueList> rows) throws IOException, InterruptedException;
+    }
+
+    /**
+     * The job whose result is paged through, either the original one or a filtering job.
+     */
+    private record Source(
+            @NotNull Job job,
+            @Nullable TableId table,
+            long totalRows,
+            @Nullable List<FieldValueList> downloadedRows
+    ) {
+    }
 }
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.gcp.execution.bigquery;
+
+import com.google.api.gax.rpc.ServerStream;
+import com.google.cloud.bigquery.FieldValueList;
+import com.google.cloud.bigquery.Schema;
+import com.google.cloud.bigquery.TableId;
+import com.google.cloud.bigquery.storage.v1.BigQueryReadClient;
+import com.google.cloud.bigquery.storage.v1.CreateReadSessionRequest;
+import com.google.cloud.bigquery.storage.v1.DataFormat;
+import com.google.cloud.bigquery.storage.v1.ReadRowsRequest;
+import com.google.cloud.bigquery.storage.v1.ReadRowsResponse;
+import com.google.cloud.bigquery.storage.v1.ReadSession;
+import com.google.cloud.bigquery.storage.v1.ReadStream;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import io.github.rejeb.dataform.language.gcp.service.GcpClientService;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk download of query results through the BigQuery Storage Read API. The destination table
+ * of a finished job is split into up to {@link #MAX_STREAMS} streams that are read in parallel,
+ * which is much faster than paging through {@code getQueryResults} for large results.
+ */
+final class BigQueryStorageReader {
+
+    private static final Logger LOG = Logger.getInstance(BigQueryStorageReader.class);
+
+    static final int MAX_STREAMS = 4;
+
+    private static final Pattern ORDER_BY = Pattern.compile("(?i)\\border\\s+by\\b");
+
+    private BigQueryStorageReader() {
+    }
+
+    /**
+     * Rows of an ordered query must be read from a single stream to keep their order.
+     */
+    static boolean isOrdered(@NotNull String sql) {
+        return ORDER_BY.matcher(sql).find();
+    }
+
+    /**
+     * Reads at most {@code maxRows} rows of {@code table}, billing the read to
+     * {@code projectId}. With {@code preserveOrder} the table is read from a single stream.
+     * Stops early, returning the rows read so far, once {@code cancelled} returns {@code true}.
+     */
+    @NotNull
+    static List<FieldValueList> read(@NotNull TableId table,
+                                     @NotNull Schema schema,
+                                     @NotNull String projectId,
+                                     int maxRows,
+                                     boolean preserveOrder,
+                                     @NotNull BooleanSupplier cancelled) throws IOException, InterruptedException {
+        BigQueryReadClient client = GcpClientService.getInstance().bigQueryReadClient(projectId);
+        ReadSession session = client.createReadSession(CreateReadSessionRequest.newBuilder()
+                .setParent("projects/" + projectId)
+                .setReadSession(ReadSession.newBuilder()
+                        .setTable(String.format("projects/%s/datasets/%s/tables/%s",
+                                table.getProject() != null ? table.getProject() : projectId,
+                                table.getDataset(), table.getTable()))
+                        .setDataFormat(DataFormat.AVRO))
+                .setMaxStreamCount(preserveOrder ? 1 : MAX_STREAMS)
+                .build());
+        org.apache.avro.Schema avroSchema = new org.apache.avro.Schema.Parser()
+                .parse(session.getAvroSchema().getSchema());
+        AvroRowConverter converter = new AvroRowConverter(schema.getFields());
+        AtomicInteger remaining = new AtomicInteger(maxRows);
+
+        List<CompletableFuture<List<FieldValueList>>> streams = new ArrayList<>();
+        for (ReadStream stream : session.getStreamsList()) {
+            streams.add(CompletableFuture.supplyAsync(
+                    () -> readStream(client, stream, avroSchema, converter, remaining, cancelled),
+                    AppExecutorUtil.getAppExecutorService()));
+        }
+        List<FieldValueList> rows = new ArrayList<>();
+        try {
+            for (CompletableFuture<List<FieldValueList>> stream : streams) {
+                rows.addAll(stream.get());
+            }
+        } catch (ExecutionException e) {
+            throw new IOException("BigQuery Storage Read API failed", e.getCause());
+        } finally {
+            remaining.set(0);
+        }
+        LOG.debug("Read " + rows.size() + " rows of " + table + " from " + streams.size() + " streams");
+        return rows;
+    }
+
+    private static List<FieldValueList> readStream(@NotNull BigQueryReadClient client,
+                                                   @NotNull ReadStream stream,
+                                                   @NotNull org.apache.avro.Schema avroSchema,
+                                                   @NotNull AvroRowConverter converter,
+                                                   @NotNull AtomicInteger remaining,
+                                                   @NotNull BooleanSupplier cancelled) {
+        GenericDatumReader<GenericRecord> reader = new GenericDatumReader<>(avroSchema);
+        List<FieldValueList> rows = new ArrayList<>();
+        ServerStream<ReadRowsResponse> responses = client.readRowsCallable()
+                .call(ReadRowsRequest.newBuilder().setReadStream(stream.getName()).build());
+        try {
+            BinaryDecoder decoder = null;
+            GenericRecord record = null;
+            for (ReadRowsResponse response : responses) {
+                if (cancelled.getAsBoolean()) {
+                    return rows;
+                }
+                decoder = DecoderFactory.get()
+                        .binaryDecoder(response.getAvroRows().getSerializedBinaryRows().newInput(), decoder);
+                while (!decoder.isEnd()) {
+                    if (remaining.getAndDecrement() <= 0) {
+                        return rows;
+                    }
+                    record = reader.read(record, decoder);
+                    rows.add(converter.convert(record));
+                }
+            }
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            responses.cancel();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.gcp.execution.bigquery;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import io.github.rejeb.dataform.language.settings.DataformToolsSettings;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static io.github.rejeb.dataform.language.util.Utils.formatBytes;
+
+/**
+ * Asks for confirmation before running a query whose dry run estimate exceeds the byte budget
+ * set in the Dataform settings. Does nothing when the guard is disabled.
+ */
+public final class QueryCostGuard {
+
+    private static final Logger LOG = Logger.getInstance(QueryCostGuard.class);
+
+    private QueryCostGuard() {
+    }
+
+    /**
+     * Returns whether {@code sql} may run. Must be called off the EDT, it blocks on the dry run
+     * and on the confirmation dialog. Queries whose dry run fails are allowed so that the error
+     * is reported by the execution itself.
+     */
+    public static boolean allows(@NotNull Project project,
+                                 @NotNull String sql,
+                                 @NotNull String projectId,
+                                 @NotNull String tableName,
+                                 @NotNull ProgressIndicator indicator) {
+        DataformToolsSettings settings = DataformToolsSettings.getInstance();
+        if (!settings.isQueryBytesGuardEnabled()) return true;
+
+        indicator.setText("Estimating " + tableName + "...");
+        long bytes;
+        try {
+            bytes = BigQueryCostEstimator.getInstance().estimate(sql, projectId);
+        } catch (RuntimeException e) {
+            LOG.info("Dry run of " + tableName + " failed, running it without estimate: " + e.getMessage());
+            return true;
+        }
+        long budget = settings.getQueryBytesBudgetGib() * (1L << 30);
+        if (bytes <= budget) return true;
+
+        String message = String.format(
+                "\"%s\" will process about %s (≈ $%.2f on demand), above the %d GiB budget.%nRun it anyway?",
+                tableName, formatBytes(bytes), BigQueryCostEstimator.estimateCostUsd(bytes),
+                settings.getQueryBytesBudgetGib());
+        AtomicBoolean confirmed = new AtomicBoolean();
+        ApplicationManager.getApplication().invokeAndWait(() -> confirmed.set(
+                !project.isDisposed() && Messages.showYesNoDialog(
+                        project, message, "Large BigQuery Scan", "Run", "Skip", Messages.getWarningIcon())
+                        == Messages.YES),
+                ModalityState.defaultModalityState());
+        if (!confirmed.get()) {
+            LOG.info("Skipped " + tableName + ": estimated " + bytes + " bytes over budget");
+        }
+        return confirmed.get();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.gcp.execution.bigquery;
+
+import com.google.cloud.bigquery.Job;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Handle on a query submitted with {@link BigQueryExecutionService#submit}. The result
+ * future completes once the job is done and its first page was fetched, with a failed
+ * {@link BigQueryJobResult} when the job fails or is cancelled.
+ */
+public final class QueryExecution {
+
+    private static final Logger LOG = Logger.getInstance(QueryExecution.class);
+
+    private final String tableName;
+    private final @Nullable Job job;
+    private final CompletableFuture<BigQueryJobResult> result = new CompletableFuture<>();
+    private final List<Consumer<BigQueryJobProgress>> progressListeners = new CopyOnWriteArrayList<>();
+    private volatile BigQueryJobProgress progress = BigQueryJobProgress.SUBMITTED;
+
+    QueryExecution(@NotNull String tableName, @Nullable Job job) {
+        this.tableName = tableName;
+        this.job = job;
+    }
+
+    /** An execution whose job could not be submitted. */
+    static @NotNull QueryExecution failed(@NotNull String tableName, @NotNull String message) {
+        QueryExecution execution = new QueryExecution(tableName, null);
+        execution.complete(new BigQueryJobResult(tableName, null, null, message));
+        return execution;
+    }
+
+    public @NotNull String getTableName() {
+        return tableName;
+    }
+
+    public @Nullable String getJobId() {
+        return job != null ? job.getJobId().getJob() : null;
+    }
+
+    public @NotNull CompletableFuture<BigQueryJobResult> result() {
+        return result;
+    }
+
+    public boolean isDone() {
+        return result.isDone();
+    }
+
+    public @NotNull BigQueryJobProgress getProgress() {
+        return progress;
+    }
+
+    /**
+     * Registers a listener called, on a pooled thread, each time the job status is polled.
+     */
+    public void addProgressListener(@NotNull Consumer<BigQueryJobProgress> listener) {
+        progressListeners.add(listener);
+    }
+
+    public void removeProgressListener(@NotNull Consumer<BigQueryJobProgress> listener) {
+        progressListeners.remove(listener);
+    }
+
+    /**
+     * Cancels the BigQuery job and completes the result as failed. Does nothing once the result
+     * is available.
+     */
+    public void cancel() {
+        if (!complete(new BigQueryJobResult(tableName, null, null, "Query cancelled")) || job == null) return;
+        AppExecutorUtil.getAppExecutorService().execute(() -> {
+            try {
+                job.cancel();
+            } catch (RuntimeException e) {
+                LOG.warn("Failed to cancel BigQuery job " + getJobId(), e);
+            }
+        });
+    }
+
+    void updateProgress(@NotNull BigQueryJobProgress update) {
+        progress = update;
+        for (Consumer<BigQueryJobProgress> listener : progressListeners) {
+            listener.accept(update);
+        }
+    }
+
+    boolean complete(@NotNull BigQueryJobResult jobResult) {
+        boolean completed = result.complete(jobResult);
+        if (completed) {
+            progressListeners.clear();
+        }
+        return completed;
+    }
+}
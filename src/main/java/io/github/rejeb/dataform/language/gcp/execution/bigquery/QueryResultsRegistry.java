@@ -16,12 +16,19 @@
  */
 package io.github.rejeb.dataform.language.gcp.execution.bigquery;
 
+import com.intellij.execution.services.ServiceEventListener;
 import com.intellij.openapi.components.Service;
+import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.project.Project;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import io.github.rejeb.dataform.language.gcp.execution.bigquery.serviceview.DataformQueryContributor;
+import io.github.rejeb.dataform.language.settings.DataformToolsSettings;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,19 +36,68 @@ import java.util.Map;
 /**
  * Project-level service storing the latest BigQuery result per table.
  * Acts as the source of truth for the Services view nodes.
+ * <p>
+ * The rows held by all results are kept under the memory budget set in the Dataform settings.
+ * Past it, the cached pages of the least recently viewed results are dropped first, then
+ * those results are evicted altogether. The most recently viewed result is never touched.
  */
 @Service(Service.Level.PROJECT)
 public final class QueryResultsRegistry {
 
+    private static final Logger LOG = Logger.getInstance(QueryResultsRegistry.class);
+
+    private final Project project;
     private final Map<String, BigQueryJobResult> results = new LinkedHashMap<>();
+    private final Map<String, Long> lastViewed = new HashMap<>();
+    private long viewClock;
+
+    public QueryResultsRegistry(@NotNull Project project) {
+        this.project = project;
+    }
 
     public static QueryResultsRegistry getInstance(@NotNull Project project) {
         return project.getService(QueryResultsRegistry.class);
     }
 
-    /** Upsert: replaces any existing result for the same tableName. */
-    public synchronized void put(@NotNull BigQueryJobResult result) {
-        results.put(result.tableName(), result);
+    /** Upsert: replaces any existing result for the same tableName, cancelling it if still running. */
+    public void put(@NotNull BigQueryJobResult result) {
+        synchronized (this) {
+            BigQueryJobResult replaced = results.put(result.tableName(), result);
+            lastViewed.put(result.tableName(), ++viewClock);
+            track(result);
+            if (replaced != null && replaced.execution() != result.execution()) {
+                release(replaced);
+            }
+        }
+        enforceBudget();
+    }
+
+    /**
+     * Replaces the running placeholder of {@code execution} with its final result. Returns
+     * {@code false}, leaving the registry untouched, when a newer execution or a removal
+     * already replaced that placeholder.
+     */
+    public boolean complete(@NotNull QueryExecution execution, @NotNull BigQueryJobResult result) {
+        synchronized (this) {
+            BigQueryJobResult current = results.get(execution.getTableName());
+            if (current == null || current.execution() != execution) {
+                release(result);
+                return false;
+            }
+            BigQueryJobResult completed = new BigQueryJobResult(
+                    result.tableName(), result.stats(), result.pagedResult(), result.errorMessage(), execution);
+            results.put(execution.getTableName(), completed);
+            track(completed);
+        }
+        enforceBudget();
+        return true;
+    }
+
+    /** Records that the result of {@code tableName} was just displayed. */
+    public synchronized void markViewed(@NotNull String tableName) {
+        if (results.containsKey(tableName)) {
+            lastViewed.put(tableName, ++viewClock);
+        }
     }
 
     public synchronized @NotNull List<BigQueryJobResult> getAll() {
@@ -58,8 +114,66 @@ public final class QueryResultsRegistry {
 
     public synchronized void remove(@NotNull String tableName) {
         BigQueryJobResult removed = results.remove(tableName);
+        lastViewed.remove(tableName);
         if (removed != null) {
-            removed.pagedResult().dispose();
+            release(removed);
+        }
+    }
+
+    private void track(@NotNull BigQueryJobResult result) {
+        if (result.pagedResult() != null) {
+            result.pagedResult().setCacheListener(this::enforceBudget);
+        }
+    }
+
+    private void enforceBudget() {
+        List<BigQueryJobResult> evicted = new ArrayList<>();
+        synchronized (this) {
+            long budget = DataformToolsSettings.getInstance().getQueryResultsMemoryMb() * 1024L * 1024L;
+            List<BigQueryJobResult> byLastView = results.values().stream()
+                    .filter(r -> r.pagedResult() != null)
+                    .sorted(Comparator.comparingLong(r -> lastViewed.getOrDefault(r.tableName(), 0L)))
+                    .toList();
+            long total = byLastView.stream().mapToLong(r -> r.pagedResult().getEstimatedMemoryBytes()).sum();
+            if (total <= budget) return;
+
+            List<BigQueryJobResult> candidates = byLastView.subList(0, byLastView.size() - 1);
+            for (BigQueryJobResult result : candidates) {
+                if (total <= budget) break;
+                total -= result.pagedResult().trimCache();
+            }
+            for (BigQueryJobResult result : candidates) {
+                if (total <= budget) break;
+                total -= result.pagedResult().getEstimatedMemoryBytes();
+                results.remove(result.tableName());
+                lastViewed.remove(result.tableName());
+                release(result);
+                evicted.add(result);
+            }
+        }
+        if (!evicted.isEmpty()) {
+            LOG.info("Evicted " + evicted.size() + " BigQuery result(s) over the "
+                    + DataformToolsSettings.getInstance().getQueryResultsMemoryMb() + " MiB budget");
+            project.getMessageBus()
+                    .syncPublisher(ServiceEventListener.TOPIC)
+                    .handle(ServiceEventListener.ServiceEvent.createResetEvent(DataformQueryContributor.class));
+        }
+    }
+
+    /** Cancels the job if it still runs and frees its rows, off the calling thread. */
+    private static void release(@NotNull BigQueryJobResult result) {
+        QueryExecution execution = result.execution();
+        BigQueryPagedResult pagedResult = result.pagedResult();
+        if (pagedResult != null) {
+            pagedResult.setCacheListener(null);
         }
+        AppExecutorUtil.getAppExecutorService().execute(() -> {
+            if (execution != null) {
+                execution.cancel();
+            }
+            if (pagedResult != null) {
+                pagedResult.dispose();
+            }
+        });
     }
 }
@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.gcp.execution.bigquery.export;
+
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.FieldList;
+import com.google.cloud.bigquery.FieldValue;
+import com.google.cloud.bigquery.FieldValueList;
+import com.google.cloud.bigquery.Range;
+import com.google.cloud.bigquery.StandardSQLTypeName;
+import com.google.gson.stream.JsonWriter;
+import com.intellij.openapi.progress.ProgressIndicator;
+import io.github.rejeb.dataform.language.gcp.execution.bigquery.BigQueryPagedResult;
+import io.github.rejeb.dataform.language.gcp.execution.bigquery.grid.StructFlattener;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Streams a whole query result to a local file. Rows are fetched one page of
+ * {@link #EXPORT_PAGE_SIZE} rows at a time and written through a buffered file channel, so
+ * memory stays bounded whatever the size of the result. The file is written next to the
+ * target and moved into place once complete; a cancelled or failed export leaves no file.
+ */
+public final class BigQueryResultExporter {
+
+    static final int EXPORT_PAGE_SIZE = 10_000;
+
+    private BigQueryResultExporter() {
+    }
+
+    /**
+     * @param rows      number of rows written
+     * @param bytes     size of the exported file
+     * @param elapsedMs wall-clock duration of the export
+     */
+    public record ExportStats(long rows, long bytes, long elapsedMs) {
+        public long rowsPerSecond() {
+            return elapsedMs == 0 ? rows : rows * 1000 / elapsedMs;
+        }
+    }
+
+    public static @NotNull ExportStats export(@NotNull BigQueryPagedResult result,
+                                              @NotNull Path target,
+                                              @NotNull ResultExportFormat format,
+                                              @NotNull ProgressIndicator indicator)
+            throws IOException, InterruptedException {
+        long start = System.currentTimeMillis();
+        long total = result.getTotalRows();
+        long[] written = {0};
+        Path tmp = Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName().toString(), ".part");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 Writer out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), 1 << 16)) {
+                RowWriter writer = format == ResultExportFormat.CSV
+                        ? new CsvRowWriter(out, result.getSchema().getFields())
+                        : new JsonLinesRowWriter(out, result.getSchema().getFields());
+                writer.header();
+                indicator.setIndeterminate(total <= 0);
+                result.forEachPage(EXPORT_PAGE_SIZE, rows -> {
+                    for (FieldValueList row : rows) {
+                        writer.row(row);
+                    }
+                    written[0] += rows.size();
+                    indicator.checkCanceled();
+                    if (total > 0) {
+                        indicator.setFraction((double) written[0] / total);
+                    }
+                    long elapsed = Math.max(1, System.currentTimeMillis() - start);
+                    indicator.setText2(String.format("%,d of %,d rows, %,d rows/s",
+                            written[0], total, written[0] * 1000 / elapsed));
+                });
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        return new ExportStats(written[0], Files.size(target), System.currentTimeMillis() - start);
+    }
+
+    interface RowWriter {
+        void header() throws IOException;
+
+        void row(@NotNull FieldValueList row) throws IOException;
+    }
+
+    /**
+     * RFC 4180 CSV with one column per leaf field, named and formatted as in the result grid.
+     */
+    static final class CsvRowWriter implements RowWriter {
+        private final Writer out;
+        private final List<StructFlattener.FlatField> columns;
+        private final List<StructFlattener.RowExtractor> extractors;
+
+        CsvRowWriter(@NotNull Writer out, @NotNull FieldList fields) {
+            this.out = out;
+            this.columns = StructFlattener.flattenFields(fields, "");
+            this.extractors = StructFlattener.buildExtractors(fields);
+        }
+
+        @Override
+        public void header() throws IOException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) out.write(',');
+                cell(columns.get(i).qualifiedName());
+            }
+            out.write("\r\n");
+        }
+
+        @Override
+        public void row(@NotNull FieldValueList row) throws IOException {
+            for (int i = 0; i < extractors.size(); i++) {
+                if (i > 0) out.write(',');
+                Object value = extractors.get(i).extract(row);
+                if (value != null) cell(value.toString());
+            }
+            out.write("\r\n");
+        }
+
+        private void cell(@NotNull String value) throws IOException {
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            out.write(value.replace("\"", "\"\""));
+            out.write('"');
+        }
+    }
+
+    /**
+     * One JSON object per line, keeping STRUCT and ARRAY values nested. Numbers and booleans are
+     * written as JSON literals and timestamps as ISO-8601 UTC strings. RANGE values become a
+ * {@code {"start":…,"end":…}} object with {@code null} for an unbounded side.
+     */
+    static final class JsonLinesRowWriter implements RowWriter {
+        private final Writer out;
+        private final FieldList fields;
+        private final JsonWriter json;
+
+        JsonLinesRowWriter(@NotNull Writer out, @NotNull FieldList fields) {
+            this.out = out;
+            this.fields = fields;
+            this.json = new JsonWriter(out);
+            this.json.setLenient(true);
+        }
+
+        @Override
+        public void header() {
+        }
+
+        @Override
+        public void row(@NotNull FieldValueList row) throws IOException {
+            record(row, fields);
+            out.write('\n');
+        }
+
+        private void record(@NotNull FieldValueList record, @NotNull FieldList recordFields) throws IOException {
+            json.beginObject();
+            for (int i = 0; i < recordFields.size(); i++) {
+                Field field = recordFields.get(i);
+                json.name(field.getName());
+                value(record.get(i), field);
+            }
+            json.endObject();
+        }
+
+        private void value(@NotNull FieldValue value, @NotNull Field field) throws IOException {
+            if (value.isNull()) {
+                json.nullValue();
+                return;
+            }
+            switch (value.getAttribute()) {
+                case REPEATED -> {
+                    json.beginArray();
+                    for (FieldValue item : value.getRepeatedValue()) {
+                        value(item, field);
+                    }
+                    json.endArray();
+                }
+                case RECORD -> record(value.getRecordValue(), field.getSubFields());
+                case RANGE -> range(value.getRangeValue());
+                case PRIMITIVE -> primitive(value.getStringValue(), field.getType().getStandardType());
+            }
+        }
+
+        private void range(@NotNull Range range) throws IOException {
+            json.beginObject();
+            json.name("start");
+            bound(range.getStart());
+            json.name("end");
+            bound(range.getEnd());
+            json.endObject();
+        }
+
+        private void bound(FieldValue bound) throws IOException {
+            if (bound == null || bound.isNull()) json.nullValue();
+            else json.value(bound.getStringValue());
+        }
+
+        private void primitive(@NotNull String raw, @NotNull StandardSQLTypeName type) throws IOException {
+            switch (type) {
+                case INT64, NUMERIC, BIGNUMERIC -> json.jsonValue(raw);
+                case FLOAT64 -> {
+                    if (Double.isFinite(Double.parseDouble(raw))) json.jsonValue(raw);
+                    else json.value(raw);
+                }
+                case BOOL -> json.value(Boolean.parseBoolean(raw));
+                case TIMESTAMP -> {
+                    long micros = new BigDecimal(raw).movePointRight(6).longValue();
+                    json.value(Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                            Math.floorMod(micros, 1_000_000) * 1_000).toString());
+                }
+                default -> json.value(raw);
+            }
+        }
+    }
+}
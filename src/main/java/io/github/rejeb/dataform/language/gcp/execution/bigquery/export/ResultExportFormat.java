@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.gcp.execution.bigquery.export;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Locale;
+
+/**
+ * File formats query results can be exported to.
+ */
+public enum ResultExportFormat {
+    CSV("csv"),
+    JSON_LINES("jsonl");
+
+    private final String extension;
+
+    ResultExportFormat(@NotNull String extension) {
+        this.extension = extension;
+    }
+
+    public @NotNull String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Picks the format from a file name extension, or returns {@code null} when it is unknown.
+     */
+    public static @Nullable ResultExportFormat fromFileName(@NotNull String fileName) {
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".csv")) return CSV;
+        if (lower.endsWith(".jsonl") || lower.endsWith(".ndjson")) return JSON_LINES;
+        return null;
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.gcp.execution.bigquery.grid;
+
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.FieldValue;
+import com.google.cloud.bigquery.FieldValueList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column-oriented storage for the rows shown by the result grid. INT64, FLOAT64, BOOL and
+ * TIMESTAMP columns are kept in primitive arrays with a null bitmap, other scalars are
+ * dictionary-encoded strings, and display values are only built when a cell is read.
+ */
+public final class BqColumnStore {
+
+    static final BqColumnStore EMPTY = new BqColumnStore(new Column[0], 0);
+
+    private final Column[] columns;
+    private final int rowCount;
+
+    private BqColumnStore(@NotNull Column[] columns, int rowCount) {
+        this.columns = columns;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * Decodes {@code rows} once, column by column, using the pre-compiled extractors.
+     */
+    public static @NotNull BqColumnStore of(@NotNull List<FieldValueList> rows,
+                                            @NotNull List<StructFlattener.RowExtractor> extractors) {
+        Column[] columns = new Column[extractors.size()];
+        for (int c = 0; c < columns.length; c++) {
+            StructFlattener.RowExtractor extractor = extractors.get(c);
+            Column column = newColumn(extractor.field(), rows.size());
+            for (int r = 0; r < rows.size(); r++) {
+                FieldValue value = extractor.leaf(rows.get(r));
+                if (value != null) {
+                    column.set(r, value);
+                }
+            }
+            columns[c] = column.seal();
+        }
+        return new BqColumnStore(columns, rows.size());
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    public @Nullable Object getValue(int row, int column) {
+        if (row < 0 || row >= rowCount || column < 0 || column >= columns.length) return null;
+        return columns[column].get(row);
+    }
+
+    private static Column newColumn(@NotNull Field field, int size) {
+        if (field.getMode() == Field.Mode.REPEATED) {
+            return new DisplayColumn(field, size);
+        }
+        return switch (field.getType().getStandardType()) {
+            case INT64 -> new LongColumn(size, LongKind.INT64);
+            case BOOL -> new LongColumn(size, LongKind.BOOL);
+            case TIMESTAMP -> new LongColumn(size, LongKind.TIMESTAMP);
+            case FLOAT64 -> new DoubleColumn(size);
+            case STRUCT, RANGE -> new DisplayColumn(field, size);
+            default -> new StringColumn(size);
+        };
+    }
+
+    private interface Column {
+        void set(int row, @NotNull FieldValue value);
+
+        @Nullable Object get(int row);
+
+        default Column seal() {
+            return this;
+        }
+    }
+
+    private enum LongKind {
+        INT64,
+        BOOL,
+        /** microseconds since the epoch */
+        TIMESTAMP
+    }
+
+    private static final class LongColumn implements Column {
+        private final long[] values;
+        private final BitSet present;
+        private final LongKind kind;
+
+        LongColumn(int size, @NotNull LongKind kind) {
+            this.values = new long[size];
+            this.present = new BitSet(size);
+            this.kind = kind;
+        }
+
+        @Override
+        public void set(int row, @NotNull FieldValue value) {
+            String raw = value.getStringValue();
+            values[row] = switch (kind) {
+                case BOOL -> Boolean.parseBoolean(raw) ? 1 : 0;
+                case TIMESTAMP -> StructFlattener.timestampMicros(raw);
+                case INT64 -> Long.parseLong(raw);
+            };
+            present.set(row);
+        }
+
+        @Override
+        public @Nullable Object get(int row) {
+            if (!present.get(row)) return null;
+            return switch (kind) {
+                case BOOL -> values[row] != 0;
+                case TIMESTAMP -> StructFlattener.formatTimestamp(values[row]);
+                case INT64 -> values[row];
+            };
+        }
+    }
+
+    private static final class DoubleColumn implements Column {
+        private final double[] values;
+        private final BitSet present;
+
+        DoubleColumn(int size) {
+            this.values = new double[size];
+            this.present = new BitSet(size);
+        }
+
+        @Override
+        public void set(int row, @NotNull FieldValue value) {
+            values[row] = Double.parseDouble(value.getStringValue());
+            present.set(row);
+        }
+
+        @Override
+        public @Nullable Object get(int row) {
+            return present.get(row) ? values[row] : null;
+        }
+    }
+
+    /**
+     * Strings are stored as indexes into a per-column dictionary, which collapses the repeated
+     * dates, enums and identifiers typical of query results.
+     */
+    private static final class StringColumn implements Column {
+        private final int[] codes;
+        private final List<String> dictionary = new ArrayList<>();
+        private @Nullable Map<String, Integer> index = new HashMap<>();
+
+        StringColumn(int size) {
+            this.codes = new int[size];
+            Arrays.fill(codes, -1);
+        }
+
+        @Override
+        public void set(int row, @NotNull FieldValue value) {
+            String raw = value.getStringValue();
+            codes[row] = index.computeIfAbsent(raw, key -> {
+                dictionary.add(key);
+                return dictionary.size() - 1;
+            });
+        }
+
+        @Override
+        public @Nullable Object get(int row) {
+            int code = codes[row];
+            return code < 0 ? null : dictionary.get(code);
+        }
+
+        @Override
+        public Column seal() {
+            index = null;
+            return this;
+        }
+    }
+
+    /**
+     * Nested values keep their display form: a {@link NestedValue} view for STRUCT and ARRAY,
+     * a string for RANGE.
+     */
+    private static final class DisplayColumn implements Column {
+        private final Field field;
+        private final Object[] values;
+
+        DisplayColumn(@NotNull Field field, int size) {
+            this.field = field;
+            this.values = new Object[size];
+        }
+
+        @Override
+        public void set(int row, @NotNull FieldValue value) {
+            values[row] = StructFlattener.toDisplayValue(value, field);
+        }
+
+        @Override
+        public @Nullable Object get(int row) {
+            return values[row];
+        }
+    }
+}
@@ -26,7 +26,6 @@ import io.github.rejeb.dataform.language.gcp.execution.bigquery.BigQueryPagedRes
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.IntStream;
 
@@ -36,6 +35,9 @@ public class BqDataHookUp implements GridDataHookUp<GridRow, GridColumn> {
     private final BqGridModel model;
     private final BqGridPagingModel pagingModel;
     private final BqGridLoader loader;
+    private final BqGridSortingModel sortingModel;
+    private final BqGridFilteringModel filteringModel;
+    private final boolean filterApplicable;
     private final EventDispatcher<RequestListener<GridRow, GridColumn>> requestDispatcher =
             EventDispatcher.create((Class<RequestListener<GridRow, GridColumn>>) (Class<?>) RequestListener.class);
 
@@ -49,10 +51,13 @@ public class BqDataHookUp implements GridDataHookUp<GridRow, GridColumn> {
         List<BqGridColumn> columns = IntStream.range(0, flatFields.size()).boxed().parallel()
                 .map(i -> new BqGridColumn(i, flatFields.get(i).qualifiedName(), flatFields.get(i).field())).toList();
 
-        this.model = new BqGridModel(columns, new ArrayList<>());
+        this.model = new BqGridModel(columns);
         this.pagingModel = new BqGridPagingModel(pagedResult, this.model);
         this.loader = new BqGridLoader(pagedResult, this.model, extractors);
         this.loader.setHookUp(this);
+        this.sortingModel = new BqGridSortingModel(this.model);
+        this.filteringModel = new BqGridFilteringModel();
+        this.filterApplicable = pagedResult.isFilterAndSortingSupported();
     }
 
     @Override
@@ -81,13 +86,13 @@ public class BqDataHookUp implements GridDataHookUp<GridRow, GridColumn> {
     }
 
     @Override
-    public @Nullable GridSortingModel<GridRow, GridColumn> getSortingModel() {
-        return null;
+    public @Nullable BqGridSortingModel getSortingModel() {
+        return filterApplicable ? sortingModel : null;
     }
 
     @Override
-    public @Nullable GridFilteringModel getFilteringModel() {
-        return null;
+    public @Nullable BqGridFilteringModel getFilteringModel() {
+        return filterApplicable ? filteringModel : null;
     }
 
     @Override
@@ -107,12 +112,12 @@ public class BqDataHookUp implements GridDataHookUp<GridRow, GridColumn> {
 
     @Override
     public boolean isFilterApplicable() {
-        return false;
+        return filterApplicable;
     }
 
     @Override
     public @NotNull String getFilterPrefix() {
-        return "";
+        return "WHERE";
     }
 
     @Override
@@ -122,7 +127,7 @@ public class BqDataHookUp implements GridDataHookUp<GridRow, GridColumn> {
 
     @Override
     public @NotNull String getSortingPrefix() {
-        return "";
+        return "ORDER BY";
     }
 
     @Override
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.gcp.execution.bigquery.grid;
+
+import com.intellij.database.datagrid.GridFilteringModel;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.editor.EditorFactory;
+import com.intellij.util.EventDispatcher;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * {@code WHERE} filter of the result grid, applied server-side by {@link BqGridLoader}.
+ */
+public class BqGridFilteringModel implements GridFilteringModel {
+
+    private final Document document = EditorFactory.getInstance().createDocument("");
+    private final EventDispatcher<Listener> listeners = EventDispatcher.create(Listener.class);
+
+    private String appliedText = "";
+    private boolean ignoreCurrentText;
+    private List<String> history = List.of();
+
+    @Override
+    public @NotNull String getFilterText() {
+        return ignoreCurrentText ? appliedText : document.getText().trim();
+    }
+
+    @Override
+    public @NotNull Document getFilterDocument() {
+        return document;
+    }
+
+    @Override
+    public void setFilterText(@NotNull String text) {
+        ApplicationManager.getApplication().runWriteAction(() -> document.setText(text));
+    }
+
+    @Override
+    public void applyCurrentText() {
+        appliedText = document.getText().trim();
+    }
+
+    @Override
+    public @NotNull List<String> getHistory() {
+        return history;
+    }
+
+    @Override
+    public void setHistory(@NotNull List<String> history) {
+        this.history = List.copyOf(history);
+    }
+
+    @Override
+    public void addListener(@NotNull Listener listener, @NotNull Disposable disposable) {
+        listeners.addListener(listener, disposable);
+    }
+
+    @Override
+    public boolean isIgnoreCurrentText() {
+        return ignoreCurrentText;
+    }
+
+    @Override
+    public void setIgnoreCurrentText(boolean ignoreCurrentText) {
+        this.ignoreCurrentText = ignoreCurrentText;
+    }
+}
@@ -16,17 +16,28 @@
  */
 package io.github.rejeb.dataform.language.gcp.execution.bigquery.grid;
 
+import com.google.cloud.bigquery.BigQueryException;
 import com.google.cloud.bigquery.FieldValueList;
 import com.intellij.database.datagrid.GridLoader;
 import com.intellij.database.datagrid.GridRequestSource;
+import com.intellij.notification.NotificationGroupManager;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
 import io.github.rejeb.dataform.language.gcp.execution.bigquery.BigQueryPagedResult;
+import io.github.rejeb.dataform.language.gcp.execution.bigquery.QueryCostGuard;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class BqGridLoader implements GridLoader {
 
+    private static final Logger LOG = Logger.getInstance(BqGridLoader.class);
+
     private final BigQueryPagedResult pagedResult;
     private final BqGridModel model;
     private BqDataHookUp hookUp;
@@ -51,7 +62,7 @@ public class BqGridLoader implements GridLoader {
 
     @Override
     public void reloadCurrentPage(@NotNull GridRequestSource source) {
-        applyRows(pagedResult.loadFirstPage(), source);
+        applyRows(pagedResult.reloadCurrentPage(), source);
     }
 
     @Override
@@ -76,10 +87,62 @@ public class BqGridLoader implements GridLoader {
 
     @Override
     public void updateTotalRowCount(@NotNull GridRequestSource source) {
+        source.getActionCallback().setDone();
+        if (hookUp != null) hookUp.firePagingChanged();
     }
 
+    /**
+     * Re-runs the result through a filtering query built from the grid's {@code WHERE} and
+     * {@code ORDER BY} models and shows its first page. The query runs in a cancellable
+     * background task, after the cost guard, and supersedes any filtering still running.
+     */
     @Override
     public void applyFilterAndSorting(@NotNull GridRequestSource source) {
+        BqGridSortingModel sorting = hookUp != null ? hookUp.getSortingModel() : null;
+        BqGridFilteringModel filtering = hookUp != null ? hookUp.getFilteringModel() : null;
+        if (sorting == null || filtering == null) {
+            source.getActionCallback().setDone();
+            return;
+        }
+        String sql = pagedResult.filterQuery(filtering.getFilterText(), sorting.getOrderBy());
+        Project project = hookUp.getProject();
+        new Task.Backgroundable(project, "Filtering BigQuery result", true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                List<FieldValueList> rows;
+                try {
+                    if (sql != null && !QueryCostGuard.allows(
+                            project, sql, pagedResult.getProjectId(), "Filtered result", indicator)) {
+                        source.getActionCallback().setRejected();
+                        return;
+                    }
+                    indicator.setText("Filtering BigQuery result...");
+                    pagedResult.applyFilterAndSorting(sql, indicator);
+                    rows = pagedResult.loadFirstPage();
+                } catch (ProcessCanceledException e) {
+                    source.getActionCallback().setRejected();
+                    throw e;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    source.getActionCallback().setRejected();
+                    return;
+                } catch (BigQueryException e) {
+                    LOG.info("Filtering BigQuery result failed", e);
+                    NotificationGroupManager.getInstance()
+                            .getNotificationGroup("Dataform.Notifications")
+                            .createNotification("Cannot filter or sort the result: " + e.getMessage(),
+                                    NotificationType.ERROR)
+                            .notify(project);
+                    source.getActionCallback().setRejected();
+                    return;
+                }
+                ApplicationManager.getApplication().invokeLater(() -> {
+                    filtering.applyCurrentText();
+                    sorting.apply();
+                    applyRows(rows, source);
+                }, project.getDisposed());
+            }
+        }.queue();
     }
 
     @Override
@@ -87,14 +150,8 @@ public class BqGridLoader implements GridLoader {
     }
 
     private void applyRows(@NotNull List<FieldValueList> rows, @NotNull GridRequestSource source) {
-        List<BqGridRow> gridRows = new ArrayList<>();
-        long offset = pagedResult.getPageStart();
-        for (int i = 0; i < rows.size(); i++) {
-            gridRows.add(new BqGridRow((int) (offset + i + 1), rows.get(i), extractors));
-        }
-        model.replaceRows(gridRows);
+        model.replaceRows(BqColumnStore.of(rows, extractors), pagedResult.getPageStart() + 1);
         source.getActionCallback().setDone();
         if (hookUp != null) hookUp.firePagingChanged();
     }
 }
-
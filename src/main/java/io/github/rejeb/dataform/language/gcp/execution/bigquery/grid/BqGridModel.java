@@ -30,20 +30,20 @@ import java.util.stream.IntStream;
 public class BqGridModel implements GridModel<GridRow, GridColumn> {
 
     private final List<BqGridColumn> columns;
-    private final List<BqGridRow> rows;
+    private BqColumnStore store = BqColumnStore.EMPTY;
+    private long firstRowNum = 1;
     private final EventDispatcher<Listener<GridRow, GridColumn>> dispatcher =
             EventDispatcher.create((Class<Listener<GridRow, GridColumn>>) (Class<?>) Listener.class);
 
-    public BqGridModel(@NotNull List<BqGridColumn> columns, @NotNull List<BqGridRow> rows) {
+    public BqGridModel(@NotNull List<BqGridColumn> columns) {
         this.columns = columns;
-        this.rows = rows;
     }
 
 
     @Override
     public boolean isValidRowIdx(@NotNull ModelIndex<GridRow> idx) {
         int i = idx.asInteger();
-        return i >= 0 && i < rows.size();
+        return i >= 0 && i < store.getRowCount();
     }
 
     @Override
@@ -54,8 +54,7 @@ public class BqGridModel implements GridModel<GridRow, GridColumn> {
 
     @Override
     public @Nullable Object getValueAt(ModelIndex<GridRow> row, ModelIndex<GridColumn> col) {
-        GridRow r = getRow(row);
-        return r != null ? r.getValue(col.asInteger()) : null;
+        return store.getValue(row.asInteger(), col.asInteger());
     }
 
     @Override
@@ -78,7 +77,7 @@ public class BqGridModel implements GridModel<GridRow, GridColumn> {
     @Override
     public @Nullable GridRow getRow(@NotNull ModelIndex<GridRow> idx) {
         int i = idx.asInteger();
-        return i >= 0 && i < rows.size() ? rows.get(i) : null;
+        return i >= 0 && i < store.getRowCount() ? row(i) : null;
     }
 
     @Override
@@ -111,7 +110,7 @@ public class BqGridModel implements GridModel<GridRow, GridColumn> {
 
     @Override
     public @NotNull List<GridRow> getRows() {
-        return List.copyOf(rows);
+        return IntStream.range(0, store.getRowCount()).mapToObj(this::row).toList();
     }
 
     @Override
@@ -137,7 +136,7 @@ public class BqGridModel implements GridModel<GridRow, GridColumn> {
 
     @Override
     public @NotNull ModelIndexSet<GridRow> getRowIndices() {
-        int[] idx = IntStream.range(0, rows.size()).parallel().toArray();
+        int[] idx = IntStream.range(0, store.getRowCount()).parallel().toArray();
         return ModelIndexSet.forRows(this, idx);
     }
 
@@ -148,7 +147,7 @@ public class BqGridModel implements GridModel<GridRow, GridColumn> {
 
     @Override
     public int getRowCount() {
-        return rows.size();
+        return store.getRowCount();
     }
 
     @Override
@@ -167,11 +166,13 @@ public class BqGridModel implements GridModel<GridRow, GridColumn> {
     }
 
     /**
-     * Replaces all rows with the given list and notifies listeners.
+     * Replaces all rows with the given page and notifies listeners.
+     *
+     * @param firstRowNum 1-based number of the first row of the page in the whole result
      */
-    public void replaceRows(@NotNull List<BqGridRow> newRows) {
-        rows.clear();
-        rows.addAll(newRows);
+    public void replaceRows(@NotNull BqColumnStore newStore, long firstRowNum) {
+        this.store = newStore;
+        this.firstRowNum = firstRowNum;
         Listener<GridRow, GridColumn> multicaster = dispatcher.getMulticaster();
         multicaster.columnsAdded(getColumnIndices());
         ModelIndexSet<GridRow> rowIndices = getRowIndices();
@@ -181,4 +182,7 @@ public class BqGridModel implements GridModel<GridRow, GridColumn> {
         multicaster.afterLastRowAdded();
     }
 
+    private GridRow row(int index) {
+        return new BqGridRow(store, index, (int) (firstRowNum + index));
+    }
 }
@@ -16,35 +16,35 @@
  */
 package io.github.rejeb.dataform.language.gcp.execution.bigquery.grid;
 
-import com.google.cloud.bigquery.FieldValueList;
 import com.intellij.database.datagrid.GridRow;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Objects;
 
+/**
+ * Lightweight view over one row of a {@link BqColumnStore}.
+ */
 public class BqGridRow implements GridRow {
 
+    private final BqColumnStore store;
+    private final int index;
     private final int rowNum;
-    private final Object[] values;
 
-    public BqGridRow(int rowNum, @NotNull FieldValueList fieldValues, @NotNull List<StructFlattener.RowExtractor> extractors) {
+    public BqGridRow(@NotNull BqColumnStore store, int index, int rowNum) {
+        this.store = store;
+        this.index = index;
         this.rowNum = rowNum;
-        this.values = new Object[extractors.size()];
-        for (int i = 0; i < extractors.size(); i++) {
-            this.values[i] = extractors.get(i).extract(fieldValues);
-        }
     }
 
     @Override
     public @Nullable Object getValue(int columnNum) {
-        return columnNum >= 0 && columnNum < values.length ? values[columnNum] : null;
+        return store.getValue(index, columnNum);
     }
 
     @Override
     public int getSize() {
-        return values.length;
+        return store.getColumnCount();
     }
 
     @Override
@@ -54,6 +54,16 @@ public class BqGridRow implements GridRow {
 
     @Override
     public void setValue(int i, @Nullable Object object) {
-        if (i >= 0 && i < values.length) values[i] = object;
+        // the result grid is read-only
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof BqGridRow other && other.store == store && other.index == index;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(System.identityHashCode(store), index);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.gcp.execution.bigquery.grid;
+
+import com.intellij.database.datagrid.GridColumn;
+import com.intellij.database.datagrid.GridRow;
+import com.intellij.database.datagrid.GridSortingModel;
+import com.intellij.database.datagrid.ModelIndex;
+import com.intellij.database.datagrid.RowSortOrder;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.editor.Document;
+import com.intellij.util.EventDispatcher;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Column header ordering of the result grid, applied server-side by {@link BqGridLoader}
+ * instead of reordering the rows of the current page.
+ */
+public class BqGridSortingModel implements GridSortingModel<GridRow, GridColumn> {
+
+    private final BqGridModel model;
+    private final EventDispatcher<Listener> listeners = EventDispatcher.create(Listener.class);
+
+    private boolean enabled = true;
+    private List<RowSortOrder<ModelIndex<GridColumn>>> ordering = List.of();
+    private List<RowSortOrder<ModelIndex<GridColumn>>> appliedOrdering = List.of();
+    private List<String> history = List.of();
+
+    public BqGridSortingModel(@NotNull BqGridModel model) {
+        this.model = model;
+    }
+
+    @Override
+    public boolean isSortingEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setSortingEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public @NotNull List<RowSortOrder<ModelIndex<GridColumn>>> getOrdering() {
+        return ordering;
+    }
+
+    @Override
+    public @NotNull List<RowSortOrder<ModelIndex<GridColumn>>> getAppliedOrdering() {
+        return appliedOrdering;
+    }
+
+    @Override
+    public @NotNull String getAppliedSortingText() {
+        return String.join(", ", toOrderBy(appliedOrdering));
+    }
+
+    @Override
+    public void apply() {
+        appliedOrdering = ordering;
+    }
+
+    @Override
+    public void setOrdering(@NotNull List<RowSortOrder<ModelIndex<GridColumn>>> ordering) {
+        this.ordering = List.copyOf(ordering);
+        listeners.getMulticaster().orderingChanged();
+    }
+
+    @Override
+    public @Nullable Document getDocument() {
+        return null;
+    }
+
+    @Override
+    public @NotNull List<String> getHistory() {
+        return history;
+    }
+
+    @Override
+    public void setHistory(@NotNull List<String> history) {
+        this.history = List.copyOf(history);
+    }
+
+    @Override
+    public void addListener(@NotNull Listener listener, @NotNull Disposable disposable) {
+        listeners.addListener(listener, disposable);
+    }
+
+    @Override
+    public boolean supportsAdditiveSorting() {
+        return true;
+    }
+
+    /**
+     * Returns the current ordering as BigQuery {@code ORDER BY} items.
+     */
+    public @NotNull List<String> getOrderBy() {
+        return toOrderBy(ordering);
+    }
+
+    private @NotNull List<String> toOrderBy(@NotNull List<RowSortOrder<ModelIndex<GridColumn>>> orders) {
+        List<String> items = new ArrayList<>();
+        for (RowSortOrder<ModelIndex<GridColumn>> order : orders) {
+            GridColumn column = model.getColumn(order.getColumn());
+            if (column == null || order.getType() == RowSortOrder.Type.UNSORTED) continue;
+            items.add(quote(column.getName()) + (order.getType() == RowSortOrder.Type.DESC ? " DESC" : " ASC"));
+        }
+        return items;
+    }
+
+    /**
+     * Quotes a flattened column name such as {@code address.city} as {@code `address`.`city`}.
+     */
+    static @NotNull String quote(@NotNull String qualifiedName) {
+        return "`" + String.join("`.`", qualifiedName.split("\\.")) + "`";
+    }
+}
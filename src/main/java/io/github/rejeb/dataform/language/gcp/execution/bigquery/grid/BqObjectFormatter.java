@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.gcp.execution.bigquery.grid;
+
+import com.intellij.database.datagrid.GridColumn;
+import com.intellij.database.extractors.BaseObjectFormatter;
+import com.intellij.database.extractors.ObjectFormatterConfig;
+import com.intellij.database.extractors.ObjectFormatterMode;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Renders {@link NestedValue} cells truncated in the grid and in full everywhere else (value
+ * viewer, copy, maximized cell editor).
+ */
+public final class BqObjectFormatter extends BaseObjectFormatter {
+
+    @Override
+    public @Nullable String objectToString(@Nullable Object o,
+                                           @Nullable GridColumn column,
+                                           @NotNull ObjectFormatterConfig config) {
+        if (o instanceof NestedValue nested) {
+            return config.getMode() == ObjectFormatterMode.DISPLAY ? nested.preview() : nested.toString();
+        }
+        return super.objectToString(o, column, config);
+    }
+}
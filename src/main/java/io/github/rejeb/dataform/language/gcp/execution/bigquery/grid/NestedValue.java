@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.gcp.execution.bigquery.grid;
+
+import com.google.cloud.bigquery.FieldValue;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * STRUCT or ARRAY cell of the result grid, kept as a view over the underlying {@link FieldValue}.
+ * Its text form is built on demand: {@link #preview()} stops after {@link #PREVIEW_CHARS}
+ * characters for rendering, {@link #toString()} serializes the whole value for the cell value
+ * viewer, copy and export.
+ */
+public final class NestedValue {
+
+    static final int PREVIEW_CHARS = 256;
+
+    private final FieldValue value;
+
+    NestedValue(@NotNull FieldValue value) {
+        this.value = value;
+    }
+
+    public @NotNull FieldValue getValue() {
+        return value;
+    }
+
+    /** Text form truncated to about {@link #PREVIEW_CHARS} characters. */
+    public @NotNull String preview() {
+        StringBuilder sb = new StringBuilder();
+        if (!append(sb, value, PREVIEW_CHARS)) {
+            sb.setLength(PREVIEW_CHARS);
+            sb.append('…');
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        append(sb, value, Integer.MAX_VALUE);
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof NestedValue other && value.equals(other.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    /**
+     * Appends the text form of {@code fv}. Returns {@code false} as soon as {@code sb} grew past
+     * {@code limit}, leaving the rest of the value unvisited.
+     */
+    private static boolean append(@NotNull StringBuilder sb, @NotNull FieldValue fv, int limit) {
+        switch (fv.getAttribute()) {
+            case RECORD -> {
+                return appendAll(sb, fv.getRecordValue(), '{', '}', limit);
+            }
+            case REPEATED -> {
+                return appendAll(sb, fv.getRepeatedValue(), '[', ']', limit);
+            }
+            case RANGE -> sb.append('"').append(StructFlattener.serializeRange(fv.getRangeValue())).append('"');
+            case PRIMITIVE -> {
+                Object v = fv.getValue();
+                if (v instanceof String) {
+                    sb.append('"').append(v).append('"');
+                } else {
+                    sb.append(v);
+                }
+            }
+        }
+        return sb.length() <= limit;
+    }
+
+    private static boolean appendAll(@NotNull StringBuilder sb,
+                                     @NotNull List<FieldValue> values,
+                                     char open,
+                                     char close,
+                                     int limit) {
+        sb.append(open);
+        boolean first = true;
+        for (FieldValue item : values) {
+            if (!first) sb.append(", ");
+            first = false;
+            if (item.isNull()) {
+                sb.append("null");
+            } else if (!append(sb, item, limit)) {
+                return false;
+            }
+            if (sb.length() > limit) return false;
+        }
+        sb.append(close);
+        return sb.length() <= limit;
+    }
+}
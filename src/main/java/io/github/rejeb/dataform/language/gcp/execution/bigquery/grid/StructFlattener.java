@@ -18,6 +18,7 @@ package io.github.rejeb.dataform.language.gcp.execution.bigquery.grid;
 
 import com.google.cloud.bigquery.*;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.time.Instant;
 import java.time.ZoneId;
@@ -97,67 +98,41 @@ public final class StructFlattener {
         return field.getSubFields() != null && !field.getSubFields().isEmpty();
     }
 
-    private static Object toDisplayValue(@NotNull FieldValue fv, @NotNull Field field) {
+    /**
+     * Returns the grid value of a non-null cell. STRUCT and ARRAY values are wrapped in a
+     * {@link NestedValue} and only serialized when displayed.
+     */
+    static Object toDisplayValue(@NotNull FieldValue fv, @NotNull Field field) {
         return switch (fv.getAttribute()) {
-            case RECORD   -> serializeRecord(fv.getRecordValue());
-            case REPEATED -> serializeRepeated(fv.getRepeatedValue());
+            case RECORD, REPEATED -> new NestedValue(fv);
             case RANGE    -> serializeRange(fv.getRangeValue());
             case PRIMITIVE -> {
                 StandardSQLTypeName type = field.getType().getStandardType();
                 String raw = (String) fv.getValue();
                 yield switch (type) {
-                    case TIMESTAMP -> {
-                        // BigQuery retourne des microsecondes depuis l'epoch
-                        long micros = new java.math.BigDecimal(raw)
-                                .multiply(java.math.BigDecimal.valueOf(1_000_000))
-                                .longValue();
-                        Instant instant = Instant.ofEpochSecond(
-                                micros / 1_000_000, (micros % 1_000_000) * 1_000);
-                        yield TIMESTAMP_FMT.format(instant);
-                    }
+                    case TIMESTAMP -> formatTimestamp(timestampMicros(raw));
                     default -> raw;
                 };
             }
         };
     }
 
-    private static String serializeRecord(@NotNull FieldValueList record) {
-        StringBuilder sb = new StringBuilder("{");
-        boolean first = true;
-        for (FieldValue fv : record) {
-            if (!first) sb.append(", ");
-            first = false;
-            sb.append(fv.isNull() ? "null" : toJsonValue(fv));
-        }
-        sb.append("}");
-        return sb.toString();
-    }
-
-    private static String serializeRepeated(@NotNull List<FieldValue> repeated) {
-        StringBuilder sb = new StringBuilder("[");
-        boolean first = true;
-        for (FieldValue item : repeated) {
-            if (!first) sb.append(", ");
-            first = false;
-            sb.append(item.isNull() ? "null" : toJsonValue(item));
-        }
-        sb.append("]");
-        return sb.toString();
+    /**
+     * BigQuery retourne des secondes depuis l'epoch, converties ici en microsecondes.
+     */
+    static long timestampMicros(@NotNull String raw) {
+        return new java.math.BigDecimal(raw)
+                .multiply(java.math.BigDecimal.valueOf(1_000_000))
+                .longValue();
     }
 
-    private static String toJsonValue(@NotNull FieldValue fv) {
-        return switch (fv.getAttribute()) {
-            case RECORD -> serializeRecord(fv.getRecordValue());
-            case REPEATED -> serializeRepeated(fv.getRepeatedValue());
-            case RANGE -> "\"" + serializeRange(fv.getRangeValue()) + "\"";
-            case PRIMITIVE -> {
-                Object v = fv.getValue();
-                yield v instanceof String ? "\"" + v + "\"" : String.valueOf(v);
-            }
-        };
+    static String formatTimestamp(long micros) {
+        Instant instant = Instant.ofEpochSecond(
+                Math.floorDiv(micros, 1_000_000), Math.floorMod(micros, 1_000_000) * 1_000);
+        return TIMESTAMP_FMT.format(instant);
     }
 
-    private static String serializeRange(@NotNull Range range) {
+    static String serializeRange(@NotNull Range range) {
         String start = range.getStart() != null && !range.getStart().isNull()
                 ? String.valueOf(range.getStart().getValue()) : "UNBOUNDED";
         String end = range.getEnd() != null && !range.getEnd().isNull()
@@ -190,12 +165,24 @@ public final class StructFlattener {
          * Extracts the leaf value from a root-level FieldValueList using the pre-compiled path.
          */
         public Object extract(@NotNull FieldValueList root) {
+            FieldValue current = leaf(root);
+            return current == null ? null : toDisplayValue(current, field);
+        }
+
+        /**
+         * Returns the raw leaf FieldValue, or {@code null} when it or one of its parent records is NULL.
+         */
+        public @Nullable FieldValue leaf(@NotNull FieldValueList root) {
             FieldValue current = root.get(path[0]);
             for (int depth = 1; depth < path.length; depth++) {
                 if (current.isNull()) return null;
                 current = current.getRecordValue().get(path[depth]);
             }
-            return current.isNull() ? null : toDisplayValue(current, field);
+            return current.isNull() ? null : current;
+        }
+
+        public @NotNull Field field() {
+            return field;
         }
     }
 }
\ No newline at end of file
@@ -43,6 +43,7 @@ public class DataformServiceViewDescriptor extends SimpleServiceViewDescriptor i
 
     @Override
     public @Nullable JComponent getContentComponent() {
+        QueryResultsRegistry.getInstance(project).markViewed(result.tableName());
         return new QueryExecutionPanel(project, result);
     }
 
@@ -66,7 +67,6 @@ public class DataformServiceViewDescriptor extends SimpleServiceViewDescriptor i
                         Messages.getWarningIcon()
                 );
                 if (choice != Messages.YES) return;
-                result.pagedResult().dispose();
                 QueryResultsRegistry.getInstance(project).remove(result.tableName());
                 project.getMessageBus()
                         .syncPublisher(ServiceEventListener.TOPIC)
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.gcp.execution.bigquery.serviceview;
+
+import com.intellij.icons.AllIcons;
+import com.intellij.notification.NotificationGroupManager;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.actionSystem.ActionUpdateThreadAware;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.fileChooser.FileChooserFactory;
+import com.intellij.openapi.fileChooser.FileSaverDescriptor;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFileWrapper;
+import io.github.rejeb.dataform.language.gcp.execution.bigquery.BigQueryPagedResult;
+import io.github.rejeb.dataform.language.gcp.execution.bigquery.export.BigQueryResultExporter;
+import io.github.rejeb.dataform.language.gcp.execution.bigquery.export.ResultExportFormat;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static io.github.rejeb.dataform.language.util.Utils.formatBytes;
+
+/**
+ * Streams the whole result shown in the panel, with its current filter and ordering, to a
+ * CSV or JSON Lines file.
+ */
+public class ExportResultsAction extends AnAction implements ActionUpdateThreadAware.Recursive {
+
+    private static final Logger LOG = Logger.getInstance(ExportResultsAction.class);
+
+    private final Project project;
+    private final String tableName;
+    private final BigQueryPagedResult pagedResult;
+
+    public ExportResultsAction(@NotNull Project project,
+                               @NotNull String tableName,
+                               @NotNull BigQueryPagedResult pagedResult) {
+        super("Export Results…", "Export all rows to a CSV or JSON Lines file", AllIcons.ToolbarDecorator.Export);
+        this.project = project;
+        this.tableName = tableName;
+        this.pagedResult = pagedResult;
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        FileSaverDescriptor descriptor = new FileSaverDescriptor(
+                "Export Query Results", "Choose the file to export the results to",
+                ResultExportFormat.CSV.getExtension(), ResultExportFormat.JSON_LINES.getExtension());
+        VirtualFileWrapper wrapper = FileChooserFactory.getInstance()
+                .createSaveFileDialog(descriptor, project)
+                .save(tableName + "." + ResultExportFormat.CSV.getExtension());
+        if (wrapper == null) return;
+        Path target = wrapper.getFile().toPath();
+        ResultExportFormat format = ResultExportFormat.fromFileName(target.getFileName().toString());
+        ResultExportFormat resolved = format != null ? format : ResultExportFormat.CSV;
+
+        new Task.Backgroundable(project, "Exporting " + tableName + " results…", true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                try {
+                    BigQueryResultExporter.ExportStats stats =
+                            BigQueryResultExporter.export(pagedResult, target, resolved, indicator);
+                    showNotification(String.format("Exported %,d rows (%s) to %s in %,d ms, %,d rows/s",
+                            stats.rows(), formatBytes(stats.bytes()), target, stats.elapsedMs(),
+                            stats.rowsPerSecond()), NotificationType.INFORMATION);
+                } catch (ProcessCanceledException ex) {
+                    throw ex;
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (IOException | RuntimeException ex) {
+                    LOG.warn("Export of " + tableName + " results failed", ex);
+                    showNotification("Export failed: " + ex.getMessage(), NotificationType.ERROR);
+                }
+            }
+        }.queue();
+    }
+
+    private void showNotification(@NotNull String message, @NotNull NotificationType type) {
+        NotificationGroupManager.getInstance()
+                .getNotificationGroup("Dataform.Notifications")
+                .createNotification(message, type)
+                .notify(project);
+    }
+}
@@ -28,6 +28,9 @@ import com.intellij.database.run.ui.grid.renderers.*;
 import com.intellij.database.settings.DatabaseSettings;
 import com.intellij.icons.AllIcons;
 import com.intellij.openapi.actionSystem.ActionGroup;
+import com.intellij.openapi.actionSystem.ActionManager;
+import com.intellij.openapi.actionSystem.ActionToolbar;
+import com.intellij.openapi.actionSystem.DefaultActionGroup;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.ui.HyperlinkLabel;
@@ -38,10 +41,13 @@ import com.intellij.ui.scale.JBUIScale;
 import com.intellij.util.ui.FormBuilder;
 import com.intellij.util.ui.JBUI;
 import com.intellij.util.ui.UIUtil;
+import io.github.rejeb.dataform.language.gcp.execution.bigquery.BigQueryJobProgress;
 import io.github.rejeb.dataform.language.gcp.execution.bigquery.BigQueryJobResult;
 import io.github.rejeb.dataform.language.gcp.execution.bigquery.BigQueryJobStats;
 import io.github.rejeb.dataform.language.gcp.execution.bigquery.BigQueryPagedResult;
+import io.github.rejeb.dataform.language.gcp.execution.bigquery.QueryExecution;
 import io.github.rejeb.dataform.language.gcp.execution.bigquery.grid.BqDataHookUp;
+import io.github.rejeb.dataform.language.gcp.execution.bigquery.grid.BqObjectFormatter;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -52,6 +58,7 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static io.github.rejeb.dataform.language.util.Utils.formatBytes;
 
@@ -61,11 +68,57 @@ public class QueryExecutionPanel extends JPanel {
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
     private static final DecimalFormat BYTES_FMT = new DecimalFormat("#,###");
 
+    private @Nullable QueryExecution runningExecution;
+    private @Nullable Consumer<BigQueryJobProgress> progressListener;
+
     public QueryExecutionPanel(@NotNull Project project, @NotNull BigQueryJobResult result) {
         super(new BorderLayout());
         setOpaque(true);
         setBackground(UIUtil.getPanelBackground());
-        JComponent resultPanel = result.isSuccess() && result.pagedResult() != null ? buildResultsPanel(project, result.pagedResult()) : buildErrorPanel(result);
+        QueryExecution execution = result.execution();
+        if (result.isRunning() && execution != null) {
+            add(buildRunningPanel(execution), BorderLayout.CENTER);
+            execution.result().thenAccept(done -> ApplicationManager.getApplication().invokeLater(() -> {
+                if (project.isDisposed()) return;
+                stopListening();
+                runningExecution = null;
+                removeAll();
+                showResult(project, done);
+                revalidate();
+                repaint();
+            }));
+        } else {
+            showResult(project, result);
+        }
+    }
+
+    /**
+     * The service view rebuilds this panel whenever the selection changes: only listen to the
+     * running job while the panel is displayed, so discarded panels are not kept alive by it.
+     */
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        if (runningExecution != null && progressListener != null) {
+            runningExecution.addProgressListener(progressListener);
+            progressListener.accept(runningExecution.getProgress());
+        }
+    }
+
+    @Override
+    public void removeNotify() {
+        stopListening();
+        super.removeNotify();
+    }
+
+    private void stopListening() {
+        if (runningExecution != null && progressListener != null) {
+            runningExecution.removeProgressListener(progressListener);
+        }
+    }
+
+    private void showResult(@NotNull Project project, @NotNull BigQueryJobResult result) {
+        JComponent resultPanel = result.isSuccess() && result.pagedResult() != null ? buildResultsPanel(project, result.tableName(), result.pagedResult()) : buildErrorPanel(result);
         JComponent jobInfoPanel = buildJobInfoPanel(result);
         JBTabbedPane tabs = new JBTabbedPane();
         tabs.setTabComponentInsets(JBUI.emptyInsets());
@@ -75,6 +128,30 @@ public class QueryExecutionPanel extends JPanel {
         add(tabs, BorderLayout.CENTER);
     }
 
+    private JComponent buildRunningPanel(@NotNull QueryExecution execution) {
+        JLabel titleLabel = new JLabel("Running " + execution.getTableName(), AllIcons.Process.Step_1, SwingConstants.LEFT);
+        titleLabel.setFont(titleLabel.getFont().deriveFont(Font.BOLD, JBUIScale.scaleFontSize(13f)));
+        JBLabel progressLabel = new JBLabel(execution.getProgress().describe());
+        JButton cancelButton = new JButton("Cancel", AllIcons.Actions.Suspend);
+        cancelButton.addActionListener(e -> {
+            cancelButton.setEnabled(false);
+            execution.cancel();
+        });
+        runningExecution = execution;
+        progressListener = progress ->
+                ApplicationManager.getApplication().invokeLater(() -> progressLabel.setText(progress.describe()));
+
+        JPanel panel = FormBuilder.createFormBuilder()
+                .addComponent(titleLabel)
+                .addLabeledComponent("Job ID:", new JBLabel(execution.getJobId() != null ? execution.getJobId() : "-"))
+                .addLabeledComponent("Progress:", progressLabel)
+                .addComponent(cancelButton)
+                .addComponentFillVertically(new JPanel(), 0)
+                .getPanel();
+        panel.setBorder(JBUI.Borders.empty(12));
+        return panel;
+    }
+
     private JComponent buildJobInfoPanel(@NotNull BigQueryJobResult result) {
         FormBuilder builder = FormBuilder.createFormBuilder();
 
@@ -100,6 +177,7 @@ public class QueryExecutionPanel extends JPanel {
                         .addLabeledComponent("Statement type:", new JBLabel(s.statementType() != null ? s.statementType() : "-"))
                         .addLabeledComponent("Cache hit:", new JBLabel(String.valueOf(s.cacheHit())))
                         .addLabeledComponent("Bytes processed:", new JBLabel(formatBytes(s.bytesProcessed())))
+                        .addLabeledComponent("Bytes estimated:", new JBLabel(formatBytes(s.estimatedBytes())))
                         .addLabeledComponent("Duration:", new JBLabel(duration + " ms"))
                         .addLabeledComponent("Created at:", new JBLabel(formatTs(s.creationTime())))
                         .addLabeledComponent("Started at:", new JBLabel(formatTs(s.startTime())))
@@ -127,7 +205,9 @@ public class QueryExecutionPanel extends JPanel {
                 projectId, loc, jobId);
     }
 
-    private JComponent buildResultsPanel(@NotNull Project project, @NotNull BigQueryPagedResult pagedResult) {
+    private JComponent buildResultsPanel(@NotNull Project project,
+                                         @NotNull String tableName,
+                                         @NotNull BigQueryPagedResult pagedResult) {
         BqDataHookUp hookUp = new BqDataHookUp(project, pagedResult);
         TableResultPanel panel = new TableResultPanel(
                 project,
@@ -141,7 +221,17 @@ public class QueryExecutionPanel extends JPanel {
 
         GridMainPanel mainPanel = panel.getPanel();
         mainPanel.setBorder(JBUI.Borders.empty());
-        return mainPanel;
+
+        DefaultActionGroup group = new DefaultActionGroup();
+        group.add(new ExportResultsAction(project, tableName, pagedResult));
+        ActionToolbar toolbar = ActionManager.getInstance()
+                .createActionToolbar("DataformQueryResultsToolbar", group, true);
+        toolbar.setTargetComponent(mainPanel);
+
+        JPanel wrapper = new JPanel(new BorderLayout());
+        wrapper.add(toolbar.getComponent(), BorderLayout.NORTH);
+        wrapper.add(mainPanel, BorderLayout.CENTER);
+        return wrapper;
     }
 
     private JComponent buildErrorPanel(@NotNull BigQueryJobResult result) {
@@ -188,7 +278,7 @@ public class QueryExecutionPanel extends JPanel {
         );
         GridCellRendererFactories.set(grid, new GridCellRendererFactories(renderers));
 
-        BaseObjectFormatter formatter = new BaseObjectFormatter();
+        BaseObjectFormatter formatter = new BqObjectFormatter();
         grid.setObjectFormatterProvider(g -> formatter);
         BaseConversionGraph.set(grid, new BaseConversionGraph(
                 new FormatsCache(),
@@ -45,7 +45,8 @@ public final class GcpDataformWorkflowRepository implements WorkflowRepository,
             @NotNull String repositoryId,
             @NotNull WorkflowRunRequest request
     ) {
-        try (DataformClient client = GcpClientsUtils.dataformClient(projectId)) {
+        try {
+            DataformClient client = GcpClientsUtils.dataformClient(projectId);
             String repoName = RepositoryName.of(projectId, location, repositoryId).toString();
             String wsName = WorkspaceName.of(projectId, location, repositoryId, request.workspaceId()).toString();
             ensureNpmPackagesInstalled(wsName, client);
@@ -100,7 +101,8 @@ public final class GcpDataformWorkflowRepository implements WorkflowRepository,
     public WorkflowInvocationProgress getWorkflowRunProgress(@NotNull WorkflowCreationResult workflowRun) {
         String quotaProjectId = GcpClientsUtils.projectIdFromResourceName(workflowRun.invocationName());
         String invocationLocation = GcpClientsUtils.locationFromResourceName(workflowRun.invocationName());
-        try (DataformClient client = GcpClientsUtils.dataformClient(quotaProjectId)) {
+        try {
+            DataformClient client = GcpClientsUtils.dataformClient(quotaProjectId);
             WorkflowInvocation inv = client.getWorkflowInvocation(
                     GetWorkflowInvocationRequest.newBuilder()
                             .setName(workflowRun.invocationName())
@@ -226,7 +228,8 @@ public final class GcpDataformWorkflowRepository implements WorkflowRepository,
     @Override
     public void cancelWorkflowRun(@NotNull String workflowRunName) {
         String quotaProjectId = GcpClientsUtils.projectIdFromResourceName(workflowRunName);
-        try (DataformClient client = GcpClientsUtils.dataformClient(quotaProjectId)) {
+        try {
+            DataformClient client = GcpClientsUtils.dataformClient(quotaProjectId);
             client.cancelWorkflowInvocation(
                     CancelWorkflowInvocationRequest.newBuilder()
                             .setName(workflowRunName)
@@ -285,7 +288,8 @@ public final class GcpDataformWorkflowRepository implements WorkflowRepository,
      */
     private boolean isDataformCoreInstalled(@NotNull String workspaceName) {
         String quotaProjectId = GcpClientsUtils.projectIdFromResourceName(workspaceName);
-        try (DataformClient client = GcpClientsUtils.dataformClient(quotaProjectId)) {
+        try {
+            DataformClient client = GcpClientsUtils.dataformClient(quotaProjectId);
             QueryDirectoryContentsRequest request = QueryDirectoryContentsRequest.newBuilder()
                     .setWorkspace(workspaceName)
                     .setPath("node_modules/@dataform")
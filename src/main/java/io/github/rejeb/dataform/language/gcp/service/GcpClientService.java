@@ -17,10 +17,44 @@
 package io.github.rejeb.dataform.language.gcp.service;
 
 import com.google.cloud.bigquery.BigQuery;
+import com.google.cloud.bigquery.storage.v1.BigQueryReadClient;
 import com.google.cloud.dataform.v1.DataformClient;
+import com.intellij.openapi.application.ApplicationManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+
+/**
+ * Application-wide registry of GCP clients. Clients are created once per project (BigQuery) or
+ * quota project (Dataform, BigQuery Storage), share a single HTTP transport, and are rebuilt when the plugin
+ * credential changes. Returned clients are shared: callers must not close them. Clients replaced
+ * after a credential change stay open for a grace period so that in-flight calls can finish.
+ */
 public interface GcpClientService {
-    BigQuery bigQuery(String projectId);
 
-    DataformClient dataformClient();
+    static GcpClientService getInstance() {
+        return ApplicationManager.getApplication().getService(GcpClientService.class);
+    }
+
+    /**
+     * @param projectId project the client runs jobs in and bills quota to
+     * @return the shared BigQuery client for {@code projectId}
+     */
+    @NotNull
+    BigQuery bigQuery(@NotNull String projectId);
+
+    /**
+     * @param quotaProjectId project billed for quota of client-based API calls, may be {@code null}
+     * @return the shared Dataform client for {@code quotaProjectId}
+     */
+    @NotNull
+    DataformClient dataformClient(@Nullable String quotaProjectId) throws IOException;
+
+    /**
+     * @param projectId project billed for Storage Read API sessions
+     * @return the shared BigQuery Storage Read client for {@code projectId}
+     */
+    @NotNull
+    BigQueryReadClient bigQueryReadClient(@NotNull String projectId) throws IOException;
 }
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.gcp.service;
+
+import com.google.api.gax.core.BackgroundResource;
+import com.google.auth.http.HttpTransportFactory;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.cloud.bigquery.BigQuery;
+import com.google.cloud.bigquery.BigQueryOptions;
+import com.google.cloud.bigquery.storage.v1.BigQueryReadClient;
+import com.google.cloud.bigquery.storage.v1.BigQueryReadSettings;
+import com.google.cloud.dataform.v1.DataformClient;
+import com.google.cloud.dataform.v1.DataformSettings;
+import com.google.cloud.http.HttpTransportOptions;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import io.github.rejeb.dataform.language.gcp.auth.DataformCredentialsService;
+import io.github.rejeb.dataform.language.gcp.auth.SslConfig;
+import io.github.rejeb.dataform.language.util.GcpClientsUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public final class GcpClientServiceImpl implements GcpClientService, Disposable {
+
+    private static final Logger LOG = Logger.getInstance(GcpClientServiceImpl.class);
+    private static final long RETIRE_GRACE_SECONDS = 300;
+
+    private final Map<String, BigQuery> bigQueryClients = new HashMap<>();
+    private final Map<String, DataformClient> dataformClients = new HashMap<>();
+    private final Map<String, BigQueryReadClient> bigQueryReadClients = new HashMap<>();
+
+    private final List<BackgroundResource> retiring = new ArrayList<>();
+
+    private @Nullable HttpTransportFactory transportFactory;
+    private @Nullable GoogleCredentials credentials;
+
+    @Override
+    public @NotNull BigQuery bigQuery(@NotNull String projectId) {
+        GoogleCredentials current = DataformCredentialsService.getInstance().get();
+        synchronized (this) {
+            rotateIfNeeded(current);
+            BigQuery client = bigQueryClients.get(projectId);
+            if (client == null) {
+                client = BigQueryOptions.newBuilder()
+                        .setCredentials(GcpClientsUtils.getCredentials(projectId))
+                        .setProjectId(projectId)
+                        .setTransportOptions(HttpTransportOptions.newBuilder()
+                                .setHttpTransportFactory(transportFactory())
+                                .build())
+                        .build()
+                        .getService();
+                bigQueryClients.put(projectId, client);
+            }
+            return client;
+        }
+    }
+
+    @Override
+    public @NotNull DataformClient dataformClient(@Nullable String quotaProjectId) throws IOException {
+        GoogleCredentials current = DataformCredentialsService.getInstance().get();
+        String key = quotaProjectId == null ? "" : quotaProjectId;
+        synchronized (this) {
+            rotateIfNeeded(current);
+            DataformClient client = dataformClients.get(key);
+            if (client == null || client.isShutdown()) {
+                DataformSettings settings = DataformSettings.newHttpJsonBuilder()
+                        .setCredentialsProvider(() -> GcpClientsUtils.getCredentials(quotaProjectId))
+                        .setTransportChannelProvider(DataformSettings.defaultHttpJsonTransportProviderBuilder()
+                                .setHttpTransport(transportFactory().create())
+                                .build())
+                        .build();
+                client = DataformClient.create(settings);
+                dataformClients.put(key, client);
+            }
+            return client;
+        }
+    }
+
+    @Override
+    public @NotNull BigQueryReadClient bigQueryReadClient(@NotNull String projectId) throws IOException {
+        GoogleCredentials current = DataformCredentialsService.getInstance().get();
+        synchronized (this) {
+            rotateIfNeeded(current);
+            BigQueryReadClient client = bigQueryReadClients.get(projectId);
+            if (client == null || client.isShutdown()) {
+                BigQueryReadSettings settings = BigQueryReadSettings.newBuilder()
+                        .setCredentialsProvider(() -> GcpClientsUtils.getCredentials(projectId))
+                        .setTransportChannelProvider(BigQueryReadSettings.defaultGrpcTransportProviderBuilder()
+                                .setChannelConfigurator(SslConfig.grpcChannelConfigurator())
+                                .build())
+                        .build();
+                client = BigQueryReadClient.create(settings);
+                bigQueryReadClients.put(projectId, client);
+            }
+            return client;
+        }
+    }
+
+    @Override
+    public synchronized void dispose() {
+        List<BackgroundResource> clients = detachAll();
+        clients.addAll(retiring);
+        retiring.clear();
+        clients.forEach(GcpClientServiceImpl::close);
+        transportFactory = null;
+        credentials = null;
+    }
+
+    /**
+     * Swaps out every client built on a previous credential, after a sign-in, sign-out or
+     * {@link DataformCredentialsService#invalidate()}. Callers may still be using the old
+     * clients, e.g. in the middle of a paged listing or a Storage Read stream: they are shut
+     * down gracefully after {@link #RETIRE_GRACE_SECONDS}, which lets in-flight calls finish.
+     */
+    private void rotateIfNeeded(@NotNull GoogleCredentials current) {
+        if (current == credentials) return;
+        if (credentials != null) {
+            LOG.info("Google credential changed, recreating GCP clients");
+        }
+        List<BackgroundResource> old = detachAll();
+        credentials = current;
+        if (old.isEmpty()) return;
+        retiring.addAll(old);
+        AppExecutorUtil.getAppScheduledExecutorService().schedule(() -> retire(old),
+                RETIRE_GRACE_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private void retire(@NotNull List<BackgroundResource> clients) {
+        synchronized (this) {
+            // Already closed by dispose() otherwise.
+            if (!retiring.removeAll(clients)) return;
+        }
+        for (BackgroundResource client : clients) {
+            client.shutdown();
+        }
+    }
+
+    @NotNull
+    private HttpTransportFactory transportFactory() {
+        if (transportFactory == null) {
+            transportFactory = SslConfig.httpTransportFactory();
+        }
+        return transportFactory;
+    }
+
+    private @NotNull List<BackgroundResource> detachAll() {
+        List<BackgroundResource> clients = new ArrayList<>(dataformClients.values());
+        clients.addAll(bigQueryReadClients.values());
+        dataformClients.clear();
+        bigQueryReadClients.clear();
+        bigQueryClients.clear();
+        return clients;
+    }
+
+    private static void close(@NotNull BackgroundResource client) {
+        try {
+            client.close();
+        } catch (Exception e) {
+            LOG.debug("Failed to close GCP client", e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.gcp.service;
+
+import com.intellij.openapi.project.Project;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+
+/**
+ * Content hash of each file as of the last push to, or pull from, a Dataform workspace. Lets a
+ * push send only the files that changed since.
+ */
+public interface WorkspaceSyncManifest {
+
+    static WorkspaceSyncManifest getInstance(@NotNull Project project) {
+        return project.getService(WorkspaceSyncManifest.class);
+    }
+
+    /**
+     * Returns the hashes recorded for {@code workspaceKey}, keyed by relative path, or an empty
+     * map if the workspace was never synced.
+     */
+    @NotNull Map<String, String> getHashes(@NotNull String workspaceKey);
+
+    /**
+     * Returns the git state of the workspace recorded with its hashes, or {@code null} if unknown.
+     * Hashes recorded under another git state say nothing about the files committed since.
+     */
+    @Nullable String getGitState(@NotNull String workspaceKey);
+
+    /**
+     * Replaces the hashes and the git state recorded for {@code workspaceKey}.
+     */
+    void update(@NotNull String workspaceKey, @NotNull Map<String, String> hashes, @Nullable String gitState);
+
+    /**
+     * Forgets {@code workspaceKey}, so that the next push sends every file.
+     */
+    void invalidate(@NotNull String workspaceKey);
+
+    /**
+     * Returns the hex SHA-256 of {@code content} encoded as UTF-8.
+     */
+    static @NotNull String hash(@NotNull String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.gcp.service;
+
+import com.intellij.openapi.components.PersistentStateComponent;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import com.intellij.openapi.components.StoragePathMacros;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@State(
+        name = "DataformWorkspaceSyncManifest",
+        storages = @Storage(StoragePathMacros.CACHE_FILE)
+)
+public final class WorkspaceSyncManifestImpl
+        implements WorkspaceSyncManifest, PersistentStateComponent<WorkspaceSyncManifestImpl.State> {
+
+    private State state = new State();
+
+    @Override
+    public synchronized @Nullable State getState() {
+        return state;
+    }
+
+    @Override
+    public synchronized void loadState(@NotNull State loaded) {
+        this.state = loaded;
+    }
+
+    @Override
+    public synchronized @NotNull Map<String, String> getHashes(@NotNull String workspaceKey) {
+        Map<String, String> hashes = state.workspaces.get(workspaceKey);
+        return hashes != null ? Map.copyOf(hashes) : Map.of();
+    }
+
+    @Override
+    public synchronized @Nullable String getGitState(@NotNull String workspaceKey) {
+        return state.gitStates.get(workspaceKey);
+    }
+
+    @Override
+    public synchronized void update(@NotNull String workspaceKey,
+                                    @NotNull Map<String, String> hashes,
+                                    @Nullable String gitState) {
+        state.workspaces.put(workspaceKey, new HashMap<>(hashes));
+        if (gitState != null) {
+            state.gitStates.put(workspaceKey, gitState);
+        } else {
+            state.gitStates.remove(workspaceKey);
+        }
+    }
+
+    @Override
+    public synchronized void invalidate(@NotNull String workspaceKey) {
+        state.workspaces.remove(workspaceKey);
+        state.gitStates.remove(workspaceKey);
+    }
+
+    public static final class State {
+        public Map<String, Map<String, String>> workspaces = new HashMap<>();
+        public Map<String, String> gitStates = new HashMap<>();
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.gcp.workspace;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Outcome of a push to a Dataform workspace, path by path, so that a push that failed half-way
+ * can be resumed with only the paths that were not applied.
+ *
+ * @param written  paths written to the workspace
+ * @param deleted  paths removed from the workspace, or already absent from it
+ * @param failures error message of each path that could not be written or removed
+ */
+public record PushReport(
+        @NotNull Set<String> written,
+        @NotNull Set<String> deleted,
+        @NotNull Map<String, String> failures
+) {
+    public static @NotNull PushReport completed(@NotNull Map<String, String> filesToWrite,
+                                                @NotNull Set<String> pathsToDelete) {
+        return new PushReport(Set.copyOf(filesToWrite.keySet()), Set.copyOf(pathsToDelete), Map.of());
+    }
+
+    public boolean isComplete() {
+        return failures.isEmpty();
+    }
+}
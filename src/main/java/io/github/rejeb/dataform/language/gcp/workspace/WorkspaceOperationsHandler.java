@@ -19,12 +19,17 @@ package io.github.rejeb.dataform.language.gcp.workspace;
 import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.application.WriteAction;
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.roots.ProjectRootManager;
 import com.intellij.openapi.vfs.VirtualFile;
 import io.github.rejeb.dataform.language.gcp.common.CommitAuthorConfig;
 import io.github.rejeb.dataform.language.gcp.common.GcpApiException;
 import io.github.rejeb.dataform.language.gcp.common.GcpConfigProvider;
+import io.github.rejeb.dataform.language.gcp.service.WorkspaceSyncManifest;
 import io.github.rejeb.dataform.language.gcp.settings.DataformRepositoryConfig;
 import io.github.rejeb.dataform.language.gcp.workspace.repository.WorkspaceRepository;
 import org.jetbrains.annotations.NotNull;
@@ -90,14 +95,84 @@ public class WorkspaceOperationsHandler implements WorkspaceOperations {
                 config.projectId, config.location, config.repositoryId, workspaceId);
     }
 
+    /**
+     * Pulls the files of {@code workspaceId}, or of the repository main branch, into the local
+     * project. For a workspace already synced whose commits did not move since, only the files
+     * that changed locally, appeared remotely or are reported by {@code fetchFileGitStatuses} are
+     * downloaded; otherwise every file is. Only files whose content differs from the local copy
+     * are written. Files with unsaved editor changes are not overwritten: they are reported by a
+     * {@link GcpApiException} once the other files are written.
+     */
     @Override
     public void pullCode(@Nullable String workspaceId) {
         GcpConfig config = readConfig();
         if (config == null) return;
-        Map<String, String> files = workspaceRepository.readAllFiles(
+        List<String> remotePaths = workspaceRepository.listFiles(
                 config.projectId, config.location, config.repositoryId, workspaceId);
-        if (!files.isEmpty()) {
-            writeFilesToVfs(files);
+        if (remotePaths.isEmpty()) return;
+
+        Map<String, String> localHashes = hashAll(readLocalFiles(remotePaths));
+        WorkspaceSyncManifest manifest = WorkspaceSyncManifest.getInstance(project);
+        String key = workspaceId != null ? workspaceKey(config, workspaceId) : null;
+        String gitState = key != null ? workspaceRepository.fetchGitState(
+                config.projectId, config.location, config.repositoryId, workspaceId) : null;
+        Map<String, String> synced = gitState != null && gitState.equals(manifest.getGitState(key))
+                ? manifest.getHashes(key)
+                : Map.of();
+        Set<String> changedInWorkspace = synced.isEmpty() ? null : changedInWorkspace(config, workspaceId);
+
+        List<String> toDownload = remotePaths.stream()
+                .filter(path -> changedInWorkspace == null
+                        || changedInWorkspace.contains(path)
+                        || synced.get(path) == null
+                        || !synced.get(path).equals(localHashes.get(path)))
+                .toList();
+        Map<String, String> downloaded = toDownload.isEmpty() ? Map.of() : workspaceRepository.readFiles(
+                config.projectId, config.location, config.repositoryId, workspaceId, toDownload);
+        Map<String, String> downloadedHashes = hashAll(downloaded);
+
+        Map<String, String> toWrite = new LinkedHashMap<>();
+        downloaded.forEach((path, content) -> {
+            if (!downloadedHashes.get(path).equals(localHashes.get(path))) {
+                toWrite.put(path, content);
+            }
+        });
+        LOG.info("Pulled " + downloaded.size() + " of " + remotePaths.size() + " file(s), "
+                + toWrite.size() + " changed locally");
+        Set<String> skipped = toWrite.isEmpty() ? Set.of() : writeFilesToVfs(toWrite);
+
+        if (key != null) {
+            Map<String, String> remoteHashes = new HashMap<>();
+            for (String path : remotePaths) {
+                String hash = downloadedHashes.containsKey(path) && !skipped.contains(path)
+                        ? downloadedHashes.get(path)
+                        : synced.get(path);
+                if (hash != null) remoteHashes.put(path, hash);
+            }
+            manifest.update(key, remoteHashes, gitState);
+        }
+        if (!skipped.isEmpty()) {
+            throw new GcpApiException("Did not overwrite " + skipped.size()
+                    + " file(s) with unsaved changes, save or revert them and pull again: " + skipped);
+        }
+    }
+
+    /**
+     * Returns the paths with uncommitted changes in the workspace, or {@code null} when they
+     * cannot be fetched.
+     */
+    @Nullable
+    private Set<String> changedInWorkspace(@NotNull GcpConfig config, @NotNull String workspaceId) {
+        try {
+            Set<String> paths = new HashSet<>();
+            for (UncommittedChange change : workspaceRepository.fetchFileGitStatuses(
+                    config.projectId, config.location, config.repositoryId, workspaceId)) {
+                paths.add(change.path());
+            }
+            return paths;
+        } catch (GcpApiException e) {
+            LOG.info("Cannot fetch git statuses of workspace " + workspaceId + ": " + e.getMessage());
+            return null;
         }
     }
 
@@ -106,42 +181,136 @@ public class WorkspaceOperationsHandler implements WorkspaceOperations {
         workspaceRepository.findAll(config.projectId(), config.location(), config.repositoryId());
     }
 
+    /**
+     * Pushes the local files to {@code workspaceId}. The first push to a workspace, or a push after
+     * commits were made in or pulled into it, writes every file and removes remote files that do
+     * not exist locally. Later pushes only send the files whose hash differs from the
+     * {@link WorkspaceSyncManifest}, plus the files reported as changed in the workspace by
+     * {@code fetchFileGitStatuses} whose remote content differs.
+     */
     @Override
     public void pushCode(@NotNull String workspaceId) {
         GcpConfig config = readConfig();
         if (config == null) return;
 
-        Map<String, String> localFiles = ReadAction.computeBlocking(() -> {
-            List<String> paths = filesResolver.apply(project);
-            VirtualFile[] roots = ProjectRootManager.getInstance(project).getContentRoots();
-            if (roots.length == 0 || paths.isEmpty()) return Map.of();
-
-            VirtualFile contentRoot = roots[0];
-            Map<String, String> result = new LinkedHashMap<>();
-            for (String path : paths) {
-                VirtualFile vf = contentRoot.findFileByRelativePath(path);
-                if (vf != null && !vf.isDirectory()) {
-                    try {
-                        result.put(path, new String(vf.contentsToByteArray(), StandardCharsets.UTF_8));
-                    } catch (IOException e) {
-                        LOG.warn("Cannot read local file: " + path, e);
-                    }
-                }
-            }
-            return result;
-        });
+        Map<String, String> localFiles = readLocalFiles(ReadAction.computeBlocking(() -> filesResolver.apply(project)));
 
         if (localFiles.isEmpty()) return;
 
-        List<String> remotePaths = workspaceRepository.listAllPaths(
+        Map<String, String> localHashes = hashAll(localFiles);
+        String key = workspaceKey(config, workspaceId);
+        WorkspaceSyncManifest manifest = WorkspaceSyncManifest.getInstance(project);
+        String gitState = workspaceRepository.fetchGitState(
                 config.projectId, config.location, config.repositoryId, workspaceId);
+        Map<String, String> synced = gitState != null && gitState.equals(manifest.getGitState(key))
+                ? manifest.getHashes(key)
+                : Map.of();
+
+        Map<String, String> toWrite = new LinkedHashMap<>();
+        Set<String> toDelete = new HashSet<>();
+        if (synced.isEmpty()) {
+            toWrite.putAll(localFiles);
+            toDelete.addAll(workspaceRepository.listAllPaths(
+                    config.projectId, config.location, config.repositoryId, workspaceId));
+            toDelete.removeAll(localFiles.keySet());
+        } else {
+            localFiles.forEach((path, content) -> {
+                if (!localHashes.get(path).equals(synced.get(path))) {
+                    toWrite.put(path, content);
+                }
+            });
+            for (String path : synced.keySet()) {
+                if (!localFiles.containsKey(path)) toDelete.add(path);
+            }
+            addRemoteChanges(config, workspaceId, localFiles, localHashes, toWrite, toDelete);
+        }
 
-        Set<String> toDelete = new HashSet<>(remotePaths);
-        toDelete.removeAll(localFiles.keySet());
+        if (toWrite.isEmpty() && toDelete.isEmpty()) {
+            LOG.info("Workspace " + workspaceId + " is up to date, nothing to push.");
+            return;
+        }
+        LOG.info("Pushing " + toWrite.size() + " file(s) and removing " + toDelete.size()
+                + " of " + localFiles.size() + " to workspace " + workspaceId);
+        PushReport report;
+        try {
+            report = workspaceRepository.push(
+                    config.projectId, config.location, config.repositoryId,
+                    workspaceId, toWrite, toDelete);
+        } catch (RuntimeException e) {
+            manifest.invalidate(key);
+            throw e;
+        }
+        if (report.isComplete()) {
+            manifest.update(key, localHashes, gitState);
+            return;
+        }
+        manifest.update(key, resumableHashes(synced, localHashes, toDelete, report), gitState);
+        throw new GcpApiException("Failed to push " + report.failures().size() + " of "
+                + (toWrite.size() + toDelete.size()) + " file(s) to workspace " + workspaceId
+                + ", push again to resume: " + report.failures());
+    }
+
+    /**
+     * Records the paths a partial push did apply, so that the next push only retries the others.
+     * Failed writes keep their previous hash and are therefore sent again. Failed deletes are
+     * recorded with a hash no content matches, so the next push removes them again even when the
+     * workspace was never synced before.
+     */
+    @NotNull
+    private static Map<String, String> resumableHashes(@NotNull Map<String, String> synced,
+                                                       @NotNull Map<String, String> localHashes,
+                                                       @NotNull Set<String> toDelete,
+                                                       @NotNull PushReport report) {
+        Map<String, String> hashes = new HashMap<>(synced);
+        report.written().forEach(path -> hashes.put(path, localHashes.get(path)));
+        report.deleted().forEach(hashes::remove);
+        for (String path : toDelete) {
+            if (report.failures().containsKey(path)) hashes.putIfAbsent(path, "");
+        }
+        return hashes;
+    }
 
-        workspaceRepository.push(
-                config.projectId, config.location, config.repositoryId,
-                workspaceId, localFiles, toDelete);
+    /**
+     * Adds the files changed in the workspace itself since its last commit, as long as their
+     * remote content no longer matches the local one. Remote-only files are removed. The remote
+     * contents are fetched in one {@code readFiles} batch; a read failure aborts the push rather
+     * than being taken for a difference.
+     */
+    private void addRemoteChanges(@NotNull GcpConfig config,
+                                  @NotNull String workspaceId,
+                                  @NotNull Map<String, String> localFiles,
+                                  @NotNull Map<String, String> localHashes,
+                                  @NotNull Map<String, String> toWrite,
+                                  @NotNull Set<String> toDelete) {
+        List<UncommittedChange> remoteChanges;
+        try {
+            remoteChanges = workspaceRepository.fetchFileGitStatuses(
+                    config.projectId, config.location, config.repositoryId, workspaceId);
+        } catch (GcpApiException e) {
+            LOG.info("Cannot verify workspace " + workspaceId + " against its git statuses: " + e.getMessage());
+            return;
+        }
+        List<String> toCompare = new ArrayList<>();
+        for (UncommittedChange change : remoteChanges) {
+            String path = change.path();
+            if (toWrite.containsKey(path) || toDelete.contains(path)) continue;
+            String content = localFiles.get(path);
+            if (content == null) {
+                if (change.state() != UncommittedChange.ChangeState.DELETED) toDelete.add(path);
+            } else if (change.state() == UncommittedChange.ChangeState.DELETED) {
+                toWrite.put(path, content);
+            } else {
+                toCompare.add(path);
+            }
+        }
+        if (toCompare.isEmpty()) return;
+        Map<String, String> remoteHashes = hashAll(workspaceRepository.readFiles(
+                config.projectId, config.location, config.repositoryId, workspaceId, toCompare));
+        for (String path : toCompare) {
+            if (!localHashes.get(path).equals(remoteHashes.get(path))) {
+                toWrite.put(path, localFiles.get(path));
+            }
+        }
     }
 
     public void createRepository(@NotNull DataformRepositoryConfig config) {
@@ -170,6 +339,7 @@ public class WorkspaceOperationsHandler implements WorkspaceOperations {
                 config.repositoryId,
                 workspaceId
         );
+        WorkspaceSyncManifest.getInstance(project).invalidate(workspaceKey(config, workspaceId));
     }
 
     @Override
@@ -201,10 +371,18 @@ public class WorkspaceOperationsHandler implements WorkspaceOperations {
         String location = configProvider.getLocation();
         String repositoryId = configProvider.getRepositoryId();
         if (projectId == null || location == null || repositoryId == null) return List.of();
-        return workspaceRepository.listAllPaths(projectId,
-                location,
-                repositoryId,
-                workspaceId);
+        ProgressIndicator indicator = ProgressManager.getGlobalProgressIndicator();
+        List<String> paths = new ArrayList<>();
+        try {
+            workspaceRepository.listFiles(projectId, location, repositoryId, workspaceId, path -> {
+                paths.add(path);
+                if (indicator != null) indicator.setText2(paths.size() + " file(s) found");
+            });
+        } catch (GcpApiException e) {
+            LOG.debug("Error listing files from GCP Dataform.", e);
+            return List.of();
+        }
+        return paths;
     }
 
     @Override
@@ -226,20 +404,75 @@ public class WorkspaceOperationsHandler implements WorkspaceOperations {
         return new GcpConfig(projectId, location, repositoryId);
     }
 
-    private void writeFilesToVfs(@NotNull Map<String, String> files) {
+    /**
+     * Reads the existing local files among {@code paths}, relative to the first content root.
+     */
+    @NotNull
+    private Map<String, String> readLocalFiles(@NotNull List<String> paths) {
+        return ReadAction.computeBlocking(() -> {
+            VirtualFile[] roots = ProjectRootManager.getInstance(project).getContentRoots();
+            if (roots.length == 0 || paths.isEmpty()) return Map.of();
+
+            VirtualFile contentRoot = roots[0];
+            Map<String, String> result = new LinkedHashMap<>();
+            for (String path : paths) {
+                VirtualFile vf = contentRoot.findFileByRelativePath(path);
+                if (vf != null && !vf.isDirectory()) {
+                    try {
+                        result.put(path, new String(vf.contentsToByteArray(), StandardCharsets.UTF_8));
+                    } catch (IOException e) {
+                        LOG.warn("Cannot read local file: " + path, e);
+                    }
+                }
+            }
+            return result;
+        });
+    }
+
+    @NotNull
+    private static Map<String, String> hashAll(@NotNull Map<String, String> files) {
+        Map<String, String> hashes = new HashMap<>();
+        files.forEach((path, content) -> hashes.put(path, WorkspaceSyncManifest.hash(content)));
+        return hashes;
+    }
+
+    @NotNull
+    private static String workspaceKey(@NotNull GcpConfig config, @NotNull String workspaceId) {
+        return config.projectId + "/" + config.location + "/" + config.repositoryId + "/" + workspaceId;
+    }
+
+    /**
+     * Writes {@code files} under the first content root through the VFS, all in one write
+     * action, so open editors are reloaded in place rather than seeing an external change.
+     * Files whose document has unsaved changes are left untouched and returned.
+     */
+    @NotNull
+    private Set<String> writeFilesToVfs(@NotNull Map<String, String> files) {
         VirtualFile[] roots = ProjectRootManager.getInstance(project).getContentRoots();
-        if (roots.length == 0) return;
+        if (roots.length == 0) return Set.of();
         VirtualFile contentRoot = roots[0];
 
+        Set<String> skipped = new TreeSet<>();
         try {
             WriteAction.runAndWait(() -> {
+                FileDocumentManager documents = FileDocumentManager.getInstance();
                 for (Map.Entry<String, String> entry : files.entrySet()) {
+                    VirtualFile existing = contentRoot.findFileByRelativePath(entry.getKey());
+                    Document document = existing != null ? documents.getCachedDocument(existing) : null;
+                    if (document != null && documents.isDocumentUnsaved(document)) {
+                        skipped.add(entry.getKey());
+                        continue;
+                    }
                     writeFile(contentRoot, entry.getKey(), entry.getValue());
                 }
             });
         } catch (IOException e) {
             throw new GcpApiException("Failed to write pulled files to local project.", e);
         }
+        if (!skipped.isEmpty()) {
+            LOG.warn("Pull skipped " + skipped.size() + " file(s) with unsaved changes: " + skipped);
+        }
+        return skipped;
     }
 
     private static void writeFile(
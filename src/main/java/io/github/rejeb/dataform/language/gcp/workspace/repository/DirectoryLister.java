@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.gcp.workspace.repository;
+
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import io.github.rejeb.dataform.language.gcp.common.GcpApiException;
+import io.github.rejeb.dataform.language.settings.DataformToolsSettings;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Lists a Dataform directory tree breadth-first, querying up to
+ * {@link DataformToolsSettings#getWorkspaceTransferConcurrency()} directories at once instead of
+ * one directory after the other. File paths are handed to the consumer on the calling thread as
+ * soon as their directory has been queried, so consumers do not need to be thread-safe.
+ */
+final class DirectoryLister {
+
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private DirectoryLister() {
+    }
+
+    /**
+     * @throws GcpApiException          when a directory query still fails after its retries
+     * @throws ProcessCanceledException when the progress indicator of the calling thread is canceled
+     */
+    static void list(@NotNull DirectoryQuery query, @NotNull Consumer<String> onFile) {
+        ProgressIndicator indicator = ProgressManager.getGlobalProgressIndicator();
+        ExecutorService executor = AppExecutorUtil.createBoundedApplicationPoolExecutor(
+                "Dataform Directory Listing", DataformToolsSettings.getInstance().getWorkspaceTransferConcurrency());
+        CompletionService<Listing> completion = new ExecutorCompletionService<>(executor);
+        List<Future<Listing>> submitted = new ArrayList<>();
+        boolean completed = false;
+        try {
+            submitted.add(submit(completion, query, ""));
+            int pending = 1;
+            while (pending > 0) {
+                if (indicator != null) indicator.checkCanceled();
+                Future<Listing> done = completion.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (done == null) continue;
+                pending--;
+                Listing listing = get(done);
+                listing.files().forEach(onFile);
+                for (String directory : listing.directories()) {
+                    submitted.add(submit(completion, query, directory));
+                    pending++;
+                }
+            }
+            completed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProcessCanceledException(e);
+        } finally {
+            if (!completed) {
+                submitted.forEach(f -> f.cancel(true));
+                executor.shutdownNow();
+            } else {
+                executor.shutdown();
+            }
+        }
+    }
+
+    @NotNull
+    private static Future<Listing> submit(@NotNull CompletionService<Listing> completion,
+                                          @NotNull DirectoryQuery query,
+                                          @NotNull String directory) {
+        return completion.submit(() -> FileTransferExecutor.callWithRetry("list", directory, query::list));
+    }
+
+    @NotNull
+    private static Listing get(@NotNull Future<Listing> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof GcpApiException gcp
+                    ? gcp
+                    : new GcpApiException("Error listing Dataform directory.", cause);
+        }
+    }
+
+    /**
+     * Files and sub-directories of one directory, as full paths.
+     */
+    record Listing(@NotNull List<String> files, @NotNull List<String> directories) {
+    }
+
+    @FunctionalInterface
+    interface DirectoryQuery {
+        @NotNull Listing list(@NotNull String directoryPath) throws Exception;
+    }
+}
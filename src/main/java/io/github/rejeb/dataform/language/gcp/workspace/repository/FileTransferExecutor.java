@@ -0,0 +1,275 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.gcp.workspace.repository;
+
+import com.google.api.gax.rpc.AbortedException;
+import com.google.api.gax.rpc.DeadlineExceededException;
+import com.google.api.gax.rpc.InternalException;
+import com.google.api.gax.rpc.ResourceExhaustedException;
+import com.google.api.gax.rpc.UnavailableException;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import io.github.rejeb.dataform.language.gcp.common.GcpApiException;
+import io.github.rejeb.dataform.language.settings.DataformToolsSettings;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs one Dataform API call per file path on a dedicated bounded pool, with at most
+ * {@link DataformToolsSettings#getWorkspaceTransferConcurrency()} calls in flight. Transient
+ * gRPC failures are retried with a jittered exponential backoff; the first permanent failure
+ * cancels the remaining calls. Progress is reported to, and cancellation read from, the
+ * {@link ProgressIndicator} of the calling thread.
+ */
+final class FileTransferExecutor {
+
+    private static final Logger LOG = Logger.getInstance(FileTransferExecutor.class);
+
+    private static final int MAX_ATTEMPTS = 4;
+    private static final long INITIAL_BACKOFF_MS = 500;
+    private static final long MAX_BACKOFF_MS = 8_000;
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private FileTransferExecutor() {
+    }
+
+    /**
+     * Calls {@code call} for every path and returns the non-null results in the order of
+     * {@code paths}.
+     *
+     * @param activity verb used in thread names and error messages, e.g. {@code "read"}
+     * @throws GcpApiException          when a call still fails after its retries
+     * @throws ProcessCanceledException when the progress indicator of the calling thread is canceled
+     */
+    @NotNull
+    static <R> Map<String, R> run(@NotNull String activity,
+                                  @NotNull Collection<String> paths,
+                                  @NotNull PathCall<R> call) {
+        return run(activity, paths, call, configuredConcurrency(), ProgressManager.getGlobalProgressIndicator());
+    }
+
+    @NotNull
+    static <R> Map<String, R> run(@NotNull String activity,
+                                  @NotNull Collection<String> paths,
+                                  @NotNull PathCall<R> call,
+                                  int concurrency,
+                                  @Nullable ProgressIndicator indicator) {
+        if (paths.isEmpty()) return Map.of();
+        Map<String, R> values = new HashMap<>();
+        transfer(activity, paths, call, concurrency, indicator, new CompletionHandler<R>() {
+            @Override
+            public void succeeded(@NotNull String path, @Nullable R value) {
+                if (value != null) values.put(path, value);
+            }
+
+            @Override
+            public void failed(@NotNull String path, @NotNull Throwable error) {
+                throw asGcpException(activity, path, error);
+            }
+        });
+        Map<String, R> result = new LinkedHashMap<>();
+        for (String path : paths) {
+            R value = values.get(path);
+            if (value != null) result.put(path, value);
+        }
+        return result;
+    }
+
+    /**
+     * Calls {@code call} for every path, without stopping at the first failure, and returns the
+     * error of each path whose call still failed after its retries, in the order of {@code paths}.
+     *
+     * @throws ProcessCanceledException when the progress indicator of the calling thread is canceled
+     */
+    @NotNull
+    static Map<String, Throwable> runEach(@NotNull String activity,
+                                          @NotNull Collection<String> paths,
+                                          @NotNull PathCall<?> call) {
+        return runEach(activity, paths, call, configuredConcurrency(), ProgressManager.getGlobalProgressIndicator());
+    }
+
+    @NotNull
+    static Map<String, Throwable> runEach(@NotNull String activity,
+                                          @NotNull Collection<String> paths,
+                                          @NotNull PathCall<?> call,
+                                          int concurrency,
+                                          @Nullable ProgressIndicator indicator) {
+        if (paths.isEmpty()) return Map.of();
+        Map<String, Throwable> errors = new HashMap<>();
+        transfer(activity, paths, call, concurrency, indicator, new CompletionHandler<Object>() {
+            @Override
+            public void succeeded(@NotNull String path, @Nullable Object value) {
+            }
+
+            @Override
+            public void failed(@NotNull String path, @NotNull Throwable error) {
+                errors.put(path, error);
+            }
+        });
+        Map<String, Throwable> failures = new LinkedHashMap<>();
+        for (String path : paths) {
+            Throwable error = errors.get(path);
+            if (error != null) failures.put(path, error);
+        }
+        return failures;
+    }
+
+    /**
+     * Submits every call and hands the outcomes to {@code handler} in completion order, so a
+     * failure is seen as soon as it happens whatever its position in {@code paths}. When the
+     * handler throws, or the indicator is canceled, the calls still queued or running are
+     * cancelled.
+     */
+    private static <R> void transfer(@NotNull String activity,
+                                     @NotNull Collection<String> paths,
+                                     @NotNull PathCall<? extends R> call,
+                                     int concurrency,
+                                     @Nullable ProgressIndicator indicator,
+                                     @NotNull CompletionHandler<R> handler) {
+        ExecutorService executor = AppExecutorUtil.createBoundedApplicationPoolExecutor(
+                "Dataform Workspace " + activity, Math.max(1, Math.min(concurrency, paths.size())));
+        CompletionService<R> completion = new ExecutorCompletionService<>(executor);
+        Map<Future<R>, String> pathByFuture = new HashMap<>();
+        boolean completed = false;
+        try {
+            for (String path : paths) {
+                pathByFuture.put(completion.submit(() -> callWithRetry(activity, path, call)), path);
+            }
+            int done = 0;
+            while (done < pathByFuture.size()) {
+                if (indicator != null) indicator.checkCanceled();
+                Future<R> next = completion.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (next == null) continue;
+                String path = pathByFuture.get(next);
+                try {
+                    handler.succeeded(path, next.get());
+                } catch (ExecutionException e) {
+                    handler.failed(path, e.getCause());
+                }
+                reportProgress(indicator, activity, ++done, pathByFuture.size());
+            }
+            completed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProcessCanceledException(e);
+        } finally {
+            if (!completed) {
+                pathByFuture.keySet().forEach(f -> f.cancel(true));
+                executor.shutdownNow();
+            } else {
+                executor.shutdown();
+            }
+        }
+    }
+
+    @Nullable
+    static <R> R callWithRetry(@NotNull String activity,
+                               @NotNull String path,
+                               @NotNull PathCall<R> call) throws Exception {
+        return callWithRetry(activity, path, call, Thread::sleep);
+    }
+
+    /**
+     * Calls {@code call}, retrying transient failures up to {@link #MAX_ATTEMPTS} times. The
+     * n-th retry waits a random delay between half and one and a half times
+     * {@link #INITIAL_BACKOFF_MS} doubled n-1 times, capped at {@link #MAX_BACKOFF_MS}.
+     */
+    @Nullable
+    static <R> R callWithRetry(@NotNull String activity,
+                               @NotNull String path,
+                               @NotNull PathCall<R> call,
+                               @NotNull Sleeper sleeper) throws Exception {
+        long backoffMs = INITIAL_BACKOFF_MS;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return call.call(path);
+            } catch (Exception e) {
+                if (!isTransient(e) || attempt == MAX_ATTEMPTS) {
+                    throw new GcpApiException(
+                            "Failed to " + activity + " \"" + path + "\" after " + attempt + " attempt(s).", e);
+                }
+                long delayMs = backoffMs / 2 + ThreadLocalRandom.current().nextLong(backoffMs + 1);
+                LOG.warn("Retrying " + activity + " of \"" + path + "\" in " + delayMs + "ms (attempt " + attempt + ")");
+                sleeper.sleep(delayMs);
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+
+    static boolean isTransient(@NotNull Throwable t) {
+        return t instanceof UnavailableException
+                || t instanceof DeadlineExceededException
+                || t instanceof ResourceExhaustedException
+                || t instanceof AbortedException
+                || t instanceof InternalException;
+    }
+
+    private static void reportProgress(@Nullable ProgressIndicator indicator,
+                                       @NotNull String activity,
+                                       int done,
+                                       int total) {
+        if (indicator == null) return;
+        indicator.setText2(activity + " " + done + "/" + total + " file(s)");
+        if (!indicator.isIndeterminate()) {
+            indicator.setFraction((double) done / total);
+        }
+    }
+
+    private static int configuredConcurrency() {
+        return DataformToolsSettings.getInstance().getWorkspaceTransferConcurrency();
+    }
+
+    @NotNull
+    private static GcpApiException asGcpException(@NotNull String activity,
+                                                  @NotNull String path,
+                                                  @NotNull Throwable cause) {
+        return cause instanceof GcpApiException gcp
+                ? gcp
+                : new GcpApiException("Failed to " + activity + " \"" + path + "\".", cause);
+    }
+
+    @FunctionalInterface
+    interface PathCall<R> {
+        @Nullable R call(@NotNull String path) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface Sleeper {
+        void sleep(long millis) throws InterruptedException;
+    }
+
+    private interface CompletionHandler<R> {
+        void succeeded(@NotNull String path, @Nullable R value);
+
+        void failed(@NotNull String path, @NotNull Throwable error);
+    }
+}
@@ -16,15 +16,16 @@
  */
 package io.github.rejeb.dataform.language.gcp.workspace.repository;
 
-import com.google.api.gax.rpc.UnavailableException;
+import com.google.api.gax.rpc.NotFoundException;
 import com.google.cloud.dataform.v1.*;
 import com.google.protobuf.ByteString;
 import com.intellij.openapi.Disposable;
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProcessCanceledException;
 import com.intellij.openapi.util.text.StringUtil;
-import com.intellij.util.concurrency.AppExecutorUtil;
 import io.github.rejeb.dataform.language.gcp.common.CommitAuthorConfig;
 import io.github.rejeb.dataform.language.gcp.common.GcpApiException;
+import io.github.rejeb.dataform.language.gcp.workspace.PushReport;
 import io.github.rejeb.dataform.language.gcp.workspace.UncommittedChange;
 import io.github.rejeb.dataform.language.gcp.workspace.Workspace;
 import io.github.rejeb.dataform.language.util.GcpClientsUtils;
@@ -32,22 +33,23 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 public class GcpDataformWorkspaceRepository implements WorkspaceRepository, Disposable {
 
     private static final Logger LOG = Logger.getInstance(GcpDataformWorkspaceRepository.class);
 
-    private static final int PUSH_MAX_RETRIES = 3;
-    private static final long PUSH_RETRY_DELAY_MS = 1_000;
+    /**
+     * Last listing of each repository, keyed by repository name. A listing is pinned to the
+     * commit it was read at, so it is reused as long as the head commit has not moved.
+     * Workspace listings are not cached: their uncommitted files have no version to key on.
+     */
+    private final Map<String, CachedListing> listingCache = new ConcurrentHashMap<>();
 
     @Override
     public void dispose() {
-
+        listingCache.clear();
     }
 
     @Override
@@ -58,7 +60,8 @@ public class GcpDataformWorkspaceRepository implements WorkspaceRepository, Disp
             @NotNull String repositoryId
     ) {
         List<Workspace> result = new ArrayList<>();
-        try (DataformClient client = GcpClientsUtils.dataformClient(projectId)) {
+        try {
+            DataformClient client = GcpClientsUtils.dataformClient(projectId);
             String parent = RepositoryName.of(projectId, location, repositoryId).toString();
             ListWorkspacesRequest request = ListWorkspacesRequest.newBuilder()
                     .setParent(parent)
@@ -81,7 +84,8 @@ public class GcpDataformWorkspaceRepository implements WorkspaceRepository, Disp
             @NotNull String workspaceId,
             @NotNull CommitAuthorConfig author
     ) {
-        try (DataformClient client = GcpClientsUtils.dataformClient(projectId)) {
+        try {
+            DataformClient client = GcpClientsUtils.dataformClient(projectId);
             String wsName = workspaceName(projectId, location, repositoryId, workspaceId);
             PushGitCommitsRequest pushRequest = PushGitCommitsRequest.newBuilder()
                     .setName(wsName)
@@ -100,7 +104,8 @@ public class GcpDataformWorkspaceRepository implements WorkspaceRepository, Disp
             @NotNull String workspaceId,
             @NotNull CommitAuthorConfig author
     ) {
-        try (DataformClient client = GcpClientsUtils.dataformClient(projectId)) {
+        try {
+            DataformClient client = GcpClientsUtils.dataformClient(projectId);
             PullGitCommitsRequest request = PullGitCommitsRequest.newBuilder()
                     .setName(workspaceName(projectId, location, repositoryId, workspaceId))
                     .setAuthor(CommitAuthor.newBuilder()
@@ -115,7 +120,8 @@ public class GcpDataformWorkspaceRepository implements WorkspaceRepository, Disp
     }
 
     @Override
-    public void push(
+    @NotNull
+    public PushReport push(
             @NotNull String projectId,
             @NotNull String location,
             @NotNull String repositoryId,
@@ -123,27 +129,41 @@ public class GcpDataformWorkspaceRepository implements WorkspaceRepository, Disp
             @NotNull Map<String, String> filesToWrite,
             @NotNull Set<String> pathsToDelete
     ) {
-        try (DataformClient client = GcpClientsUtils.dataformClient(projectId)) {
+        try {
+            DataformClient client = GcpClientsUtils.dataformClient(projectId);
             String wsName = workspaceName(projectId, location, repositoryId, workspaceId);
-            writeAllFiles(wsName, filesToWrite, client);
-            deleteAllFiles(wsName, pathsToDelete, client);
-        } catch (GcpApiException e) {
+            Map<String, Throwable> writeFailures = FileTransferExecutor.runEach("write", filesToWrite.keySet(), path -> {
+                writeFile(wsName, path, filesToWrite.get(path), client);
+                return null;
+            });
+            Map<String, Throwable> deleteFailures = FileTransferExecutor.runEach("delete", pathsToDelete, path -> {
+                deleteFile(wsName, path, client);
+                return null;
+            });
+            return report(filesToWrite.keySet(), writeFailures, pathsToDelete, deleteFailures);
+        } catch (ProcessCanceledException | GcpApiException e) {
             throw e;
         } catch (Exception e) {
             throw new GcpApiException("Error syncing files to GCP Dataform workspace.", e);
         }
     }
 
-    private void writeAllFiles(@NotNull String wsName,
-                               @NotNull Map<String, String> batch, @NotNull DataformClient client) throws Exception {
-        batch.entrySet().parallelStream().forEach(entry ->
-                writeFileWithRetry(wsName, entry.getKey(), entry.getValue(), client)
-        );
-    }
-
-    private void deleteAllFiles(@NotNull String wsName,
-                                @NotNull Set<String> pathsToDelete, @NotNull DataformClient client) {
-        pathsToDelete.forEach(path -> deleteFile(wsName, path, client));
+    @NotNull
+    private static PushReport report(@NotNull Set<String> written,
+                                     @NotNull Map<String, Throwable> writeFailures,
+                                     @NotNull Set<String> deleted,
+                                     @NotNull Map<String, Throwable> deleteFailures) {
+        Map<String, String> failures = new LinkedHashMap<>();
+        writeFailures.forEach((path, error) -> failures.put(path, String.valueOf(error.getMessage())));
+        deleteFailures.forEach((path, error) -> failures.put(path, String.valueOf(error.getMessage())));
+        if (!failures.isEmpty()) {
+            LOG.warn("Push failed for " + failures.size() + " path(s): " + failures);
+        }
+        Set<String> succeededWrites = new HashSet<>(written);
+        succeededWrites.removeAll(writeFailures.keySet());
+        Set<String> succeededDeletes = new HashSet<>(deleted);
+        succeededDeletes.removeAll(deleteFailures.keySet());
+        return new PushReport(succeededWrites, succeededDeletes, failures);
     }
 
     private void deleteFile(@NotNull String wsName, @NotNull String path, @NotNull DataformClient client) {
@@ -151,41 +171,17 @@ public class GcpDataformWorkspaceRepository implements WorkspaceRepository, Disp
                 .setWorkspace(wsName)
                 .setPath(path)
                 .build();
-        client.removeFile(request);
-    }
-
-    private void writeFileWithRetry(@NotNull String wsName,
-                                    @NotNull String path,
-                                    @NotNull String content,
-                                    @NotNull DataformClient client) {
-        writeWithRetry(wsName, path, content, 0, client).join();
-    }
-
-    @NotNull
-    private CompletableFuture<Void> writeWithRetry(@NotNull String wsName,
-                                                   @NotNull String path,
-                                                   @NotNull String content,
-                                                   int attempt,
-                                                   @NotNull DataformClient client) {
-        return attemptWrite(wsName, path, content, client)
-                .exceptionallyCompose(ex -> retryOrFail(wsName, path, content, attempt, ex, client));
+        try {
+            client.removeFile(request);
+        } catch (NotFoundException e) {
+            LOG.debug("\"" + path + "\" is already absent from " + wsName);
+        }
     }
 
-    @NotNull
-    private CompletableFuture<Void> attemptWrite(@NotNull String wsName,
-                                                 @NotNull String path,
-                                                 @NotNull String content,
-                                                 @NotNull DataformClient client) {
-        return CompletableFuture.runAsync(
-                () -> doWriteFile(wsName, path, content, client),
-                AppExecutorUtil.getAppExecutorService()
-        );
-    }
-
-    private void doWriteFile(@NotNull String wsName,
-                             @NotNull String path,
-                             @NotNull String content,
-                             @NotNull DataformClient client) {
+    private void writeFile(@NotNull String wsName,
+                           @NotNull String path,
+                           @NotNull String content,
+                           @NotNull DataformClient client) {
         WriteFileRequest request = WriteFileRequest.newBuilder()
                 .setWorkspace(wsName)
                 .setPath(path)
@@ -194,53 +190,78 @@ public class GcpDataformWorkspaceRepository implements WorkspaceRepository, Disp
         client.writeFile(request);
     }
 
+    @Override
     @NotNull
-    private CompletableFuture<Void> retryOrFail(@NotNull String wsName,
-                                                @NotNull String path,
-                                                @NotNull String content,
-                                                int attempt,
-                                                @NotNull Throwable ex,
-                                                @NotNull DataformClient client) {
-        Throwable cause = ex instanceof java.util.concurrent.CompletionException ? ex.getCause() : ex;
-        if (!(cause instanceof UnavailableException) || attempt + 1 >= PUSH_MAX_RETRIES) {
-            throw new GcpApiException(
-                    "Failed to write \"" + path + "\" after " + (attempt + 1) + " attempt(s).", cause);
+    public List<String> listAllPaths(
+            @NotNull String projectId,
+            @NotNull String location,
+            @NotNull String repositoryId,
+            @Nullable String workspaceId
+    ) {
+        try {
+            return listFiles(projectId, location, repositoryId, workspaceId);
+        } catch (ProcessCanceledException e) {
+            throw e;
+        } catch (Exception e) {
+            LOG.debug("Error reading files from GCP Dataform.", e);
         }
-        long delayMs = PUSH_RETRY_DELAY_MS * (attempt + 1);
-        LOG.warn("Retrying write for \"" + path + "\" in " + delayMs + "ms (attempt " + (attempt + 1) + ")");
-        CompletableFuture<Void> delayed = new CompletableFuture<>();
-        AppExecutorUtil.getAppScheduledExecutorService()
-                .schedule(
-                        () -> writeWithRetry(wsName, path, content, attempt + 1, client)
-                                .whenComplete((v, t) -> {
-                                    if (t != null) delayed.completeExceptionally(t);
-                                    else delayed.complete(null);
-                                }),
-                        delayMs,
-                        TimeUnit.MILLISECONDS
-                );
-        return delayed;
+        return List.of();
     }
 
     @Override
     @NotNull
-    public List<String> listAllPaths(
+    public List<String> listFiles(
             @NotNull String projectId,
             @NotNull String location,
             @NotNull String repositoryId,
             @Nullable String workspaceId
     ) {
+        List<String> paths = new ArrayList<>();
+        listFiles(projectId, location, repositoryId, workspaceId, paths::add);
+        return paths;
+    }
 
-        try (DataformClient client = GcpClientsUtils.dataformClient(projectId)) {
-            if (workspaceId != null) {
-                return listAllWorkspacePaths(projectId, location, repositoryId, workspaceId, "", client).toList();
-            } else {
-                return listAllRepositoryPaths(projectId, location, repositoryId, "", client).toList();
+    @Override
+    public void listFiles(
+            @NotNull String projectId,
+            @NotNull String location,
+            @NotNull String repositoryId,
+            @Nullable String workspaceId,
+            @NotNull Consumer<String> onPath
+    ) {
+        try {
+            DataformClient client = GcpClientsUtils.dataformClient(projectId);
+            streamPaths(projectId, location, repositoryId, workspaceId, client, onPath);
+        } catch (ProcessCanceledException e) {
+            throw e;
+        } catch (Exception e) {
+            if (isEmptyRepoException(e)) {
+                LOG.info("Repository is empty (no commits yet), no files to list.");
+                return;
             }
+            throw new GcpApiException("Error listing files from GCP Dataform.", e);
+        }
+    }
+
+    @Override
+    @NotNull
+    public Map<String, String> readFiles(
+            @NotNull String projectId,
+            @NotNull String location,
+            @NotNull String repositoryId,
+            @Nullable String workspaceId,
+            @NotNull Collection<String> paths
+    ) {
+        try {
+            DataformClient client = GcpClientsUtils.dataformClient(projectId);
+            return FileTransferExecutor.run("read", paths, path -> workspaceId != null
+                    ? readWorkspaceFile(projectId, location, repositoryId, workspaceId, path, client)
+                    : readRepositoryFile(projectId, location, repositoryId, path, client));
+        } catch (ProcessCanceledException | GcpApiException e) {
+            throw e;
         } catch (Exception e) {
-            LOG.debug("Error reading files from GCP Dataform.", e);
+            throw new GcpApiException("Error reading files from GCP Dataform.", e);
         }
-        return List.of();
     }
 
     @Override
@@ -251,22 +272,19 @@ public class GcpDataformWorkspaceRepository implements WorkspaceRepository, Disp
             @NotNull String repositoryId,
             @NotNull List<String> paths
     ) {
-        Map<String, String> result = new LinkedHashMap<>();
-        String repoName = RepositoryName.of(projectId, location, repositoryId).toString();
-        try (DataformClient client = GcpClientsUtils.dataformClient(projectId)) {
-            for (String path : paths) {
+        try {
+            DataformClient client = GcpClientsUtils.dataformClient(projectId);
+            return FileTransferExecutor.run("read", paths, path -> {
                 try {
-                    ReadRepositoryFileRequest request = ReadRepositoryFileRequest.newBuilder()
-                            .setName(repoName)
-                            .setPath(path)
-                            .build();
-                    ReadRepositoryFileResponse response = client.readRepositoryFile(request);
-                    result.put(path, response.getContents().toStringUtf8());
+                    return readRepositoryFile(projectId, location, repositoryId, path, client);
                 } catch (RuntimeException e) {
+                    if (FileTransferExecutor.isTransient(e)) throw e;
                     LOG.warn("Skipping file not found in repository: " + path, e);
+                    return null;
                 }
-            }
-            return result;
+            });
+        } catch (ProcessCanceledException e) {
+            throw e;
         } catch (Exception e) {
             LOG.debug("Error reading files from GCP Dataform.", e);
         }
@@ -281,12 +299,15 @@ public class GcpDataformWorkspaceRepository implements WorkspaceRepository, Disp
             @NotNull String repositoryId,
             @Nullable String workspaceId
     ) {
-        try (DataformClient client = GcpClientsUtils.dataformClient(projectId)) {
+        try {
+            DataformClient client = GcpClientsUtils.dataformClient(projectId);
             if (workspaceId != null) {
                 return readAllWorkspaceFiles(projectId, location, repositoryId, workspaceId, client);
             } else {
                 return readAllRepositoryFiles(projectId, location, repositoryId, client);
             }
+        } catch (ProcessCanceledException e) {
+            throw e;
         } catch (GcpApiException e) {
             if (isEmptyRepoException(e)) {
                 LOG.info("Repository is empty (no commits yet), returning empty file map.");
@@ -308,7 +329,8 @@ public class GcpDataformWorkspaceRepository implements WorkspaceRepository, Disp
             @NotNull String location,
             @NotNull String repositoryId
     ) {
-        try (DataformClient client = GcpClientsUtils.dataformClient(projectId)) {
+        try {
+            DataformClient client = GcpClientsUtils.dataformClient(projectId);
             String parent = LocationName.of(projectId, location).toString();
             CreateRepositoryRequest request = CreateRepositoryRequest.newBuilder()
                     .setParent(parent)
@@ -329,7 +351,8 @@ public class GcpDataformWorkspaceRepository implements WorkspaceRepository, Disp
             @NotNull String repositoryId,
             @NotNull String workspaceId
     ) {
-        try (DataformClient client = GcpClientsUtils.dataformClient(projectId)) {
+        try {
+            DataformClient client = GcpClientsUtils.dataformClient(projectId);
             String parent = RepositoryName.of(projectId, location, repositoryId).toString();
             CreateWorkspaceRequest request = CreateWorkspaceRequest.newBuilder()
                     .setParent(parent)
@@ -343,6 +366,31 @@ public class GcpDataformWorkspaceRepository implements WorkspaceRepository, Disp
         }
     }
 
+    @Override
+    @Nullable
+    public String fetchGitState(
+            @NotNull String projectId,
+            @NotNull String location,
+            @NotNull String repositoryId,
+            @NotNull String workspaceId
+    ) {
+        try {
+            DataformClient client = GcpClientsUtils.dataformClient(projectId);
+            String headSha = headCommitSha(repositoryName(projectId, location, repositoryId), client);
+            if (headSha == null) return null;
+            FetchGitAheadBehindResponse aheadBehind = client.fetchGitAheadBehind(
+                    FetchGitAheadBehindRequest.newBuilder()
+                            .setName(workspaceName(projectId, location, repositoryId, workspaceId))
+                            .build());
+            return headSha + " +" + aheadBehind.getCommitsAhead() + " -" + aheadBehind.getCommitsBehind();
+        } catch (ProcessCanceledException e) {
+            throw e;
+        } catch (Exception e) {
+            LOG.debug("Cannot read git state of workspace " + workspaceId, e);
+            return null;
+        }
+    }
+
     @Override
     @NotNull
     public List<UncommittedChange> fetchFileGitStatuses(
@@ -351,7 +399,8 @@ public class GcpDataformWorkspaceRepository implements WorkspaceRepository, Disp
             @NotNull String repositoryId,
             @NotNull String workspaceId
     ) {
-        try (DataformClient client = GcpClientsUtils.dataformClient(projectId)) {
+        try {
+            DataformClient client = GcpClientsUtils.dataformClient(projectId);
             FetchFileGitStatusesRequest request = FetchFileGitStatusesRequest.newBuilder()
                     .setName(workspaceName(projectId, location, repositoryId, workspaceId))
                     .build();
@@ -374,7 +423,8 @@ public class GcpDataformWorkspaceRepository implements WorkspaceRepository, Disp
             @NotNull String message,
             @NotNull CommitAuthorConfig author
     ) {
-        try (DataformClient client = GcpClientsUtils.dataformClient(projectId)) {
+        try {
+            DataformClient client = GcpClientsUtils.dataformClient(projectId);
             CommitWorkspaceChangesRequest request = CommitWorkspaceChangesRequest.newBuilder()
                     .setName(workspaceName(projectId, location, repositoryId, workspaceId))
                     .setAuthor(CommitAuthor.newBuilder()
@@ -396,7 +446,8 @@ public class GcpDataformWorkspaceRepository implements WorkspaceRepository, Disp
                                           @NotNull String repositoryId,
                                           @Nullable String workspaceId,
                                           @NotNull String filePath) {
-        try (DataformClient client = GcpClientsUtils.dataformClient(projectId)) {
+        try {
+            DataformClient client = GcpClientsUtils.dataformClient(projectId);
             if (StringUtil.isNotEmpty(workspaceId)) {
                 return readWorkspaceFile(projectId, location, repositoryId, workspaceId, filePath, client);
             } else {
@@ -415,9 +466,10 @@ public class GcpDataformWorkspaceRepository implements WorkspaceRepository, Disp
             @NotNull String repositoryId,
             @NotNull DataformClient client
     ) {
-        Stream<String> paths = listAllRepositoryPaths(projectId, location, repositoryId, "", client);
-        return paths.collect(Collectors.toMap(path -> path, path ->
-                readRepositoryFile(projectId, location, repositoryId, path, client)));
+        List<String> paths = new ArrayList<>();
+        streamPaths(projectId, location, repositoryId, null, client, paths::add);
+        return FileTransferExecutor.run("read", paths, path ->
+                readRepositoryFile(projectId, location, repositoryId, path, client));
     }
 
     @NotNull
@@ -428,9 +480,10 @@ public class GcpDataformWorkspaceRepository implements WorkspaceRepository, Disp
             @NotNull String workspaceId,
             @NotNull DataformClient client
     ) {
-        Stream<String> paths = listAllWorkspacePaths(projectId, location, repositoryId, workspaceId, "", client);
-        return paths.collect(Collectors.toMap(path -> path, path ->
-                readWorkspaceFile(projectId, location, repositoryId, workspaceId, path, client)));
+        List<String> paths = new ArrayList<>();
+        streamPaths(projectId, location, repositoryId, workspaceId, client, paths::add);
+        return FileTransferExecutor.run("read", paths, path ->
+                readWorkspaceFile(projectId, location, repositoryId, workspaceId, path, client));
     }
 
     @NotNull
@@ -466,95 +519,106 @@ public class GcpDataformWorkspaceRepository implements WorkspaceRepository, Disp
         return response.getFileContents().toStringUtf8();
     }
 
-    @NotNull
-    private Stream<String> listAllRepositoryPaths(
+    private void streamPaths(
             @NotNull String projectId,
             @NotNull String location,
             @NotNull String repositoryId,
-            @NotNull String directoryPath,
-            @NotNull DataformClient client
+            @Nullable String workspaceId,
+            @NotNull DataformClient client,
+            @NotNull Consumer<String> onPath
     ) {
-        QueryRepositoryDirectoryContentsRequest request =
-                QueryRepositoryDirectoryContentsRequest.newBuilder()
-                        .setName(repositoryName(projectId, location, repositoryId))
-                        .setPath(directoryPath)
-                        .build();
-        try {
-            DataformClient.QueryRepositoryDirectoryContentsPagedResponse response =
-                    client.queryRepositoryDirectoryContents(request);
-            return StreamSupport.stream(response.iterateAll().spliterator(), false)
-                    .parallel()
-                    .flatMap(entry -> resolveRepositoryEntry(
-                            entry, projectId, location, repositoryId, directoryPath, client));
-        } catch (Exception e) {
-            if (isEmptyRepoException(e)) {
-                LOG.info("Repository \"" + repositoryId + "\" is empty, skipping directory listing.");
-                return Stream.empty();
-            }
-            throw e;
+        if (workspaceId != null) {
+            String wsName = workspaceName(projectId, location, repositoryId, workspaceId);
+            DirectoryLister.list(directory -> queryWorkspaceDirectory(wsName, directory, client), onPath);
+            return;
+        }
+        String repoName = repositoryName(projectId, location, repositoryId);
+        String headSha = headCommitSha(repoName, client);
+        CachedListing cached = listingCache.get(repoName);
+        if (headSha != null && cached != null && cached.commitSha().equals(headSha)) {
+            cached.paths().forEach(onPath);
+            return;
+        }
+        List<String> paths = new ArrayList<>();
+        DirectoryLister.list(
+                directory -> queryRepositoryDirectory(repoName, headSha, directory, client),
+                path -> {
+                    paths.add(path);
+                    onPath.accept(path);
+                });
+        if (headSha != null) {
+            listingCache.put(repoName, new CachedListing(headSha, List.copyOf(paths)));
         }
     }
 
     @NotNull
-    private Stream<String> resolveRepositoryEntry(
-            @NotNull DirectoryEntry entry,
-            @NotNull String projectId,
-            @NotNull String location,
-            @NotNull String repositoryId,
+    private DirectoryLister.Listing queryRepositoryDirectory(
+            @NotNull String repoName,
+            @Nullable String commitSha,
             @NotNull String directoryPath,
             @NotNull DataformClient client
     ) {
-        if (entry.hasFile()) {
-            String fullPath = directoryPath.isEmpty()
-                    ? entry.getFile()
-                    : directoryPath + "/" + entry.getFile();
-            return Stream.of(fullPath);
+        QueryRepositoryDirectoryContentsRequest.Builder request =
+                QueryRepositoryDirectoryContentsRequest.newBuilder()
+                        .setName(repoName)
+                        .setPath(directoryPath);
+        if (commitSha != null) {
+            request.setCommitSha(commitSha);
         }
-        if (entry.hasDirectory() && !entry.getDirectory().equals("node_modules")) {
-            String subDir = directoryPath.isEmpty()
-                    ? entry.getDirectory()
-                    : directoryPath + "/" + entry.getDirectory();
-            return listAllRepositoryPaths(projectId, location, repositoryId, subDir, client);
+        List<String> files = new ArrayList<>();
+        List<String> directories = new ArrayList<>();
+        for (DirectoryEntry entry : client.queryRepositoryDirectoryContents(request.build()).iterateAll()) {
+            if (entry.hasFile()) {
+                files.add(directoryPath.isEmpty() ? entry.getFile() : directoryPath + "/" + entry.getFile());
+            } else if (entry.hasDirectory() && !entry.getDirectory().equals("node_modules")) {
+                directories.add(directoryPath.isEmpty()
+                        ? entry.getDirectory()
+                        : directoryPath + "/" + entry.getDirectory());
+            }
         }
-        return Stream.empty();
+        return new DirectoryLister.Listing(files, directories);
     }
 
     @NotNull
-    private Stream<String> listAllWorkspacePaths(
-            @NotNull String projectId,
-            @NotNull String location,
-            @NotNull String repositoryId,
-            @NotNull String workspaceId,
+    private DirectoryLister.Listing queryWorkspaceDirectory(
+            @NotNull String wsName,
             @NotNull String directoryPath,
             @NotNull DataformClient client
     ) {
         QueryDirectoryContentsRequest request = QueryDirectoryContentsRequest.newBuilder()
-                .setWorkspace(workspaceName(projectId, location, repositoryId, workspaceId))
+                .setWorkspace(wsName)
                 .setPath(directoryPath)
                 .build();
-        DataformClient.QueryDirectoryContentsPagedResponse response =
-                client.queryDirectoryContents(request);
-        return StreamSupport.stream(response.iterateAll().spliterator(), false)
-                .parallel()
-                .flatMap(entry -> resolveWorkspaceEntry(
-                        entry, projectId, location, repositoryId, workspaceId, client));
+        List<String> files = new ArrayList<>();
+        List<String> directories = new ArrayList<>();
+        for (DirectoryEntry entry : client.queryDirectoryContents(request).iterateAll()) {
+            if (entry.hasFile()) {
+                files.add(entry.getFile());
+            } else if (entry.hasDirectory() && !entry.getDirectory().equals("node_modules")) {
+                directories.add(entry.getDirectory());
+            }
+        }
+        return new DirectoryLister.Listing(files, directories);
     }
 
-    @NotNull
-    private Stream<String> resolveWorkspaceEntry(
-            @NotNull DirectoryEntry entry,
-            @NotNull String projectId,
-            @NotNull String location,
-            @NotNull String repositoryId,
-            @NotNull String workspaceId,
-            @NotNull DataformClient client
-    ) {
-        if (entry.hasFile()) return Stream.of(entry.getFile());
-        if (entry.hasDirectory() && !entry.getDirectory().equals("node_modules")) {
-            return listAllWorkspacePaths(
-                    projectId, location, repositoryId, workspaceId, entry.getDirectory(), client);
+    /**
+     * Returns the SHA of the last commit of the repository main branch, or {@code null} when the
+     * repository is empty or its history cannot be read.
+     */
+    @Nullable
+    private String headCommitSha(@NotNull String repoName, @NotNull DataformClient client) {
+        try {
+            FetchRepositoryHistoryRequest request = FetchRepositoryHistoryRequest.newBuilder()
+                    .setName(repoName)
+                    .setPageSize(1)
+                    .build();
+            for (CommitLogEntry entry : client.fetchRepositoryHistory(request).getPage().getValues()) {
+                return entry.getCommitSha();
+            }
+        } catch (RuntimeException e) {
+            LOG.debug("Cannot read head commit of " + repoName + ", listing without cache.", e);
         }
-        return Stream.empty();
+        return null;
     }
 
     private static String workspaceName(
@@ -600,4 +664,7 @@ public class GcpDataformWorkspaceRepository implements WorkspaceRepository, Disp
         };
     }
 
+    private record CachedListing(@NotNull String commitSha, @NotNull List<String> paths) {
+    }
+
 }
\ No newline at end of file
@@ -18,14 +18,17 @@ package io.github.rejeb.dataform.language.gcp.workspace.repository;
 
 import io.github.rejeb.dataform.language.gcp.common.CommitAuthorConfig;
 import io.github.rejeb.dataform.language.gcp.common.GcpApiException;
+import io.github.rejeb.dataform.language.gcp.workspace.PushReport;
 import io.github.rejeb.dataform.language.gcp.workspace.UncommittedChange;
 import io.github.rejeb.dataform.language.gcp.workspace.Workspace;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 public interface WorkspaceRepository {
 
@@ -94,6 +97,48 @@ public interface WorkspaceRepository {
             @Nullable String workspaceId
     );
 
+    /**
+     * Reads the given files from a workspace, or from the repository main branch when
+     * {@code workspaceId} is {@code null}.
+     *
+     * @return map of relative path → file content (UTF-8)
+     * @throws GcpApiException on API error
+     */
+    @NotNull Map<String, String> readFiles(
+            @NotNull String projectId,
+            @NotNull String location,
+            @NotNull String repositoryId,
+            @Nullable String workspaceId,
+            @NotNull Collection<String> paths
+    );
+
+    /**
+     * Lists the file paths of a workspace, or of the repository main branch when
+     * {@code workspaceId} is {@code null}. An empty repository has no files.
+     *
+     * @throws GcpApiException on API error
+     */
+    @NotNull List<String> listFiles(
+            @NotNull String projectId,
+            @NotNull String location,
+            @NotNull String repositoryId,
+            @Nullable String workspaceId
+    );
+
+    /**
+     * Same as {@link #listFiles(String, String, String, String)}, but hands each path to
+     * {@code onPath}, on the calling thread, as soon as its directory has been listed.
+     *
+     * @throws GcpApiException on API error
+     */
+    void listFiles(
+            @NotNull String projectId,
+            @NotNull String location,
+            @NotNull String repositoryId,
+            @Nullable String workspaceId,
+            @NotNull Consumer<String> onPath
+    );
+
     @NotNull List<String> listAllPaths(
             @NotNull String projectId,
             @NotNull String location,
@@ -101,7 +146,14 @@ public interface WorkspaceRepository {
             @Nullable String workspaceId
     );
 
-    void push(
+    /**
+     * Writes {@code filesToWrite} to the workspace, then removes {@code pathsToDelete}. Every path
+     * is attempted even when others fail; the paths that could not be applied are listed in the
+     * returned report instead of aborting the push.
+     *
+     * @throws GcpApiException when the push cannot be started at all
+     */
+    @NotNull PushReport push(
             @NotNull String projectId,
             @NotNull String location,
             @NotNull String repositoryId,
@@ -134,6 +186,18 @@ public interface WorkspaceRepository {
             @NotNull String workspaceId
     );
 
+    /**
+     * Returns a token of the commit state of a workspace: the head commit of the repository and
+     * the number of commits the workspace is ahead and behind it. The token changes when commits
+     * are made in, or pulled into, the workspace. Returns {@code null} when it cannot be fetched.
+     */
+    @Nullable String fetchGitState(
+            @NotNull String projectId,
+            @NotNull String location,
+            @NotNull String repositoryId,
+            @NotNull String workspaceId
+    );
+
     /**
      * Returns all files with uncommitted Git changes in the given workspace.
      *
@@ -21,22 +21,18 @@ import com.intellij.openapi.fileEditor.FileEditorState;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Key;
 import com.intellij.openapi.vfs.VirtualFile;
-import com.intellij.openapi.vfs.VirtualFileManager;
-import com.intellij.openapi.vfs.newvfs.BulkFileListener;
-import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
 import com.intellij.util.messages.MessageBusConnection;
+import io.github.rejeb.dataform.language.compilation.DataformCompilationListener;
 import io.github.rejeb.dataform.language.lineage.model.LineageModel;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import javax.swing.JComponent;
-import javax.swing.Timer;
 import java.beans.PropertyChangeListener;
-import java.util.List;
 
 /**
  * File editor hosting the project-wide {@link LineageProjectPanel}.
- * Refreshes the graph every time the editor tab is selected.
+ * Refreshes the graph every time the editor tab is selected and after each compilation.
  */
 public final class LineageFileEditor implements FileEditor {
 
@@ -45,7 +41,6 @@ public final class LineageFileEditor implements FileEditor {
     private final LineageModel model;
     private final LineageProjectPanel panel;
     private final MessageBusConnection connection;
-    private final Timer debounce;
 
     public LineageFileEditor(@NotNull Project project, @NotNull VirtualFile file) {
         this.project = project;
@@ -53,20 +48,9 @@ public final class LineageFileEditor implements FileEditor {
         this.model = new LineageModel(project);
         this.panel = new LineageProjectPanel(project, model);
 
-        this.debounce = new Timer(300, e -> panel.refresh(true));
-        this.debounce.setRepeats(false);
-
         this.connection = project.getMessageBus().connect();
-        this.connection.subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
-            @Override
-            public void after(@NotNull List<? extends VFileEvent> events) {
-                boolean sqlxChanged = events.stream().anyMatch(event -> {
-                    String path = event.getPath();
-                    return path.endsWith(".sqlx") || path.endsWith(".js");
-                });
-                if (sqlxChanged) debounce.restart();
-            }
-        });
+        this.connection.subscribe(DataformCompilationListener.TOPIC,
+                graph -> panel.refresh(false));
     }
 
     @Override
@@ -118,7 +102,6 @@ public final class LineageFileEditor implements FileEditor {
 
     @Override
     public void dispose() {
-        debounce.stop();
         connection.disconnect();
     }
 
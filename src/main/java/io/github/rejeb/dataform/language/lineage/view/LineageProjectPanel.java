@@ -34,6 +34,7 @@ import com.intellij.ui.scale.JBUIScale;
 import com.intellij.util.ui.JBUI;
 import com.intellij.util.ui.UIUtil;
 import io.github.rejeb.dataform.language.compilation.DataformCompilationService;
+import io.github.rejeb.dataform.language.compilation.DataformCompileScheduler;
 import io.github.rejeb.dataform.language.compilation.model.CompiledGraph;
 import io.github.rejeb.dataform.language.DataformIcons;
 import io.github.rejeb.dataform.language.lineage.extractor.LineageExtractorImpl;
@@ -115,8 +116,9 @@ public final class LineageProjectPanel extends JPanel {
      */
     public void refresh(boolean force) {
         ApplicationManager.getApplication().executeOnPooledThread(() -> {
-            DataformCompilationService svc = DataformCompilationService.getInstance(project);
-            CompiledGraph compiled = force ? svc.compile(true) : svc.getCompiledGraph();
+            CompiledGraph compiled = force
+                    ? DataformCompileScheduler.getInstance(project).requestCompile(true).join()
+                    : DataformCompilationService.getInstance(project).getCompiledGraph();
             LineageGraph graph = compiled != null ? new LineageExtractorImpl().extract(compiled) : null;
             ApplicationManager.getApplication().invokeLater(
                     () -> model.setGraph(graph), ModalityState.nonModal());
@@ -24,6 +24,11 @@ import java.util.List;
 
 public interface BigQueryDryRunSchemaExtractor {
 
+    /**
+     * Returns the schema produced by {@code dryRunQuery}, or an empty list when the dry run failed.
+     *
+     * @throws DryRunRateLimitedException when BigQuery rejected the dry run because of rate limiting
+     */
     @NotNull
     List<ColumnInfo> extractSchema(@NotNull String projectId,
                                    @Nullable String location,
@@ -42,6 +42,9 @@ public final class BigQueryDryRunSchemaExtractorImpl implements BigQueryDryRunSc
             return GcpCalls.execute(AuthTrigger.BACKGROUND,
                     () -> runDryRun(projectId, location, dryRunQuery));
         } catch (BigQueryException e) {
+            if (isRateLimited(e)) {
+                throw new DryRunRateLimitedException(e);
+            }
             LOG.warn("BigQuery dry-run [" + dryRunQuery + "] failed: [" + e.getCode() + "] " + e.getMessage());
             return Collections.emptyList();
         } catch (Exception e) {
@@ -50,6 +53,10 @@ public final class BigQueryDryRunSchemaExtractorImpl implements BigQueryDryRunSc
         }
     }
 
+    private static boolean isRateLimited(@NotNull BigQueryException e) {
+        return e.getCode() == 429 || "rateLimitExceeded".equals(e.getReason());
+    }
+
     @NotNull
     private List<ColumnInfo> runDryRun(@NotNull String projectId,
                                        @Nullable String location,
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.schema.sql;
+
+import com.intellij.openapi.project.Project;
+import io.github.rejeb.dataform.language.compilation.DataformCompilationListener;
+import io.github.rejeb.dataform.language.compilation.model.CompiledGraph;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Refreshes table schemas after every successful compilation. Only actions whose
+ * {@link SchemaFingerprint} changed are dry-run again, so a refresh is never forced here.
+ */
+public final class DataformSchemaRefreshListener implements DataformCompilationListener {
+
+    private final Project project;
+
+    public DataformSchemaRefreshListener(@NotNull Project project) {
+        this.project = project;
+    }
+
+    @Override
+    public void compilationFinished(@NotNull CompiledGraph graph) {
+        if (graph.getGraphErrors() != null && !graph.getGraphErrors().getCompilationErrors().isEmpty()) {
+            return;
+        }
+        DataformTableSchemaService.getInstance(project).refreshAsync(graph, false);
+    }
+}
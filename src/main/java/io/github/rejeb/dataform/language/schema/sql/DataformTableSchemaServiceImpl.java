@@ -34,6 +34,7 @@ import io.github.rejeb.dataform.language.schema.sql.model.ColumnInfo;
 import io.github.rejeb.dataform.language.schema.sql.model.DataformDasTable;
 import io.github.rejeb.dataform.language.gcp.auth.AuthTrigger;
 import io.github.rejeb.dataform.language.gcp.auth.DataformAuthState;
+import io.github.rejeb.dataform.language.settings.DataformToolsSettings;
 import io.github.rejeb.dataform.language.util.GcpClientsUtils;
 import io.github.rejeb.dataform.language.util.PreOperationsFilter;
 import io.github.rejeb.dataform.language.util.Utils;
@@ -41,9 +42,6 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Type;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -64,12 +62,13 @@ public final class DataformTableSchemaServiceImpl implements DataformTableSchema
 
     private final Project project;
     private final ConcurrentHashMap<String, DataformDasTable> tableCache = new ConcurrentHashMap<>();
-    private final Map<String, Long> fileModificationTimes = new ConcurrentHashMap<>();
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
     private final Map<String, String> fileNames = new ConcurrentHashMap<>();
     private final AtomicBoolean running = new AtomicBoolean(false);
     private final AtomicLong modificationCount = new AtomicLong(0);
 
     private volatile boolean pendingRefresh = false;
+    private volatile boolean pendingForceRefresh = false;
     private volatile CompiledGraph pendingGraph = null;
     private State currentState = new State();
 
@@ -101,11 +100,14 @@ public final class DataformTableSchemaServiceImpl implements DataformTableSchema
     public void refreshAsync(@NotNull CompiledGraph graph, boolean forceRefresh) {
         if (running.compareAndSet(false, true)) {
             pendingRefresh = false;
+            pendingForceRefresh = false;
             pendingGraph = null;
             if (forceRefresh) tableCache.clear();
             startTask(graph, forceRefresh);
         } else {
             pendingGraph = graph;
+            // A forced refresh queued behind a regular one must stay forced.
+            pendingForceRefresh |= forceRefresh;
             pendingRefresh = true;
             LOG.debug("Schema extraction already running, will re-run after completion");
         }
@@ -117,7 +119,7 @@ public final class DataformTableSchemaServiceImpl implements DataformTableSchema
     }
 
     private void startTask(@NotNull CompiledGraph graph, boolean forceRefresh) {
-        new Task.Backgroundable(project, "Extracting Dataform table schemas…", false) {
+        new Task.Backgroundable(project, "Extracting Dataform table schemas…", true) {
             @Override
             public void run(@NotNull ProgressIndicator indicator) {
                 try {
@@ -137,9 +139,11 @@ public final class DataformTableSchemaServiceImpl implements DataformTableSchema
         modificationCount.incrementAndGet();
         if (pendingRefresh && pendingGraph != null) {
             CompiledGraph next = pendingGraph;
+            boolean force = pendingForceRefresh;
             pendingGraph = null;
             pendingRefresh = false;
-            refreshAsync(next);
+            pendingForceRefresh = false;
+            refreshAsync(next, force);
         }
     }
 
@@ -150,11 +154,8 @@ public final class DataformTableSchemaServiceImpl implements DataformTableSchema
         if (ctx == null) return;
 
         List<SortableAction> sorted = DataformTopologicalSorter.sort(graph);
-        List<SortableAction> toRefresh = identifyActionsToRefresh(sorted, forceRefresh);
-        logSkipped(sorted.size(), toRefresh.size());
-        if (!toRefresh.isEmpty()) {
-            List<List<SortableAction>> waves = computeWaves(toRefresh);
-            processAllWaves(waves, ctx, indicator);
+        if (!sorted.isEmpty()) {
+            processAllActions(sorted, ctx, indicator, forceRefresh);
         }
     }
 
@@ -178,45 +179,79 @@ public final class DataformTableSchemaServiceImpl implements DataformTableSchema
                 project.getService(BigQueryDryRunSchemaExtractor.class));
     }
 
-    private void processAllWaves(@NotNull List<List<SortableAction>> waves,
-                                 @NotNull ExtractionContext ctx,
-                                 @NotNull ProgressIndicator indicator) {
+    /**
+     * Starts each action once its upstream schemas are final, so they can be fingerprinted.
+     * Actions whose fingerprint matches the cached entry reuse the cached schema.
+     */
+    private void processAllActions(@NotNull List<SortableAction> actions,
+                                   @NotNull ExtractionContext ctx,
+                                   @NotNull ProgressIndicator indicator,
+                                   boolean forceRefresh) {
         Map<String, List<ColumnInfo>> resolvedInThisRun = new ConcurrentHashMap<>();
-        int total = waves.stream().mapToInt(List::size).sum();
+        int total = actions.size();
         AtomicInteger processed = new AtomicInteger(0);
-        for (List<SortableAction> wave : waves) {
-            if (indicator.isCanceled()) {
-                LOG.debug("Schema extraction cancelled");
-                persistStateFromCache();
-                return;
-            }
-            waveExtraction(ctx, indicator, resolvedInThisRun, wave, processed, total);
+        AtomicInteger unchanged = new AtomicInteger(0);
+        DryRunExecutor executor = new DryRunExecutor(DataformToolsSettings.getInstance().getSchemaDryRunConcurrency());
+        try {
+            executor.runGraph(actions,
+                    action -> action.target().getFullName(),
+                    action -> action.dependencyTargets().stream().map(Target::getFullName).toList(),
+                    action -> {
+                        if (indicator.isCanceled()) return;
+                        String fqn = action.target().getFullName();
+                        String fingerprint = fingerprint(action, resolvedInThisRun);
+                        DataformDasTable cached = tableCache.get(fqn);
+                        if (!forceRefresh && cached != null && fingerprint.equals(fingerprints.get(fqn))) {
+                            resolvedInThisRun.put(fqn, cached.getColumns());
+                            unchanged.incrementAndGet();
+                        } else {
+                            extractSchema(ctx, resolvedInThisRun, action, fingerprint);
+                        }
+                    },
+                    action -> indicator.setFraction((double) processed.incrementAndGet() / total));
+        } finally {
+            executor.shutdown();
         }
-        indicator.setFraction(1d);
         persistStateFromCache();
-        LOG.warn("Schema extraction complete: " + resolvedInThisRun.size() + "/" + processed.get() + " actions resolved");
-    }
-
-    private void waveExtraction(ExtractionContext ctx,
-                                ProgressIndicator indicator,
-                                Map<String, List<ColumnInfo>> resolvedInThisRun,
-                                List<SortableAction> wave,
-                                AtomicInteger processed,
-                                int total) {
-        wave.parallelStream().forEach(action -> {
-            extractSchema(ctx, resolvedInThisRun, action);
-            indicator.setFraction((double) processed.incrementAndGet() / total);
-        });
-
+        if (indicator.isCanceled() || Thread.currentThread().isInterrupted()) {
+            LOG.debug("Schema extraction cancelled");
+            return;
+        }
+        indicator.setFraction(1d);
+        LOG.warn("Schema extraction complete: " + resolvedInThisRun.size() + "/" + processed.get()
+                + " actions resolved, " + unchanged.get() + " unchanged");
     }
 
     private void extractSchema(ExtractionContext ctx,
                                @NotNull Map<String, List<ColumnInfo>> resolvedInThisRun,
-                               @NotNull SortableAction action) {
+                               @NotNull SortableAction action,
+                               @NotNull String fingerprint) {
         String fqn = action.target().getFullName();
         LOG.info("Resolving schema for: " + fqn);
         Optional<List<ColumnInfo>> result = computeSchema(action, ctx, resolvedInThisRun);
-        result.ifPresent(columns -> publishResult(action, columns, resolvedInThisRun));
+        result.ifPresent(columns -> publishResult(action, columns, fingerprint, resolvedInThisRun));
+    }
+
+    @NotNull
+    private String fingerprint(@NotNull SortableAction action,
+                               @NotNull Map<String, List<ColumnInfo>> resolvedInThisRun) {
+        List<String> statements = new ArrayList<>();
+        if (action.isTable()) {
+            statements.add("table");
+            statements.add(action.table().getQuery());
+            statements.addAll(PreOperationsFilter.keepReadOnly(action.table().getPreOps()));
+        } else if (action.isOperation()) {
+            statements.add("operation");
+            statements.addAll(action.operation().getQueries());
+        } else {
+            statements.add("declaration");
+            statements.add(action.target().getFullName());
+        }
+        Map<String, List<ColumnInfo>> upstreamSchemas = new HashMap<>();
+        for (Target dependency : action.dependencyTargets()) {
+            upstreamSchemas.put(dependency.getFullName(), resolvedInThisRun.get(dependency.getFullName()));
+        }
+        return SchemaFingerprint.of(statements, upstreamSchemas);
     }
 
 
@@ -228,6 +263,8 @@ public final class DataformTableSchemaServiceImpl implements DataformTableSchema
             if (action.isTable()) return extractTableSchema(action.table(), ctx, resolvedInThisRun);
             if (action.isOperation()) return extractOperationSchema(action.operation(), ctx);
             if (action.isDeclaration()) return extractDeclarationSchema(action.target().getFullName(), ctx);
+        } catch (DryRunRateLimitedException e) {
+            throw e;
         } catch (Exception e) {
             LOG.warn("Schema extraction failed for " + action.target().getFullName() + ": " + e.getMessage());
         }
@@ -270,11 +307,13 @@ public final class DataformTableSchemaServiceImpl implements DataformTableSchema
 
     private void publishResult(@NotNull SortableAction action,
                                @NotNull List<ColumnInfo> columns,
+                               @NotNull String fingerprint,
                                @NotNull Map<String, List<ColumnInfo>> resolvedInThisRun) {
         String fqn = action.target().getFullName();
         String fileName = getFileNameFromAction(action);
         DataformDasTable table = buildTable(action.target().getName(), columns, fileName);
         tableCache.put(fqn, table);
+        fingerprints.put(fqn, fingerprint);
         if (fileName != null) fileNames.put(fqn, fileName);
         resolvedInThisRun.put(fqn, columns);
         LOG.info("Resolved schema for " + fqn + ": " + columns.size() + " columns");
@@ -296,119 +335,6 @@ public final class DataformTableSchemaServiceImpl implements DataformTableSchema
         return LocalFileSystem.getInstance().findFileByPath(basePath + "/" + fileName);
     }
 
-    @NotNull
-    private List<List<SortableAction>> computeWaves(@NotNull List<SortableAction> actions) {
-        Map<String, Integer> levelByFqn = computeLevelByFqn(actions);
-        int maxLevel = levelByFqn.values().stream().mapToInt(Integer::intValue).max().orElse(0);
-
-        List<List<SortableAction>> waves = new ArrayList<>(maxLevel + 1);
-        for (int i = 0; i <= maxLevel; i++) waves.add(new ArrayList<>());
-
-        actions.forEach(a -> waves.get(levelByFqn.getOrDefault(a.target().getFullName(), 0)).add(a));
-
-        LOG.info("Computed " + (maxLevel + 1) + " wave(s) for " + actions.size() + " actions");
-        return waves.stream().filter(l -> !l.isEmpty()).collect(Collectors.toList());
-    }
-
-    @NotNull
-    private Map<String, Integer> computeLevelByFqn(@NotNull List<SortableAction> actions) {
-        Map<String, SortableAction> byFqn = actions.stream()
-                .collect(Collectors.toMap(a -> a.target().getFullName(), a -> a, (a, b) -> a));
-        Map<String, Integer> levels = new HashMap<>();
-        Set<String> fqns = byFqn.keySet();
-        actions.forEach(a -> resolveLevel(a, byFqn, fqns, levels, new HashSet<>()));
-        return levels;
-    }
-
-    private int resolveLevel(@NotNull SortableAction action,
-                             @NotNull Map<String, SortableAction> byFqn,
-                             @NotNull Set<String> knownFqns,
-                             @NotNull Map<String, Integer> levels,
-                             @NotNull Set<String> visiting) {
-        String fqn = action.target().getFullName();
-        if (levels.containsKey(fqn)) return levels.get(fqn);
-        if (!visiting.add(fqn)) return 0;
-
-        int maxDepLevel = action.dependencyTargets().stream()
-                .filter(dep -> knownFqns.contains(dep.getFullName()))
-                .mapToInt(dep -> resolveLevel(byFqn.get(dep.getFullName()), byFqn, knownFqns, levels, visiting))
-                .max()
-                .orElse(-1);
-
-        int level = maxDepLevel + 1;
-        levels.put(fqn, level);
-        visiting.remove(fqn);
-        return level;
-    }
-
-    @NotNull
-    private List<SortableAction> identifyActionsToRefresh(@NotNull List<SortableAction> allActions,
-                                                          boolean forceRefresh) {
-        if (forceRefresh) {
-            LOG.info("Force refresh enabled, refreshing all actions");
-            return allActions;
-        }
-        String basePath = project.getBasePath();
-        if (basePath == null) {
-            LOG.warn("Project base path is null, refreshing all actions");
-            return allActions;
-        }
-        Set<String> modifiedFqns = collectModifiedFqns(allActions, basePath);
-        Set<String> affectedFqns = propagateToDependents(modifiedFqns, allActions);
-        return allActions.stream()
-                .filter(a -> affectedFqns.contains(a.target().getFullName()))
-                .collect(Collectors.toList());
-    }
-
-    @NotNull
-    private Set<String> collectModifiedFqns(@NotNull List<SortableAction> actions,
-                                            @NotNull String basePath) {
-        Set<String> modified = new HashSet<>();
-        for (SortableAction action : actions) {
-            String fqn = action.target().getFullName();
-            String fileName = getFileNameFromAction(action);
-            if (isModified(fqn, fileName, basePath)) modified.add(fqn);
-        }
-        return modified;
-    }
-
-    private boolean isModified(@NotNull String fqn, @Nullable String fileName, @NotNull String basePath) {
-        if (fileName == null) return !tableCache.containsKey(fqn);
-        long currentModTime = getFileModificationTime(basePath, fileName);
-        fileModificationTimes.put(fqn, currentModTime);
-        Long cached = getCachedModTime(fqn);
-        return cached == null || cached < currentModTime;
-    }
-
-    @NotNull
-    private Set<String> propagateToDependents(@NotNull Set<String> modifiedFqns,
-                                              @NotNull List<SortableAction> allActions) {
-        Map<String, Set<String>> reverseDeps = buildReverseDependencies(allActions);
-        Set<String> affected = new HashSet<>(modifiedFqns);
-        Queue<String> queue = new LinkedList<>(modifiedFqns);
-
-        while (!queue.isEmpty()) {
-            reverseDeps.getOrDefault(queue.poll(), Set.of()).stream()
-                    .filter(affected::add)
-                    .forEach(queue::add);
-        }
-
-        logPropagation(modifiedFqns.size(), affected.size());
-        return affected;
-    }
-
-    @NotNull
-    private Map<String, Set<String>> buildReverseDependencies(@NotNull List<SortableAction> actions) {
-        Map<String, Set<String>> reverse = new HashMap<>();
-        for (SortableAction action : actions) {
-            String fqn = action.target().getFullName();
-            action.dependencyTargets().forEach(dep ->
-                    reverse.computeIfAbsent(dep.getFullName(), k -> new HashSet<>()).add(fqn)
-            );
-        }
-        return reverse;
-    }
-
     private void restoreCacheFromState(@NotNull State state) {
         if (state.schemaCacheJson == null || state.schemaCacheJson.isBlank()) return;
         try {
@@ -416,16 +342,19 @@ public final class DataformTableSchemaServiceImpl implements DataformTableSchema
             if (loaded == null) return;
             tableCache.clear();
             fileNames.clear();
+            fingerprints.clear();
             loaded.forEach((fqn, entry) -> {
                 String tableName = extractTableName(fqn);
                 tableCache.put(fqn, buildTable(tableName, entry.columns(), entry.fileName()));
                 if (entry.fileName() != null) fileNames.put(fqn, entry.fileName());
+                if (entry.fingerprint() != null) fingerprints.put(fqn, entry.fingerprint());
             });
             LOG.info("Restored " + tableCache.size() + " schemas from persistent state");
         } catch (Exception e) {
             LOG.warn("Failed to deserialize schema cache from state: " + e.getMessage());
             tableCache.clear();
             fileNames.clear();
+            fingerprints.clear();
             this.currentState = new State();
         }
     }
@@ -442,26 +371,13 @@ public final class DataformTableSchemaServiceImpl implements DataformTableSchema
                         Map.Entry::getKey,
                         e -> new SchemaCacheEntry(
                                 e.getValue().getColumns(),
-                                fileModificationTimes.getOrDefault(e.getKey(), Long.MAX_VALUE),
+                                fingerprints.get(e.getKey()),
                                 fileNames.get(e.getKey()))
                 ));
         currentState.schemaCacheJson = GSON.toJson(toSerialize);
         LOG.info("Persisted " + toSerialize.size() + " schemas to state");
     }
 
-    @Nullable
-    private Long getCachedModTime(@NotNull String fqn) {
-        if (currentState.schemaCacheJson == null) return null;
-        try {
-            Map<String, SchemaCacheEntry> parsed = GSON.fromJson(currentState.schemaCacheJson, CACHE_TYPE);
-            if (parsed == null) return null;
-            SchemaCacheEntry entry = parsed.get(fqn);
-            return entry != null ? entry.lastModified() : null;
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
     @Nullable
     private String getFileNameFromAction(@NotNull SortableAction action) {
         if (action.isTable()) return action.table().getFileName();
@@ -470,16 +386,6 @@ public final class DataformTableSchemaServiceImpl implements DataformTableSchema
         return null;
     }
 
-    private long getFileModificationTime(@NotNull String basePath, @NotNull String fileName) {
-        try {
-            Path filePath = Paths.get(basePath, fileName);
-            if (Files.exists(filePath)) return Files.getLastModifiedTime(filePath).toMillis();
-        } catch (Exception e) {
-            LOG.debug("Failed to get modification time for " + fileName + ": " + e.getMessage());
-        }
-        return System.currentTimeMillis();
-    }
-
     private boolean hasValidCredentials() {
         try {
             return io.github.rejeb.dataform.language.gcp.auth.DataformCredentialsService
@@ -489,16 +395,4 @@ public final class DataformTableSchemaServiceImpl implements DataformTableSchema
             return false;
         }
     }
-
-    private void logSkipped(int total, int toRefresh) {
-        int skipped = total - toRefresh;
-        if (skipped > 0) LOG.info("Skipping " + skipped + " unchanged actions, refreshing " + toRefresh);
-    }
-
-    private void logPropagation(int modifiedCount, int affectedCount) {
-        if (affectedCount > modifiedCount) {
-            LOG.info("Propagated refresh to " + (affectedCount - modifiedCount)
-                    + " dependent actions (" + modifiedCount + " directly modified)");
-        }
-    }
-}
\ No newline at end of file
+}
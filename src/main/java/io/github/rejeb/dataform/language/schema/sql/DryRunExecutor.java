@@ -0,0 +1,337 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.schema.sql;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Runs the dry runs of a schema extraction on a dedicated bounded pool instead of the common
+ * ForkJoinPool, in dependency order. Concurrency adapts to BigQuery rate limiting: it is halved and the dry run
+ * retried after an exponential backoff when a {@link DryRunRateLimitedException} is raised,
+ * then grows back by one after a full window of successful dry runs.
+ */
+final class DryRunExecutor {
+
+    private static final Logger LOG = Logger.getInstance(DryRunExecutor.class);
+
+    private static final long INITIAL_BACKOFF_MS = 1_000;
+    private static final long MAX_BACKOFF_MS = 30_000;
+    private static final int MAX_ATTEMPTS = 6;
+
+    private final ExecutorService executor;
+    private final int maxConcurrency;
+    private final Sleeper sleeper;
+    private final LongSupplier nanoClock;
+    private final Object lock = new Object();
+    private int limit;
+    private int inFlight;
+    private int successesSinceIncrease;
+    private long lastDecreaseNanos;
+
+    DryRunExecutor(int maxConcurrency) {
+        this(AppExecutorUtil.createBoundedApplicationPoolExecutor("Dataform Schema Extraction", maxConcurrency),
+                maxConcurrency, Thread::sleep, System::nanoTime);
+    }
+
+    DryRunExecutor(@NotNull ExecutorService executor,
+                   int maxConcurrency,
+                   @NotNull Sleeper sleeper,
+                   @NotNull LongSupplier nanoClock) {
+        this.executor = executor;
+        this.maxConcurrency = maxConcurrency;
+        this.limit = maxConcurrency;
+        this.sleeper = sleeper;
+        this.nanoClock = nanoClock;
+        this.lastDecreaseNanos = nanoClock.getAsLong() - TimeUnit.MILLISECONDS.toNanos(INITIAL_BACKOFF_MS);
+    }
+
+    /**
+     * Runs {@code task} for every item and waits for all of them. Each item starts as soon as the
+     * items it depends on have completed, and ready items are started longest remaining path
+     * first, so the total time approaches the critical path of the graph. Returns early, leaving
+     * the remaining items unprocessed, when the calling thread is interrupted: running dry runs
+     * are interrupted and no further item is started.
+     *
+     * @param keyOf          unique key of an item
+     * @param dependenciesOf keys of the items an item depends on; unknown keys are ignored
+     * @param onFinished     called once per item after its last attempt, whether it succeeded,
+     *                       failed or was given up after {@link #MAX_ATTEMPTS} rate-limited attempts
+     */
+    <T> void runGraph(@NotNull List<T> items,
+                      @NotNull Function<T, String> keyOf,
+                      @NotNull Function<T, Collection<String>> dependenciesOf,
+                      @NotNull Consumer<T> task,
+                      @NotNull Consumer<T> onFinished) {
+        if (items.isEmpty()) return;
+        long start = System.nanoTime();
+        Schedule<T> schedule = new Schedule<>(items, keyOf, dependenciesOf);
+        int workers = Math.min(maxConcurrency, items.size());
+        List<Future<?>> futures = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            futures.add(executor.submit(() -> {
+                work(schedule, task, onFinished);
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                LOG.warn("Schema extraction worker failed", e.getCause());
+            } catch (InterruptedException e) {
+                futures.forEach(f -> f.cancel(true));
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        long elapsedMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        LOG.info(String.format("Schema extraction: %d action(s) in %d ms (%.1f/s, critical path %d, concurrency %d/%d)",
+                items.size(), elapsedMs, items.size() * 1000d / elapsedMs, schedule.criticalPath(),
+                currentLimit(), maxConcurrency));
+    }
+
+    private <T> void work(@NotNull Schedule<T> schedule,
+                          @NotNull Consumer<T> task,
+                          @NotNull Consumer<T> onFinished) throws InterruptedException {
+        while (!Thread.currentThread().isInterrupted()) {
+            int next;
+            synchronized (schedule) {
+                while ((next = schedule.poll()) < 0) {
+                    if (schedule.isDone()) return;
+                    schedule.wait();
+                }
+            }
+            try {
+                runWithBackoff(schedule.item(next), task);
+            } catch (RuntimeException e) {
+                LOG.warn("Schema dry run failed", e);
+            } finally {
+                onFinished.accept(schedule.item(next));
+                synchronized (schedule) {
+                    schedule.complete(next);
+                    schedule.notifyAll();
+                }
+            }
+        }
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> void runWithBackoff(@NotNull T item, @NotNull Consumer<T> task) throws InterruptedException {
+        long backoffMs = INITIAL_BACKOFF_MS;
+        for (int attempt = 1; ; attempt++) {
+            acquire();
+            try {
+                task.accept(item);
+                onSuccess();
+                return;
+            } catch (DryRunRateLimitedException e) {
+                onRateLimited();
+                if (attempt == MAX_ATTEMPTS) {
+                    LOG.warn("Schema dry run still rate limited after " + attempt + " attempts, giving up: "
+                            + e.getMessage());
+                    return;
+                }
+            } finally {
+                release();
+            }
+            sleeper.sleep(backoffMs + ThreadLocalRandom.current().nextLong(backoffMs / 2 + 1));
+            backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+        }
+    }
+
+    private void acquire() throws InterruptedException {
+        synchronized (lock) {
+            while (inFlight >= limit) {
+                lock.wait();
+            }
+            inFlight++;
+        }
+    }
+
+    private void release() {
+        synchronized (lock) {
+            inFlight--;
+            lock.notifyAll();
+        }
+    }
+
+    private void onSuccess() {
+        synchronized (lock) {
+            if (limit < maxConcurrency && ++successesSinceIncrease >= limit) {
+                limit++;
+                successesSinceIncrease = 0;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private void onRateLimited() {
+        synchronized (lock) {
+            long now = nanoClock.getAsLong();
+            // Dry runs already in flight fail together: only the first one of a burst counts.
+            if (now - lastDecreaseNanos < TimeUnit.MILLISECONDS.toNanos(INITIAL_BACKOFF_MS)) return;
+            lastDecreaseNanos = now;
+            limit = Math.max(1, limit / 2);
+            successesSinceIncrease = 0;
+            LOG.info("BigQuery rate limit hit, lowering schema dry-run concurrency to " + limit);
+        }
+    }
+
+    int currentLimit() {
+        synchronized (lock) {
+            return limit;
+        }
+    }
+
+    @FunctionalInterface
+    interface Sleeper {
+        void sleep(long millis) throws InterruptedException;
+    }
+
+    /**
+     * Dependency bookkeeping of one {@link #runGraph} call. Not thread-safe: callers synchronize
+     * on the instance. Items caught in a dependency cycle are released up front and run with
+     * whatever upstream schemas are available, as the former level-based ordering did.
+     */
+    private static final class Schedule<T> {
+        private final List<T> items;
+        private final int[] pendingDependencies;
+        private final List<List<Integer>> dependents;
+        private final int[] height;
+        private final PriorityQueue<Integer> ready;
+        private int completed;
+
+        private Schedule(@NotNull List<T> items,
+                         @NotNull Function<T, String> keyOf,
+                         @NotNull Function<T, Collection<String>> dependenciesOf) {
+            int size = items.size();
+            this.items = items;
+            this.pendingDependencies = new int[size];
+            this.dependents = new ArrayList<>(size);
+            this.height = new int[size];
+
+            Map<String, Integer> indexByKey = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                indexByKey.putIfAbsent(keyOf.apply(items.get(i)), i);
+                dependents.add(new ArrayList<>());
+            }
+            for (int i = 0; i < size; i++) {
+                Set<Integer> upstream = new HashSet<>();
+                for (String key : dependenciesOf.apply(items.get(i))) {
+                    Integer j = indexByKey.get(key);
+                    if (j != null && j != i && upstream.add(j)) {
+                        dependents.get(j).add(i);
+                        pendingDependencies[i]++;
+                    }
+                }
+            }
+
+            List<Integer> order = topologicalOrder();
+            boolean[] ordered = new boolean[size];
+            order.forEach(i -> ordered[i] = true);
+            for (int i = 0; i < size; i++) {
+                if (!ordered[i]) {
+                    pendingDependencies[i] = 0;
+                    height[i] = 1;
+                }
+            }
+            for (int k = order.size() - 1; k >= 0; k--) {
+                int i = order.get(k);
+                int longest = 0;
+                for (int dependent : dependents.get(i)) {
+                    longest = Math.max(longest, height[dependent]);
+                }
+                height[i] = longest + 1;
+            }
+
+            this.ready = new PriorityQueue<>(
+                    Comparator.<Integer>comparingInt(i -> height[i]).reversed().thenComparingInt(i -> i));
+            for (int i = 0; i < size; i++) {
+                if (pendingDependencies[i] == 0) ready.add(i);
+            }
+        }
+
+        @NotNull
+        private List<Integer> topologicalOrder() {
+            int[] remaining = pendingDependencies.clone();
+            Deque<Integer> queue = new ArrayDeque<>();
+            for (int i = 0; i < remaining.length; i++) {
+                if (remaining[i] == 0) queue.add(i);
+            }
+            List<Integer> order = new ArrayList<>(remaining.length);
+            while (!queue.isEmpty()) {
+                int i = queue.poll();
+                order.add(i);
+                for (int dependent : dependents.get(i)) {
+                    if (--remaining[dependent] == 0) queue.add(dependent);
+                }
+            }
+            return order;
+        }
+
+        private T item(int index) {
+            return items.get(index);
+        }
+
+        private int poll() {
+            Integer next = ready.poll();
+            return next != null ? next : -1;
+        }
+
+        private void complete(int index) {
+            completed++;
+            for (int dependent : dependents.get(index)) {
+                if (--pendingDependencies[dependent] == 0) ready.add(dependent);
+            }
+        }
+
+        private boolean isDone() {
+            return completed == items.size();
+        }
+
+        private int criticalPath() {
+            int longest = 0;
+            for (int h : height) longest = Math.max(longest, h);
+            return longest;
+        }
+    }
+}
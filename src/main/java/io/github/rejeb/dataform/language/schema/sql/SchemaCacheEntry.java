@@ -21,9 +21,15 @@ import io.github.rejeb.dataform.language.schema.sql.model.ColumnInfo;
 import java.io.Serializable;
 import java.util.List;
 
+/**
+ * Persisted schema of one action.
+ *
+ * @param fingerprint {@link SchemaFingerprint} of the dry run that produced {@code columns};
+ *                    {@code null} for entries written before fingerprints existed
+ */
 public record SchemaCacheEntry(
         List<ColumnInfo> columns,
-        long lastModified,
+        String fingerprint,
         String fileName
 ) implements Serializable {
 }
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.schema.sql;
+
+import io.github.rejeb.dataform.language.schema.sql.model.ColumnInfo;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Content hash of everything a schema dry run depends on: the SQL statements of the action and
+ * the schemas of its upstream actions, which the dry-run query substitutes as CTEs. Equal
+ * fingerprints yield the same schema, whatever happened to the file timestamps.
+ */
+public final class SchemaFingerprint {
+
+    private SchemaFingerprint() {
+    }
+
+    /**
+     * @param statements      SQL the dry run is built from, in order
+     * @param upstreamSchemas schema of each dependency by full name, {@code null} when unknown
+     */
+    @NotNull
+    public static String of(@NotNull List<String> statements,
+                            @NotNull Map<String, List<ColumnInfo>> upstreamSchemas) {
+        MessageDigest digest = sha256();
+        update(digest, statements.size());
+        statements.forEach(statement -> update(digest, statement));
+        update(digest, upstreamSchemas.size());
+        new TreeMap<>(upstreamSchemas).forEach((fqn, columns) -> {
+            update(digest, fqn);
+            update(digest, columns);
+        });
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void update(@NotNull MessageDigest digest, @Nullable List<ColumnInfo> columns) {
+        if (columns == null) {
+            update(digest, -1);
+            return;
+        }
+        update(digest, columns.size());
+        for (ColumnInfo column : columns) {
+            update(digest, column.name());
+            update(digest, column.type());
+            update(digest, column.mode());
+            update(digest, column.description());
+            update(digest, column.subFields());
+        }
+    }
+
+    private static void update(@NotNull MessageDigest digest, @Nullable String value) {
+        if (value == null) {
+            update(digest, -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        update(digest, bytes.length);
+        digest.update(bytes);
+    }
+
+    private static void update(@NotNull MessageDigest digest, int value) {
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(value).array());
+    }
+
+    @NotNull
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
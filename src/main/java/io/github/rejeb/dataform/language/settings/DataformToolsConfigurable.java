@@ -41,17 +41,32 @@ public class DataformToolsConfigurable implements Configurable {
         return !panel.getCoreInstallPath().equals(service.getCoreInstallPath())
                 || !panel.getSqlfluffExecutablePath().equals(service.getSqlfluffExecutablePath())
                 || !panel.getSqlfluffConfigPath().equals(service.getSqlfluffConfigPath())
-                || !panel.getSqlfluffExtraArgs().equals(service.getSqlfluffExtraArgs());
+                || !panel.getSqlfluffExtraArgs().equals(service.getSqlfluffExtraArgs())
+                || panel.getSchemaDryRunConcurrency() != service.getSchemaDryRunConcurrency()
+                || panel.isStorageReadEnabled() != service.isStorageReadEnabled()
+                || panel.getStorageReadMaxRows() != service.getStorageReadMaxRows()
+                || panel.getQueryResultsMemoryMb() != service.getQueryResultsMemoryMb()
+                || panel.isQueryBytesGuardEnabled() != service.isQueryBytesGuardEnabled()
+                || panel.getQueryBytesBudgetGib() != service.getQueryBytesBudgetGib()
+                || panel.getWorkspaceTransferConcurrency() != service.getWorkspaceTransferConcurrency();
     }
 
     @Override
     public void apply() {
-        DataformToolsSettings.getInstance().update(
+        DataformToolsSettings service = DataformToolsSettings.getInstance();
+        service.update(
                 panel.getCoreInstallPath(),
                 panel.getSqlfluffExecutablePath(),
                 panel.getSqlfluffConfigPath(),
                 panel.getSqlfluffExtraArgs()
         );
+        service.setSchemaDryRunConcurrency(panel.getSchemaDryRunConcurrency());
+        service.setStorageReadEnabled(panel.isStorageReadEnabled());
+        service.setStorageReadMaxRows(panel.getStorageReadMaxRows());
+        service.setQueryResultsMemoryMb(panel.getQueryResultsMemoryMb());
+        service.setQueryBytesGuardEnabled(panel.isQueryBytesGuardEnabled());
+        service.setQueryBytesBudgetGib(panel.getQueryBytesBudgetGib());
+        service.setWorkspaceTransferConcurrency(panel.getWorkspaceTransferConcurrency());
     }
 
     @Override
@@ -61,5 +76,12 @@ public class DataformToolsConfigurable implements Configurable {
         panel.setSqlfluffExecutablePath(service.getSqlfluffExecutablePath());
         panel.setSqlfluffConfigPath(service.getSqlfluffConfigPath());
         panel.setSqlfluffExtraArgs(service.getSqlfluffExtraArgs());
+        panel.setSchemaDryRunConcurrency(service.getSchemaDryRunConcurrency());
+        panel.setStorageReadEnabled(service.isStorageReadEnabled());
+        panel.setStorageReadMaxRows(service.getStorageReadMaxRows());
+        panel.setQueryResultsMemoryMb(service.getQueryResultsMemoryMb());
+        panel.setQueryBytesGuardEnabled(service.isQueryBytesGuardEnabled());
+        panel.setQueryBytesBudgetGib(service.getQueryBytesBudgetGib());
+        panel.setWorkspaceTransferConcurrency(service.getWorkspaceTransferConcurrency());
     }
 }
@@ -21,6 +21,17 @@ import org.jetbrains.annotations.NotNull;
 
 public interface DataformToolsSettings {
 
+    int DEFAULT_SCHEMA_DRY_RUN_CONCURRENCY = 8;
+    int MAX_SCHEMA_DRY_RUN_CONCURRENCY = 64;
+    int DEFAULT_STORAGE_READ_MAX_ROWS = 1_000_000;
+    int MAX_STORAGE_READ_MAX_ROWS = 20_000_000;
+    int DEFAULT_QUERY_RESULTS_MEMORY_MB = 512;
+    int MAX_QUERY_RESULTS_MEMORY_MB = 16_384;
+    int DEFAULT_QUERY_BYTES_BUDGET_GIB = 100;
+    int MAX_QUERY_BYTES_BUDGET_GIB = 1_048_576;
+    int DEFAULT_WORKSPACE_TRANSFER_CONCURRENCY = 8;
+    int MAX_WORKSPACE_TRANSFER_CONCURRENCY = 32;
+
     /**
      * Returns the singleton application-level instance.
      */
@@ -34,7 +45,7 @@ public interface DataformToolsSettings {
     @NotNull String getCoreInstallPath();
 
     /**
-     * Updates all settings at once.
+     * Updates the Dataform and SQLFluff paths at once.
      */
     void update(
             @NotNull String coreInstallPath,
@@ -56,4 +67,76 @@ public interface DataformToolsSettings {
      * Returns additional SQLFluff CLI arguments.
      */
     @NotNull String getSqlfluffExtraArgs();
+
+    /**
+     * Returns the maximum number of BigQuery dry runs in flight during schema extraction.
+     */
+    int getSchemaDryRunConcurrency();
+
+    /**
+     * Sets the maximum number of BigQuery dry runs in flight during schema extraction.
+     */
+    void setSchemaDryRunConcurrency(int schemaDryRunConcurrency);
+
+    /**
+     * Returns whether query results are downloaded through the BigQuery Storage Read API.
+     */
+    boolean isStorageReadEnabled();
+
+    /**
+     * Sets whether query results are downloaded through the BigQuery Storage Read API.
+     */
+    void setStorageReadEnabled(boolean storageReadEnabled);
+
+    /**
+     * Returns the maximum number of rows downloaded through the BigQuery Storage Read API.
+     */
+    int getStorageReadMaxRows();
+
+    /**
+     * Sets the maximum number of rows downloaded through the BigQuery Storage Read API.
+     */
+    void setStorageReadMaxRows(int storageReadMaxRows);
+
+    /**
+     * Returns the approximate memory, in MiB, that cached query result rows may use before the
+     * least recently viewed results are trimmed or evicted.
+     */
+    int getQueryResultsMemoryMb();
+
+    /**
+     * Sets the approximate memory, in MiB, that cached query result rows may use.
+     */
+    void setQueryResultsMemoryMb(int queryResultsMemoryMb);
+
+    /**
+     * Returns whether queries run from the IDE are dry run first and must be confirmed when
+     * they would scan more than {@link #getQueryBytesBudgetGib()}.
+     */
+    boolean isQueryBytesGuardEnabled();
+
+    /**
+     * Sets whether queries must be confirmed when they would scan more than the budget.
+     */
+    void setQueryBytesGuardEnabled(boolean queryBytesGuardEnabled);
+
+    /**
+     * Returns the bytes, in GiB, a query may scan without confirmation.
+     */
+    int getQueryBytesBudgetGib();
+
+    /**
+     * Sets the bytes, in GiB, a query may scan without confirmation.
+     */
+    void setQueryBytesBudgetGib(int queryBytesBudgetGib);
+
+    /**
+     * Returns the maximum number of file reads or writes in flight against a Dataform workspace.
+     */
+    int getWorkspaceTransferConcurrency();
+
+    /**
+     * Sets the maximum number of file reads or writes in flight against a Dataform workspace.
+     */
+    void setWorkspaceTransferConcurrency(int workspaceTransferConcurrency);
 }
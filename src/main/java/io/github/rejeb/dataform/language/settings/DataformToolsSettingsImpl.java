@@ -61,6 +61,76 @@ public final class DataformToolsSettingsImpl
         return state.sqlfluffExtraArgs;
     }
 
+    @Override
+    public int getSchemaDryRunConcurrency() {
+        return Math.max(1, Math.min(state.schemaDryRunConcurrency, MAX_SCHEMA_DRY_RUN_CONCURRENCY));
+    }
+
+    @Override
+    public void setSchemaDryRunConcurrency(int schemaDryRunConcurrency) {
+        state.schemaDryRunConcurrency = schemaDryRunConcurrency;
+    }
+
+    @Override
+    public boolean isStorageReadEnabled() {
+        return state.storageReadEnabled;
+    }
+
+    @Override
+    public void setStorageReadEnabled(boolean storageReadEnabled) {
+        state.storageReadEnabled = storageReadEnabled;
+    }
+
+    @Override
+    public int getStorageReadMaxRows() {
+        return Math.max(1, Math.min(state.storageReadMaxRows, MAX_STORAGE_READ_MAX_ROWS));
+    }
+
+    @Override
+    public void setStorageReadMaxRows(int storageReadMaxRows) {
+        state.storageReadMaxRows = storageReadMaxRows;
+    }
+
+    @Override
+    public int getQueryResultsMemoryMb() {
+        return Math.max(1, Math.min(state.queryResultsMemoryMb, MAX_QUERY_RESULTS_MEMORY_MB));
+    }
+
+    @Override
+    public void setQueryResultsMemoryMb(int queryResultsMemoryMb) {
+        state.queryResultsMemoryMb = queryResultsMemoryMb;
+    }
+
+    @Override
+    public boolean isQueryBytesGuardEnabled() {
+        return state.queryBytesGuardEnabled;
+    }
+
+    @Override
+    public void setQueryBytesGuardEnabled(boolean queryBytesGuardEnabled) {
+        state.queryBytesGuardEnabled = queryBytesGuardEnabled;
+    }
+
+    @Override
+    public int getQueryBytesBudgetGib() {
+        return Math.max(1, Math.min(state.queryBytesBudgetGib, MAX_QUERY_BYTES_BUDGET_GIB));
+    }
+
+    @Override
+    public void setQueryBytesBudgetGib(int queryBytesBudgetGib) {
+        state.queryBytesBudgetGib = queryBytesBudgetGib;
+    }
+
+    @Override
+    public int getWorkspaceTransferConcurrency() {
+        return Math.max(1, Math.min(state.workspaceTransferConcurrency, MAX_WORKSPACE_TRANSFER_CONCURRENCY));
+    }
+
+    @Override
+    public void setWorkspaceTransferConcurrency(int workspaceTransferConcurrency) {
+        state.workspaceTransferConcurrency = workspaceTransferConcurrency;
+    }
+
     @Override
     public void update(@NotNull String coreInstallPath,
                        @NotNull String sqlfluffExecutablePath,
@@ -45,6 +45,25 @@ public final class DataformToolsSettingsPanel {
     private final TextFieldWithBrowseButton sqlfluffExecutableField = new TextFieldWithBrowseButton();
     private final TextFieldWithBrowseButton sqlfluffConfigField = new TextFieldWithBrowseButton();
     private final JTextField sqlfluffArgsField = new JTextField();
+    private final JSpinner   dryRunConcurrencySpinner = new JSpinner(new SpinnerNumberModel(
+            DataformToolsSettings.DEFAULT_SCHEMA_DRY_RUN_CONCURRENCY, 1,
+            DataformToolsSettings.MAX_SCHEMA_DRY_RUN_CONCURRENCY, 1));
+    private final JCheckBox  storageReadCheckBox = new JCheckBox(
+            "Download query results with the BigQuery Storage Read API");
+    private final JSpinner   storageReadMaxRowsSpinner = new JSpinner(new SpinnerNumberModel(
+            DataformToolsSettings.DEFAULT_STORAGE_READ_MAX_ROWS, 1,
+            DataformToolsSettings.MAX_STORAGE_READ_MAX_ROWS, 100_000));
+    private final JSpinner   resultsMemorySpinner = new JSpinner(new SpinnerNumberModel(
+            DataformToolsSettings.DEFAULT_QUERY_RESULTS_MEMORY_MB, 1,
+            DataformToolsSettings.MAX_QUERY_RESULTS_MEMORY_MB, 64));
+    private final JCheckBox  bytesGuardCheckBox = new JCheckBox(
+            "Estimate scanned bytes with a dry run and confirm large queries");
+    private final JSpinner   bytesBudgetSpinner = new JSpinner(new SpinnerNumberModel(
+            DataformToolsSettings.DEFAULT_QUERY_BYTES_BUDGET_GIB, 1,
+            DataformToolsSettings.MAX_QUERY_BYTES_BUDGET_GIB, 10));
+    private final JSpinner   transferConcurrencySpinner = new JSpinner(new SpinnerNumberModel(
+            DataformToolsSettings.DEFAULT_WORKSPACE_TRANSFER_CONCURRENCY, 1,
+            DataformToolsSettings.MAX_WORKSPACE_TRANSFER_CONCURRENCY, 1));
     private final JButton    installButton    = new JButton("Install Dataform CLI & Core");
     private final JTextPane  statusPane       = buildStatusPane();
     private final JScrollPane statusScrollPane = buildStatusScrollPane();
@@ -92,12 +111,30 @@ public final class DataformToolsSettingsPanel {
                 .addLabeledComponent(new JBLabel("SQLFluff extra args"), new JSeparator())
                 .addComponent(sqlfluffArgsField, 10)
                 .addVerticalGap(10)
+                .addLabeledComponent(new JBLabel("Parallel BigQuery dry runs for schema extraction"), new JSeparator())
+                .addComponent(dryRunConcurrencySpinner, 10)
+                .addVerticalGap(10)
+                .addLabeledComponent(new JBLabel("Query results"), new JSeparator())
+                .addComponent(storageReadCheckBox, 10)
+                .addLabeledComponent("Maximum rows downloaded:", storageReadMaxRowsSpinner, 5)
+                .addLabeledComponent("Memory kept for results (MiB):", resultsMemorySpinner, 5)
+                .addComponent(bytesGuardCheckBox, 5)
+                .addLabeledComponent("Confirm queries scanning more than (GiB):", bytesBudgetSpinner, 5)
+                .addVerticalGap(10)
+                .addLabeledComponent(new JBLabel("GCP workspaces"), new JSeparator())
+                .addLabeledComponent("Parallel file reads and writes:", transferConcurrencySpinner, 10)
+                .addVerticalGap(10)
                 .addComponent(buttonRow)
                 .addVerticalGap(5)
                 .addComponent(statusScrollPane)
                 .addComponentFillVertically(new JPanel(), 0)
                 .getPanel();
 
+        storageReadCheckBox.addActionListener(e ->
+                storageReadMaxRowsSpinner.setEnabled(storageReadCheckBox.isSelected()));
+        bytesGuardCheckBox.addActionListener(e ->
+                bytesBudgetSpinner.setEnabled(bytesGuardCheckBox.isSelected()));
+
         refreshNodeJsState();
     }
 
@@ -259,4 +296,24 @@ public final class DataformToolsSettingsPanel {
     public void    setSqlfluffExecutablePath(String path) { sqlfluffExecutableField.setText(path); }
     public void    setSqlfluffConfigPath(String path) { sqlfluffConfigField.setText(path); }
     public void    setSqlfluffExtraArgs(String args) { sqlfluffArgsField.setText(args); }
+    public int     getSchemaDryRunConcurrency() { return (Integer) dryRunConcurrencySpinner.getValue(); }
+    public void    setSchemaDryRunConcurrency(int concurrency) { dryRunConcurrencySpinner.setValue(concurrency); }
+    public boolean isStorageReadEnabled() { return storageReadCheckBox.isSelected(); }
+    public void    setStorageReadEnabled(boolean enabled) {
+        storageReadCheckBox.setSelected(enabled);
+        storageReadMaxRowsSpinner.setEnabled(enabled);
+    }
+    public int     getStorageReadMaxRows() { return (Integer) storageReadMaxRowsSpinner.getValue(); }
+    public void    setStorageReadMaxRows(int maxRows) { storageReadMaxRowsSpinner.setValue(maxRows); }
+    public int     getQueryResultsMemoryMb() { return (Integer) resultsMemorySpinner.getValue(); }
+    public void    setQueryResultsMemoryMb(int megabytes) { resultsMemorySpinner.setValue(megabytes); }
+    public boolean isQueryBytesGuardEnabled() { return bytesGuardCheckBox.isSelected(); }
+    public void    setQueryBytesGuardEnabled(boolean enabled) {
+        bytesGuardCheckBox.setSelected(enabled);
+        bytesBudgetSpinner.setEnabled(enabled);
+    }
+    public int     getQueryBytesBudgetGib() { return (Integer) bytesBudgetSpinner.getValue(); }
+    public void    setQueryBytesBudgetGib(int gib) { bytesBudgetSpinner.setValue(gib); }
+    public int     getWorkspaceTransferConcurrency() { return (Integer) transferConcurrencySpinner.getValue(); }
+    public void    setWorkspaceTransferConcurrency(int concurrency) { transferConcurrencySpinner.setValue(concurrency); }
 }
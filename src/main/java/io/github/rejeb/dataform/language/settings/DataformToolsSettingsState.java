@@ -21,4 +21,11 @@ public final class DataformToolsSettingsState {
     public String sqlfluffExecutablePath = "";
     public String sqlfluffConfigPath = "";
     public String sqlfluffExtraArgs = "";
+    public int schemaDryRunConcurrency = DataformToolsSettings.DEFAULT_SCHEMA_DRY_RUN_CONCURRENCY;
+    public boolean storageReadEnabled = false;
+    public int storageReadMaxRows = DataformToolsSettings.DEFAULT_STORAGE_READ_MAX_ROWS;
+    public int queryResultsMemoryMb = DataformToolsSettings.DEFAULT_QUERY_RESULTS_MEMORY_MB;
+    public boolean queryBytesGuardEnabled = false;
+    public int queryBytesBudgetGib = DataformToolsSettings.DEFAULT_QUERY_BYTES_BUDGET_GIB;
+    public int workspaceTransferConcurrency = DataformToolsSettings.DEFAULT_WORKSPACE_TRANSFER_CONCURRENCY;
 }
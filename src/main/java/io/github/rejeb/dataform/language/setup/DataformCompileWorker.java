@@ -0,0 +1,323 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.setup;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.intellij.execution.configurations.GeneralCommandLine;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Long-lived Node.js process that keeps the Dataform CLI and core library loaded between
+ * compilations. Requests are exchanged as newline-delimited JSON on stdin/stdout
+ * (see {@code /dataform/compile-worker.js}).
+ * <p>
+ * The worker is restarted when it crashes or when the installed CLI or core version changes,
+ * shut down after {@link #IDLE_TIMEOUT_MS} without
+ * requests, and disabled for the rest of the session once it fails {@link #MAX_FAILURES}
+ * times in a row or reports that the installed CLI has no usable compile API, until another
+ * version is installed. Callers fall
+ * back to the one-shot {@code dataform compile --json} command whenever
+ * {@link #compile(String, Path, long)} returns {@code false}.
+ */
+final class DataformCompileWorker implements Disposable {
+
+    private static final Logger LOG = Logger.getInstance(DataformCompileWorker.class);
+
+    private static final long IDLE_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(10);
+    private static final long STARTUP_TIMEOUT_MS = 30_000;
+    private static final int MAX_FAILURES = 3;
+
+    private final Supplier<Optional<GeneralCommandLine>> commandSupplier;
+    private final Supplier<String> installationSupplier;
+
+    private @Nullable Process process;
+    private @Nullable OutputStream stdin;
+    private @Nullable LineInput stdout;
+    private @Nullable ScheduledFuture<?> idleShutdown;
+    private @Nullable String installation;
+    private int consecutiveFailures;
+    private boolean disabled;
+    private boolean disposed;
+    private long nextRequestId;
+
+    /**
+     * @param installationSupplier identifies the installed Dataform CLI and core, e.g. their
+     *                             paths and versions; the worker restarts whenever it changes
+     */
+    DataformCompileWorker(@NotNull Supplier<Optional<GeneralCommandLine>> commandSupplier,
+                          @NotNull Supplier<String> installationSupplier) {
+        this.commandSupplier = commandSupplier;
+        this.installationSupplier = installationSupplier;
+    }
+
+    /**
+     * Compiles the project in {@code projectDir} and streams the compiled graph JSON, in the
+     * same format as {@code dataform compile --json} stdout, into {@code output}. Returns
+     * {@code false} when the worker is unavailable or the request failed, in which case the
+     * content of {@code output} is undefined.
+     */
+    synchronized boolean compile(@NotNull String projectDir, @NotNull Path output, long timeoutMs) {
+        if (disposed) return false;
+        String current = installationSupplier.get();
+        if (!current.equals(installation)) {
+            if (installation != null) {
+                LOG.info("Dataform installation changed, restarting the compile worker");
+            }
+            stop();
+            installation = current;
+            consecutiveFailures = 0;
+            disabled = false;
+        }
+        if (disabled) return false;
+        cancelIdleShutdown();
+        try {
+            if (!isAlive() && !start()) {
+                return false;
+            }
+            boolean compiled = sendCompileRequest(projectDir, output, timeoutMs);
+            if (compiled) {
+                consecutiveFailures = 0;
+            } else {
+                recordFailure();
+            }
+            return compiled;
+        } catch (Exception e) {
+            LOG.warn("Dataform compile worker failed, falling back to one-shot compile", e);
+            stop();
+            recordFailure();
+            return false;
+        } finally {
+            scheduleIdleShutdown();
+        }
+    }
+
+    @Override
+    public synchronized void dispose() {
+        cancelIdleShutdown();
+        stop();
+        disposed = true;
+    }
+
+    private boolean isAlive() {
+        return process != null && process.isAlive();
+    }
+
+    private boolean start() throws Exception {
+        stop();
+        Optional<GeneralCommandLine> cmd = commandSupplier.get();
+        if (cmd.isEmpty()) {
+            disabled = true;
+            return false;
+        }
+        Process started = cmd.get().createProcess();
+        process = started;
+        stdin = new BufferedOutputStream(started.getOutputStream());
+        stdout = new LineInput(started.getInputStream());
+        drainStderr(started);
+
+        String handshake = readHeader(STARTUP_TIMEOUT_MS);
+        JsonObject ready = handshake != null ? JsonParser.parseString(handshake).getAsJsonObject() : null;
+        if (ready == null || !ready.has("ready") || !ready.get("ready").getAsBoolean()) {
+            String error = ready != null && ready.has("error") ? ready.get("error").getAsString() : "no handshake";
+            LOG.info("Dataform compile worker unavailable (" + error + "), using one-shot compile");
+            stop();
+            disabled = true;
+            return false;
+        }
+        LOG.info("Dataform compile worker started");
+        return true;
+    }
+
+    private boolean sendCompileRequest(@NotNull String projectDir,
+                                       @NotNull Path output,
+                                       long timeoutMs) throws Exception {
+        long id = ++nextRequestId;
+        JsonObject request = new JsonObject();
+        request.addProperty("id", id);
+        request.addProperty("projectDir", projectDir);
+        stdin.write((request + "\n").getBytes(StandardCharsets.UTF_8));
+        stdin.flush();
+
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        String header = readHeader(timeoutMs);
+        if (header == null) {
+            stop();
+            return false;
+        }
+        JsonObject response = JsonParser.parseString(header).getAsJsonObject();
+        if (response.get("id").getAsLong() != id) {
+            LOG.warn("Dataform compile worker answered out of order, restarting it");
+            stop();
+            return false;
+        }
+        if (!response.get("ok").getAsBoolean()) {
+            LOG.info("Dataform compile worker error: " + response.get("error").getAsString());
+            return false;
+        }
+        boolean copied = withTimeout(Math.max(1, deadline - System.currentTimeMillis()), in -> {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(output), 1 << 16)) {
+                return in.copyLine(out) ? Boolean.TRUE : null;
+            }
+        }) != null;
+        if (!copied) {
+            stop();
+        }
+        return copied;
+    }
+
+    @Nullable
+    private String readHeader(long timeoutMs) throws Exception {
+        return withTimeout(timeoutMs, in -> {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            return in.copyLine(line) ? line.toString(StandardCharsets.UTF_8) : null;
+        });
+    }
+
+    @Nullable
+    private <T> T withTimeout(long timeoutMs, @NotNull StdoutReader<T> reader) throws Exception {
+        LineInput in = stdout;
+        if (in == null) return null;
+        CompletableFuture<T> result = CompletableFuture.supplyAsync(() -> {
+            try {
+                return reader.read(in);
+            } catch (IOException e) {
+                return null;
+            }
+        }, AppExecutorUtil.getAppExecutorService());
+        try {
+            return result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            LOG.warn("Dataform compile worker timed out after " + timeoutMs + "ms");
+            stop();
+            return null;
+        }
+    }
+
+    private void drainStderr(@NotNull Process started) {
+        AppExecutorUtil.getAppExecutorService().execute(() -> {
+            try (BufferedReader err = new BufferedReader(
+                    new InputStreamReader(started.getErrorStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = err.readLine()) != null) {
+                    LOG.debug("[compile-worker] " + line);
+                }
+            } catch (IOException ignored) {
+            }
+        });
+    }
+
+    private void recordFailure() {
+        if (++consecutiveFailures >= MAX_FAILURES) {
+            LOG.warn("Dataform compile worker failed " + consecutiveFailures + " times in a row, disabling it");
+            stop();
+            disabled = true;
+        }
+    }
+
+    private synchronized void stop() {
+        Process current = process;
+        process = null;
+        stdin = null;
+        stdout = null;
+        if (current != null) {
+            current.destroy();
+        }
+    }
+
+    private void scheduleIdleShutdown() {
+        if (disabled || !isAlive()) return;
+        idleShutdown = AppExecutorUtil.getAppScheduledExecutorService().schedule(() -> {
+            synchronized (this) {
+                LOG.info("Stopping idle Dataform compile worker");
+                stop();
+            }
+        }, IDLE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private void cancelIdleShutdown() {
+        if (idleShutdown != null) {
+            idleShutdown.cancel(false);
+            idleShutdown = null;
+        }
+    }
+
+    @FunctionalInterface
+    private interface StdoutReader<T> {
+        @Nullable T read(@NotNull LineInput in) throws IOException;
+    }
+
+    /**
+     * Reads the worker stdout in 64 KiB chunks and splits it on newlines, so that the
+     * multi-megabyte graph line is copied in bulk rather than byte by byte.
+     */
+    private static final class LineInput {
+        private final InputStream in;
+        private final byte[] buffer = new byte[1 << 16];
+        private int position;
+        private int limit;
+
+        private LineInput(@NotNull InputStream in) {
+            this.in = in;
+        }
+
+        /**
+         * Copies bytes up to the next newline, which is consumed but not copied. Returns
+         * {@code false} when the stream ended first.
+         */
+        boolean copyLine(@NotNull OutputStream out) throws IOException {
+            while (true) {
+                if (position == limit) {
+                    int read = in.read(buffer);
+                    if (read < 0) return false;
+                    position = 0;
+                    limit = read;
+                }
+                for (int i = position; i < limit; i++) {
+                    if (buffer[i] == '\n') {
+                        out.write(buffer, position, i - position);
+                        position = i + 1;
+                        return true;
+                    }
+                }
+                out.write(buffer, position, limit - position);
+                position = limit;
+            }
+        }
+    }
+}
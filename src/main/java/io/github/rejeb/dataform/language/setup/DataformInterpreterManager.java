@@ -18,11 +18,20 @@ package io.github.rejeb.dataform.language.setup;
 
 import com.intellij.execution.configurations.GeneralCommandLine;
 import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
 
+import java.nio.file.Path;
 import java.util.Optional;
 
 public interface DataformInterpreterManager {
     Optional<VirtualFile> dataformCorePath();
     String currentDataformCoreVersion();
     Optional<GeneralCommandLine> buildDataformCompileCommand();
+
+    /**
+     * Compiles the project through the long-lived compile worker and writes the
+     * {@code dataform compile --json} output to {@code output}. Returns {@code false} when the
+     * worker is not available, in which case callers should run {@link #buildDataformCompileCommand()}.
+     */
+    boolean compileWithWorker(@NotNull Path output, long timeoutMs);
 }
@@ -19,28 +19,44 @@ package io.github.rejeb.dataform.language.setup;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.intellij.execution.configurations.GeneralCommandLine;
+import com.intellij.openapi.Disposable;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.SystemInfo;
+import com.intellij.openapi.util.io.FileUtil;
 import com.intellij.openapi.vfs.LocalFileSystem;
 import com.intellij.openapi.vfs.VfsUtil;
 import com.intellij.openapi.vfs.VirtualFile;
 import io.github.rejeb.dataform.language.settings.DataformToolsSettings;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.List;
 import java.util.Optional;
 
 import static io.github.rejeb.dataform.language.setup.DataformInstaller.findDataformLibRootDir;
 
-public final class DataformInterpreterManagerImpl implements DataformInterpreterManager {
+public final class DataformInterpreterManagerImpl implements DataformInterpreterManager, Disposable {
     private static final Logger LOGGER = Logger.getInstance(DataformInterpreterManagerImpl.class);
+    private static final String COMPILE_WORKER_RESOURCE = "/dataform/compile-worker.js";
+    private static @Nullable Path compileWorkerScript;
     private final Project project;
+    private final DataformCompileWorker compileWorker;
 
     public DataformInterpreterManagerImpl(@NotNull Project project) {
         this.project = project;
+        this.compileWorker = new DataformCompileWorker(this::buildCompileWorkerCommand, this::installedDataform);
+    }
+
+    @Override
+    public void dispose() {
+        compileWorker.dispose();
     }
 
     @Override
@@ -101,6 +117,81 @@ public final class DataformInterpreterManagerImpl implements DataformInterpreter
 
     }
 
+    @Override
+    public boolean compileWithWorker(@NotNull Path output, long timeoutMs) {
+        String basePath = project.getBasePath();
+        if (basePath == null) return false;
+        return compileWorker.compile(basePath, output, timeoutMs);
+    }
+
+    private Optional<GeneralCommandLine> buildCompileWorkerCommand() {
+        Path nodeBinDir = NodeInterpreterManager.getInstance(project).nodeBinDir();
+        if (nodeBinDir == null) return Optional.empty();
+        Optional<Path> cliDir = findDataformLibRootDir(NodeInterpreterManager.getInstance(project))
+                .map(dir -> dir.resolve("cli"));
+        if (cliDir.isEmpty()) return Optional.empty();
+
+        Path nodeExe = nodeBinDir.resolve(SystemInfo.isWindows ? "node.exe" : "node");
+        if (!nodeExe.toFile().exists()) return Optional.empty();
+
+        try {
+            Path script = compileWorkerScript();
+            GeneralCommandLine cmd = new GeneralCommandLine(
+                    nodeExe.toAbsolutePath().toString(),
+                    script.toAbsolutePath().toString(),
+                    cliDir.get().toAbsolutePath().toString()
+            ).withWorkDirectory(project.getBasePath());
+            cmd.getEnvironment().put("PATH", nodeBinDir.toAbsolutePath() + File.pathSeparator + System.getenv("PATH"));
+            LOGGER.info("Run compile worker : " + cmd.getCommandLineString());
+            return Optional.of(cmd);
+        } catch (IOException e) {
+            LOGGER.warn("Unable to extract the Dataform compile worker script", e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Identifies the installed CLI and core by path and version, so that the compile worker
+     * restarts after an upgrade instead of serving the old modules it has loaded.
+     */
+    @NotNull
+    private String installedDataform() {
+        return findDataformLibRootDir(NodeInterpreterManager.getInstance(project))
+                .map(root -> root + " cli " + packageVersion(root.resolve("cli"))
+                        + " core " + packageVersion(root.resolve("core")))
+                .orElse("");
+    }
+
+    @NotNull
+    private static String packageVersion(@NotNull Path packageDir) {
+        try {
+            String content = Files.readString(packageDir.resolve("package.json"));
+            return JsonParser.parseString(content).getAsJsonObject().get("version").getAsString();
+        } catch (Exception e) {
+            return "unknown";
+        }
+    }
+
+    /**
+     * Extracts the worker script once per IDE session, shared by every project, and again only
+     * if the temporary file was removed meanwhile. It is deleted on exit.
+     */
+    private static synchronized Path compileWorkerScript() throws IOException {
+        if (compileWorkerScript == null || !Files.exists(compileWorkerScript)) {
+            compileWorkerScript = extractCompileWorkerScript();
+        }
+        return compileWorkerScript;
+    }
+
+    private static Path extractCompileWorkerScript() throws IOException {
+        File script = FileUtil.createTempFile("dataform-compile-worker", ".js", true);
+        try (InputStream in = DataformInterpreterManagerImpl.class.getResourceAsStream(COMPILE_WORKER_RESOURCE)) {
+            if (in == null) throw new IOException("Missing resource " + COMPILE_WORKER_RESOURCE);
+            Files.copy(in, script.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return script.toPath();
+    }
+
     private GeneralCommandLine buildDefaultCommand(String configuredCliCmd) {
         return new GeneralCommandLine()
                 .withExePath(configuredCliCmd)
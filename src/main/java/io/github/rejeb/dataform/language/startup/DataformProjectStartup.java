@@ -27,7 +27,7 @@ import com.intellij.openapi.project.ProjectUtil;
 import com.intellij.openapi.roots.ProjectRootManager;
 import com.intellij.openapi.startup.ProjectActivity;
 import com.intellij.openapi.vfs.VirtualFile;
-import io.github.rejeb.dataform.language.compilation.DataformCompilationService;
+import io.github.rejeb.dataform.language.compilation.DataformCompileScheduler;
 import io.github.rejeb.dataform.language.gcp.execution.workflow.runconfig.DataformRunConfigurationEditPolicy;
 import io.github.rejeb.dataform.language.gcp.execution.workflow.runconfig.LastMousePositionService;
 import io.github.rejeb.dataform.language.gcp.service.DataformGcpService;
@@ -80,9 +80,9 @@ public class DataformProjectStartup implements ProjectActivity {
             }
 
         }
-        if (DataformCompilationService.getInstance(project).getCompiledGraph() == null) {
-            DataformCompilationService.getInstance(project).compile(true);
-        }
+        // Not forced: the graph restored from the previous session is reused when no source
+        // changed since, instead of running a full compile on every start.
+        DataformCompileScheduler.getInstance(project).requestCompile(false);
 
         WriteAction.runAndWait(() -> {
             project.getService(DataformDtsGenerator.class).generateDts();
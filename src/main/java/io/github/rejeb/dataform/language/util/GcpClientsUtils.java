@@ -19,12 +19,9 @@ package io.github.rejeb.dataform.language.util;
 import com.google.auth.Credentials;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.cloud.bigquery.BigQuery;
-import com.google.cloud.bigquery.BigQueryOptions;
 import com.google.cloud.dataform.v1.DataformClient;
-import com.google.cloud.dataform.v1.DataformSettings;
-import com.google.cloud.http.HttpTransportOptions;
-import io.github.rejeb.dataform.language.gcp.auth.SslConfig;
 import io.github.rejeb.dataform.language.gcp.auth.DataformCredentialsService;
+import io.github.rejeb.dataform.language.gcp.service.GcpClientService;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -35,29 +32,19 @@ public class GcpClientsUtils {
     private static final String RESOURCE_NAME_PREFIX = "projects/";
     private static final String LOCATION_MARKER = "/locations/";
 
+    /**
+     * @return the shared BigQuery client for {@code projectId}, which must not be closed
+     */
     public static BigQuery bigQuery(String projectId) {
-        return BigQueryOptions.newBuilder()
-                .setCredentials(getCredentials(projectId))
-                .setProjectId(projectId)
-                .setTransportOptions(HttpTransportOptions.newBuilder()
-                        .setHttpTransportFactory(SslConfig.httpTransportFactory())
-                        .build())
-                .build()
-                .getService();
+        return GcpClientService.getInstance().bigQuery(projectId);
     }
 
     /**
      * @param quotaProjectId project billed for quota of client-based API calls, may be {@code null}
-     * @return a Dataform client bound to the plugin credential
+     * @return the shared Dataform client bound to the plugin credential, which must not be closed
      */
     public static DataformClient dataformClient(@Nullable String quotaProjectId) throws IOException {
-        DataformSettings settings = DataformSettings.newHttpJsonBuilder()
-                .setCredentialsProvider(() -> getCredentials(quotaProjectId))
-                .setTransportChannelProvider(DataformSettings.defaultHttpJsonTransportProviderBuilder()
-                        .setHttpTransport(SslConfig.httpTransportFactory().create())
-                        .build())
-                .build();
-        return DataformClient.create(settings);
+        return GcpClientService.getInstance().dataformClient(quotaProjectId);
     }
 
     public static DataformClient dataformClient() throws IOException {
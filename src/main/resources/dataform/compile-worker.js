@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/*
+ * Long-lived compile worker used by the IDE plugin.
+ *
+ * Protocol (newline-delimited JSON over stdin/stdout):
+ *   startup  -> {"ready": true} | {"ready": false, "error": "..."}
+ *   request  <- {"id": 1, "projectDir": "/path/to/project"}
+ *   response -> {"id": 1, "ok": true} followed by the compiled graph on a single line
+ *             | {"id": 1, "ok": false, "error": "..."}
+ */
+"use strict";
+
+const fs = require("fs");
+const path = require("path");
+const readline = require("readline");
+
+const out = process.stdout;
+console.log = console.info = console.debug = console.warn = console.error;
+
+function send(message) {
+    out.write(JSON.stringify(message) + "\n");
+}
+
+/*
+ * Loads the programmatic API of @dataform/cli: the module its package.json "main" points to.
+ * The command-line script listed under "bin" parses process.argv when loaded, so it is never
+ * required; a CLI without a separate API entry is reported as unavailable and the plugin falls
+ * back to `dataform compile --json`.
+ */
+function loadCompile(cliDir) {
+    const manifest = JSON.parse(fs.readFileSync(path.join(cliDir, "package.json"), "utf8"));
+    const entry = require.resolve(cliDir);
+    const bins = typeof manifest.bin === "string" ? [manifest.bin] : Object.values(manifest.bin || {});
+    if (bins.some(bin => path.resolve(cliDir, bin) === entry)) {
+        throw new Error("@dataform/cli at " + cliDir + " has no API entry besides its command-line script");
+    }
+    const cli = require(entry);
+    if (typeof cli.compile === "function") return cli.compile;
+    if (cli.default && typeof cli.default.compile === "function") return cli.default.compile;
+    throw new Error("@dataform/cli at " + cliDir + " does not expose a compile API");
+}
+
+let compile;
+try {
+    compile = loadCompile(process.argv[2]);
+} catch (e) {
+    send({ready: false, error: String((e && e.message) || e)});
+    process.exit(2);
+}
+send({ready: true});
+
+async function handle(line) {
+    let request;
+    try {
+        request = JSON.parse(line);
+    } catch (e) {
+        send({id: -1, ok: false, error: "Malformed request"});
+        return;
+    }
+    try {
+        const graph = await compile({projectDir: request.projectDir});
+        send({id: request.id, ok: true});
+        out.write(JSON.stringify(graph) + "\n");
+    } catch (e) {
+        send({id: request.id, ok: false, error: String((e && e.stack) || e)});
+    }
+}
+
+let queue = Promise.resolve();
+readline.createInterface({input: process.stdin})
+    .on("line", line => {
+        queue = queue.then(() => handle(line));
+    })
+    .on("close", () => queue.then(() => process.exit(0)));
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.compilation;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompiledGraphSnapshotTest {
+
+    private static final String GRAPH_JSON = """
+            {
+              "tables": [
+                {"target": {"database": "p", "schema": "s", "name": "orders"},
+                 "fileName": "definitions/orders.sqlx", "query": "select 'é', 1", "disabled": false,
+                 "tags": ["daily", "daily"], "preOps": []},
+                {"target": {"database": "p", "schema": "s", "name": "items"},
+                 "fileName": "definitions/items.sqlx", "query": null, "disabled": true}
+              ],
+              "projectConfig": {"defaultDatabase": "p", "vars": {"limit": 1000, "ratio": 0.25}}
+            }
+            """;
+
+    private static byte[] encode(String json) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CompiledGraphSnapshot.write(out, new JsonReader(new StringReader(json)));
+        return out.toByteArray();
+    }
+
+    @Test
+    public void roundTripsTheJsonTree() throws IOException {
+        JsonElement tree = JsonParser.parseString(GRAPH_JSON);
+        JsonElement decoded = CompiledGraphSnapshot.read(ByteBuffer.wrap(encode(GRAPH_JSON)));
+        assertEquals(tree, decoded);
+    }
+
+    @Test
+    public void internsRepeatedStrings() throws IOException {
+        StringBuilder json = new StringBuilder("{\"tables\":[");
+        for (int i = 0; i < 200; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"target\":{\"database\":\"my-project\",\"schema\":\"analytics\",\"name\":\"t")
+                    .append(i)
+                    .append("\"},\"tags\":[\"daily\"],\"disabled\":false}");
+        }
+        String compact = json.append("]}").toString();
+        byte[] encoded = encode(compact);
+        assertTrue(encoded.length < compact.getBytes(StandardCharsets.UTF_8).length / 3,
+                "repeated keys and values should be written once");
+    }
+
+    @Test
+    public void writesLongStringsInline() throws IOException {
+        String query = "select * from t where c = '" + "x".repeat(CompiledGraphSnapshot.MAX_INTERNED_LENGTH) + "'";
+        String json = "{\"tables\":[{\"query\":\"" + query + "\"},{\"query\":\"" + query + "\"}]}";
+        byte[] encoded = encode(json);
+        assertEquals(JsonParser.parseString(json), CompiledGraphSnapshot.read(ByteBuffer.wrap(encoded)));
+        assertTrue(encoded.length > 2 * query.length(), "long strings should not be interned");
+    }
+
+    @Test
+    public void roundTripsEmptyContainers() throws IOException {
+        String json = "{\"tables\":[],\"projectConfig\":{},\"nested\":[[],[{}]]}";
+        assertEquals(JsonParser.parseString(json), CompiledGraphSnapshot.read(ByteBuffer.wrap(encode(json))));
+    }
+
+    @Test
+    public void rejectsUnknownHeaders() {
+        assertThrows(IOException.class, () ->
+                CompiledGraphSnapshot.read(ByteBuffer.wrap("{\"tables\":[]}".getBytes(StandardCharsets.UTF_8))));
+        ByteBuffer futureVersion = ByteBuffer.allocate(9)
+                .putInt(CompiledGraphSnapshot.MAGIC)
+                .putInt(CompiledGraphSnapshot.VERSION + 1)
+                .put((byte) 0);
+        futureVersion.flip();
+        assertThrows(IOException.class, () -> CompiledGraphSnapshot.read(futureVersion));
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.compilation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DataformSourcesTest {
+
+    @Test
+    public void definitionFilesAreCompilationInputs() {
+        assertTrue(DataformSources.isCompilationInput("definitions/staging/orders.sqlx", false));
+        assertTrue(DataformSources.isCompilationInput("definitions/ops.js", false));
+        assertTrue(DataformSources.isCompilationInput("definitions/sources.yaml", false));
+    }
+
+    @Test
+    public void sharedSourcesAreCompilationInputs() {
+        assertTrue(DataformSources.isCompilationInput("includes/constants.js", false));
+        assertTrue(DataformSources.isCompilationInput("workflow_settings.yaml", false));
+        assertTrue(DataformSources.isCompilationInput("dataform.json", false));
+        assertTrue(DataformSources.isCompilationInput("definitions/staging", true));
+    }
+
+    @Test
+    public void ignoresFilesThatAreNotCompilationInputs() {
+        assertFalse(DataformSources.isCompilationInput("README.md", false));
+        assertFalse(DataformSources.isCompilationInput(".dataform/cache.json", false));
+        assertFalse(DataformSources.isCompilationInput("definitions/notes.md", false));
+    }
+}
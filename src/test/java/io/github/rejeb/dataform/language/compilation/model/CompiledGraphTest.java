@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.compilation.model;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompiledGraphTest {
+
+    private static final String GRAPH_JSON = """
+            {
+              "tables": [
+                {"target": {"database": "p", "schema": "s", "name": "orders"},
+                 "fileName": "definitions/orders.sqlx", "query": "select 1", "tags": ["daily"]},
+                {"target": {"database": "p", "schema": "s", "name": "orders_view"},
+                 "fileName": "definitions\\\\views\\\\orders_view.sqlx", "query": "select 2", "tags": ["hourly"]}
+              ],
+              "assertions": [
+                {"target": {"database": "p", "schema": "a", "name": "orders_not_null"},
+                 "fileName": "definitions/orders.sqlx", "query": "select 3", "tags": ["daily", "dq"]}
+              ],
+              "operations": [
+                {"target": {"database": "p", "schema": "s", "name": "cleanup"},
+                 "fileName": "definitions/ops/cleanup.sqlx", "queries": ["delete from t where 1=1"]}
+              ],
+              "declarations": [
+                {"target": {"database": "p", "schema": "raw", "name": "events"},
+                 "fileName": "definitions/sources.js"}
+              ]
+            }
+            """;
+
+    private static CompiledGraph graph() {
+        return new Gson().fromJson(GRAPH_JSON, CompiledGraph.class);
+    }
+
+    @Test
+    public void findsActionsByShortName() {
+        CompiledGraph graph = graph();
+        assertEquals("orders", graph.findTableByName("orders").orElseThrow().getTarget().getName());
+        assertEquals("p.raw.events", graph.findTargetByRefName("events").orElseThrow().getFullName());
+        assertEquals("p.s.cleanup", graph.findTargetByRefName("cleanup").orElseThrow().getFullName());
+        assertTrue(graph.findTargetByRefName("missing").isEmpty());
+    }
+
+    @Test
+    public void findsActionsByAbsoluteOrRelativeFileName() {
+        CompiledGraph graph = graph();
+        assertEquals(1, graph.findTableByFileName("/home/me/project/definitions/orders.sqlx").size());
+        assertEquals(1, graph.findAssertionByFileName("definitions/orders.sqlx").size());
+        assertEquals(1, graph.findTableByFileName("/home/me/project/definitions/views/orders_view.sqlx").size());
+        assertEquals(1, graph.findDeclarationByFileName("/p/definitions/sources.js").size());
+        assertTrue(graph.findTableByFileName("/home/me/project/definitions/my_orders.sqlx").isEmpty());
+    }
+
+    @Test
+    public void resolvesFileNameFromFullyQualifiedName() {
+        CompiledGraph graph = graph();
+        assertEquals("definitions/orders.sqlx", graph.actionFileName("p.s.orders"));
+        assertEquals("definitions/orders.sqlx", graph.actionFileName("p.a.orders_not_null"));
+        assertEquals("definitions/ops/cleanup.sqlx", graph.actionFileName("p.s.cleanup"));
+        assertNull(graph.actionFileName("p.raw.events"));
+    }
+
+    @Test
+    public void collectsTagsAndTargets() {
+        CompiledGraph graph = graph();
+        assertEquals(Set.of("daily", "hourly", "dq"), graph.getTags());
+        assertEquals(List.of("daily", "dq"), graph.getTags("/project/definitions/orders.sqlx"));
+        assertEquals(List.of("p.a.orders_not_null", "p.s.cleanup", "p.s.orders", "p.s.orders_view"),
+                graph.getAllTargets());
+    }
+}
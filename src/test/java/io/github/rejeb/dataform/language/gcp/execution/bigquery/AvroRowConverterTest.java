@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.gcp.execution.bigquery;
+
+import com.google.cloud.bigquery.StandardSQLTypeName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class AvroRowConverterTest {
+
+    @Test
+    public void decodesNumericWithScaleNine() {
+        assertEquals("123.456789", AvroRowConverter.primitive(unscaled(123_456_789_000L), StandardSQLTypeName.NUMERIC));
+        assertEquals("-1.5", AvroRowConverter.primitive(unscaled(-1_500_000_000L), StandardSQLTypeName.NUMERIC));
+        assertEquals("0", AvroRowConverter.primitive(unscaled(0), StandardSQLTypeName.NUMERIC));
+        assertEquals("0.000000001", AvroRowConverter.primitive(unscaled(1), StandardSQLTypeName.NUMERIC));
+    }
+
+    @Test
+    public void decodesBigNumericWithScaleThirtyEight() {
+        ByteBuffer one = ByteBuffer.wrap(BigInteger.TEN.pow(38).toByteArray());
+        ByteBuffer smallest = ByteBuffer.wrap(BigInteger.ONE.toByteArray());
+
+        assertEquals("1", AvroRowConverter.primitive(one, StandardSQLTypeName.BIGNUMERIC));
+        assertEquals("0.00000000000000000000000000000000000001",
+                AvroRowConverter.primitive(smallest, StandardSQLTypeName.BIGNUMERIC));
+    }
+
+    @Test
+    public void leavesTheBufferUnread() {
+        ByteBuffer value = unscaled(2_000_000_000L);
+
+        AvroRowConverter.primitive(value, StandardSQLTypeName.NUMERIC);
+
+        assertEquals("2", AvroRowConverter.primitive(value, StandardSQLTypeName.NUMERIC));
+    }
+
+    @Test
+    public void encodesTimeFromMicrosecondsOfDay() {
+        long micros = (13 * 3600 + 45 * 60 + 30) * 1_000_000L + 123_456;
+
+        assertEquals("13:45:30.123456", AvroRowConverter.primitive(micros, StandardSQLTypeName.TIME));
+        assertEquals("00:00:00.000000", AvroRowConverter.primitive(0L, StandardSQLTypeName.TIME));
+    }
+
+    @Test
+    public void encodesTimestampAsEpochSecondsLikeTheRestApi() {
+        assertEquals("1700000000.123456",
+                AvroRowConverter.primitive(1_700_000_000_123_456L, StandardSQLTypeName.TIMESTAMP));
+        assertEquals("0.000000", AvroRowConverter.primitive(0L, StandardSQLTypeName.TIMESTAMP));
+        assertEquals("-0.000001", AvroRowConverter.primitive(-1L, StandardSQLTypeName.TIMESTAMP));
+    }
+
+    @Test
+    public void encodesDatesBytesAndOtherTypes() {
+        assertEquals("2022-01-08", AvroRowConverter.primitive(19_000, StandardSQLTypeName.DATE));
+        assertEquals("aGk=", AvroRowConverter.primitive(
+                ByteBuffer.wrap("hi".getBytes(StandardCharsets.UTF_8)), StandardSQLTypeName.BYTES));
+        assertEquals("42", AvroRowConverter.primitive(42L, StandardSQLTypeName.INT64));
+    }
+
+    private static ByteBuffer unscaled(long value) {
+        return ByteBuffer.wrap(BigInteger.valueOf(value).toByteArray());
+    }
+}
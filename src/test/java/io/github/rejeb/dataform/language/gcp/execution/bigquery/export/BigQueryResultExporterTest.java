@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.gcp.execution.bigquery.export;
+
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.FieldList;
+import com.google.cloud.bigquery.FieldValue;
+import com.google.cloud.bigquery.FieldValueList;
+import com.google.cloud.bigquery.Range;
+import com.google.cloud.bigquery.StandardSQLTypeName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BigQueryResultExporterTest {
+
+    @Test
+    public void csvQuotesOnlyCellsThatNeedIt() throws IOException {
+        FieldList fields = FieldList.of(
+                Field.of("name", StandardSQLTypeName.STRING),
+                Field.of("address", StandardSQLTypeName.STRUCT, Field.of("city", StandardSQLTypeName.STRING)));
+        StringWriter out = new StringWriter();
+        BigQueryResultExporter.CsvRowWriter writer = new BigQueryResultExporter.CsvRowWriter(out, fields);
+
+        writer.header();
+        writer.row(row(fields, primitive("plain"), record(fields.get(1).getSubFields(), primitive("a,b"))));
+        writer.row(row(fields, primitive("say \"hi\""), record(fields.get(1).getSubFields(), primitive("two\nlines"))));
+        writer.row(row(fields, primitive("carriage\rreturn"), nullValue()));
+
+        assertEquals("name,address.city\r\n"
+                + "plain,\"a,b\"\r\n"
+                + "\"say \"\"hi\"\"\",\"two\nlines\"\r\n"
+                + "\"carriage\rreturn\",\r\n", out.toString());
+    }
+
+    @Test
+    public void jsonLinesWritesTypedLiteralsAndNestedValues() throws IOException {
+        FieldList fields = FieldList.of(
+                Field.of("id", StandardSQLTypeName.INT64),
+                Field.of("score", StandardSQLTypeName.FLOAT64),
+                Field.of("ratio", StandardSQLTypeName.FLOAT64),
+                Field.of("ok", StandardSQLTypeName.BOOL),
+                Field.of("at", StandardSQLTypeName.TIMESTAMP),
+                Field.of("note", StandardSQLTypeName.STRING),
+                Field.of("address", StandardSQLTypeName.STRUCT, Field.of("city", StandardSQLTypeName.STRING)),
+                Field.newBuilder("tags", StandardSQLTypeName.STRING).setMode(Field.Mode.REPEATED).build(),
+                Field.of("missing", StandardSQLTypeName.STRING));
+        StringWriter out = new StringWriter();
+        BigQueryResultExporter.JsonLinesRowWriter writer = new BigQueryResultExporter.JsonLinesRowWriter(out, fields);
+
+        writer.header();
+        writer.row(row(fields,
+                primitive("42"),
+                primitive("1.5"),
+                primitive("NaN"),
+                primitive("true"),
+                primitive("1700000000.123456"),
+                primitive("say \"hi\"\nbye"),
+                record(fields.get(6).getSubFields(), primitive("Paris")),
+                FieldValue.of(FieldValue.Attribute.REPEATED, List.of(primitive("a"), primitive("b"))),
+                nullValue()));
+        writer.row(row(fields,
+                primitive("-1"), primitive("0"), primitive("Infinity"), primitive("false"),
+                primitive("0"), primitive(""), nullValue(),
+                FieldValue.of(FieldValue.Attribute.REPEATED, List.of()), nullValue()));
+
+        assertEquals("{\"id\":42,\"score\":1.5,\"ratio\":\"NaN\",\"ok\":true,"
+                + "\"at\":\"2023-11-14T22:13:20.123456Z\",\"note\":\"say \\\"hi\\\"\\nbye\","
+                + "\"address\":{\"city\":\"Paris\"},\"tags\":[\"a\",\"b\"],\"missing\":null}\n"
+                + "{\"id\":-1,\"score\":0,\"ratio\":\"Infinity\",\"ok\":false,"
+                + "\"at\":\"1970-01-01T00:00:00Z\",\"note\":\"\","
+                + "\"address\":null,\"tags\":[],\"missing\":null}\n", out.toString());
+    }
+
+    @Test
+    public void jsonLinesWritesRangesAsStartEndObjects() throws IOException {
+        FieldList fields = FieldList.of(Field.of("period", StandardSQLTypeName.RANGE));
+        StringWriter out = new StringWriter();
+        BigQueryResultExporter.JsonLinesRowWriter writer = new BigQueryResultExporter.JsonLinesRowWriter(out, fields);
+
+        writer.row(row(fields, FieldValue.of(FieldValue.Attribute.RANGE, Range.of("[2020-01-01, 2020-12-31)"))));
+        writer.row(row(fields, FieldValue.of(FieldValue.Attribute.RANGE, Range.of("[2020-01-01, UNBOUNDED)"))));
+        writer.row(row(fields, nullValue()));
+
+        assertEquals("{\"period\":{\"start\":\"2020-01-01\",\"end\":\"2020-12-31\"}}\n"
+                + "{\"period\":{\"start\":\"2020-01-01\",\"end\":null}}\n"
+                + "{\"period\":null}\n", out.toString());
+    }
+
+    private static FieldValueList row(FieldList fields, FieldValue... values) {
+        return FieldValueList.of(List.of(values), fields);
+    }
+
+    private static FieldValue record(FieldList fields, FieldValue... values) {
+        return FieldValue.of(FieldValue.Attribute.RECORD, row(fields, values));
+    }
+
+    private static FieldValue primitive(String value) {
+        return FieldValue.of(FieldValue.Attribute.PRIMITIVE, value);
+    }
+
+    private static FieldValue nullValue() {
+        return FieldValue.of(FieldValue.Attribute.PRIMITIVE, null);
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.gcp.execution.bigquery.grid;
+
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.FieldList;
+import com.google.cloud.bigquery.FieldValue;
+import com.google.cloud.bigquery.FieldValueList;
+import com.google.cloud.bigquery.StandardSQLTypeName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class BqColumnStoreTest {
+
+    private static final FieldList SCHEMA = FieldList.of(
+            Field.of("id", StandardSQLTypeName.INT64),
+            Field.of("score", StandardSQLTypeName.FLOAT64),
+            Field.of("active", StandardSQLTypeName.BOOL),
+            Field.of("created_at", StandardSQLTypeName.TIMESTAMP),
+            Field.of("country", StandardSQLTypeName.STRING));
+
+    @Test
+    public void decodesLongColumns() {
+        BqColumnStore store = store(
+                row("42", "1.5", "true", "1700000000.123456", "FR"),
+                row("-7", "0", "false", "0", "US"));
+
+        assertEquals(42L, store.getValue(0, 0));
+        assertEquals(-7L, store.getValue(1, 0));
+        assertEquals(true, store.getValue(0, 2));
+        assertEquals(false, store.getValue(1, 2));
+        assertEquals(StructFlattener.formatTimestamp(1_700_000_000_123_456L), store.getValue(0, 3));
+        assertEquals(StructFlattener.formatTimestamp(0), store.getValue(1, 3));
+    }
+
+    @Test
+    public void decodesDoubleColumns() {
+        BqColumnStore store = store(
+                row("1", "3.25", "true", "0", "FR"),
+                row("2", "-1E-3", "true", "0", "FR"));
+
+        assertEquals(3.25, store.getValue(0, 1));
+        assertEquals(-0.001, store.getValue(1, 1));
+    }
+
+    @Test
+    public void sharesDictionaryEntriesBetweenEqualStrings() {
+        BqColumnStore store = store(
+                row("1", "0", "true", "0", new String("FR")),
+                row("2", "0", "true", "0", "US"),
+                row("3", "0", "true", "0", new String("FR")));
+
+        assertEquals("FR", store.getValue(0, 4));
+        assertEquals("US", store.getValue(1, 4));
+        assertSame(store.getValue(0, 4), store.getValue(2, 4));
+    }
+
+    @Test
+    public void keepsNullsApartFromZeroValues() {
+        BqColumnStore store = store(
+                row(null, null, null, null, null),
+                row("0", "0", "false", "0", ""));
+
+        for (int column = 0; column < SCHEMA.size(); column++) {
+            assertNull(store.getValue(0, column), "column " + column);
+        }
+        assertEquals(0L, store.getValue(1, 0));
+        assertEquals(0.0, store.getValue(1, 1));
+        assertEquals(false, store.getValue(1, 2));
+        assertEquals(StructFlattener.formatTimestamp(0), store.getValue(1, 3));
+        assertEquals("", store.getValue(1, 4));
+    }
+
+    @Test
+    public void returnsNullOutsideTheStore() {
+        BqColumnStore store = store(row("1", "1", "true", "0", "FR"));
+
+        assertEquals(1, store.getRowCount());
+        assertEquals(5, store.getColumnCount());
+        assertNull(store.getValue(1, 0));
+        assertNull(store.getValue(0, 5));
+        assertNull(store.getValue(-1, 0));
+    }
+
+    private static BqColumnStore store(FieldValueList... rows) {
+        return BqColumnStore.of(Arrays.asList(rows), StructFlattener.buildExtractors(SCHEMA));
+    }
+
+    private static FieldValueList row(String... values) {
+        List<FieldValue> fields = new ArrayList<>();
+        for (String value : values) {
+            fields.add(FieldValue.of(FieldValue.Attribute.PRIMITIVE, value));
+        }
+        return FieldValueList.of(fields, SCHEMA);
+    }
+}
@@ -16,19 +16,30 @@
  */
 package io.github.rejeb.dataform.language.gcp.workspace;
 
+import com.intellij.openapi.application.WriteAction;
+import com.intellij.openapi.vfs.VfsUtil;
+import com.intellij.psi.PsiFile;
 import com.intellij.testFramework.fixtures.BasePlatformTestCase;
 import io.github.rejeb.dataform.language.gcp.common.CommitAuthorConfig;
 import io.github.rejeb.dataform.language.gcp.common.GcpApiException;
 import io.github.rejeb.dataform.language.gcp.common.GcpConfigProvider;
+import io.github.rejeb.dataform.language.gcp.service.WorkspaceSyncManifest;
 import io.github.rejeb.dataform.language.gcp.workspace.repository.WorkspaceRepository;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.mockito.Mockito.*;
 
 public class WorkspaceOperationsTest extends BasePlatformTestCase {
 
+    private static final String DEV_WORKSPACE_KEY = "test-project/europe-west1/test-repo/dev";
+
     private WorkspaceRepository repository;
     private GcpConfigProvider fullConfig;
     private GcpConfigProvider emptyConfig;
@@ -37,6 +48,9 @@ public class WorkspaceOperationsTest extends BasePlatformTestCase {
     protected void setUp() throws Exception {
         super.setUp();
         repository = mock(WorkspaceRepository.class);
+        when(repository.push(any(), any(), any(), any(), any(), any()))
+                .thenAnswer(call -> PushReport.completed(call.getArgument(4), call.getArgument(5)));
+        when(repository.fetchGitState(any(), any(), any(), any())).thenReturn("head +0 -0");
 
         fullConfig = mock(GcpConfigProvider.class);
         when(fullConfig.getProjectId()).thenReturn("test-project");
@@ -48,6 +62,7 @@ public class WorkspaceOperationsTest extends BasePlatformTestCase {
         when(emptyConfig.getProjectId()).thenReturn(null);
         when(emptyConfig.getLocation()).thenReturn(null);
         when(emptyConfig.getRepositoryId()).thenReturn(null);
+        WorkspaceSyncManifest.getInstance(getProject()).invalidate(DEV_WORKSPACE_KEY);
     }
 
     private WorkspaceOperationsHandler handler(GcpConfigProvider config) {
@@ -123,6 +138,128 @@ public class WorkspaceOperationsTest extends BasePlatformTestCase {
         );
     }
 
+    public void testPushCodeOnlySendsFilesChangedSinceLastPush() throws Exception {
+        PsiFile first = myFixture.addFileToProject("definitions/first.sqlx", "SELECT 1");
+        myFixture.addFileToProject("definitions/second.sqlx", "SELECT 2");
+        WorkspaceOperationsHandler handler = handlerWithResolver(fullConfig,
+                List.of("definitions/first.sqlx", "definitions/second.sqlx"));
+        handler.pushCode("dev");
+
+        WriteAction.runAndWait(() -> VfsUtil.saveText(first.getVirtualFile(), "SELECT 10"));
+        handler.pushCode("dev");
+
+        verify(repository).push("test-project", "europe-west1", "test-repo", "dev",
+                Map.of("definitions/first.sqlx", "SELECT 10"), Set.of());
+    }
+
+    public void testPushCodeRemovesFilesDeletedSinceLastPush() {
+        myFixture.addFileToProject("definitions/first.sqlx", "SELECT 1");
+        myFixture.addFileToProject("definitions/second.sqlx", "SELECT 2");
+        List<String> files = new ArrayList<>(List.of("definitions/first.sqlx", "definitions/second.sqlx"));
+        WorkspaceOperationsHandler handler = handlerWithResolver(fullConfig, files);
+        handler.pushCode("dev");
+
+        files.remove("definitions/second.sqlx");
+        handler.pushCode("dev");
+
+        verify(repository).push("test-project", "europe-west1", "test-repo", "dev",
+                Map.of(), Set.of("definitions/second.sqlx"));
+    }
+
+    public void testPushCodeResumesOnlyPathsThatFailed() {
+        myFixture.addFileToProject("definitions/first.sqlx", "SELECT 1");
+        myFixture.addFileToProject("definitions/second.sqlx", "SELECT 2");
+        WorkspaceOperationsHandler handler = handlerWithResolver(fullConfig,
+                List.of("definitions/first.sqlx", "definitions/second.sqlx"));
+        when(repository.listAllPaths("test-project", "europe-west1", "test-repo", "dev"))
+                .thenReturn(List.of("definitions/stale.sqlx"));
+        doReturn(new PushReport(Set.of("definitions/first.sqlx"), Set.of(),
+                Map.of("definitions/second.sqlx", "unavailable", "definitions/stale.sqlx", "unavailable")))
+                .when(repository).push(any(), any(), any(), any(), any(), any());
+        assertThrows(GcpApiException.class, () -> handler.pushCode("dev"));
+
+        doAnswer(call -> PushReport.completed(call.getArgument(4), call.getArgument(5)))
+                .when(repository).push(any(), any(), any(), any(), any(), any());
+        handler.pushCode("dev");
+
+        verify(repository).push("test-project", "europe-west1", "test-repo", "dev",
+                Map.of("definitions/second.sqlx", "SELECT 2"), Set.of("definitions/stale.sqlx"));
+    }
+
+    public void testPushCodeSkipsUnchangedWorkspace() {
+        myFixture.addFileToProject("definitions/first.sqlx", "SELECT 1");
+        WorkspaceOperationsHandler handler = handlerWithResolver(fullConfig, List.of("definitions/first.sqlx"));
+        handler.pushCode("dev");
+        handler.pushCode("dev");
+
+        verify(repository, times(1)).push(any(), any(), any(), any(), any(), any());
+    }
+
+    public void testPushCodeRewritesFilesModifiedInWorkspace() {
+        myFixture.addFileToProject("definitions/first.sqlx", "SELECT 1");
+        WorkspaceOperationsHandler handler = handlerWithResolver(fullConfig, List.of("definitions/first.sqlx"));
+        handler.pushCode("dev");
+
+        when(repository.fetchFileGitStatuses("test-project", "europe-west1", "test-repo", "dev"))
+                .thenReturn(List.of(new UncommittedChange(
+                        "definitions/first.sqlx", UncommittedChange.ChangeState.MODIFIED)));
+        when(repository.readFiles("test-project", "europe-west1", "test-repo", "dev",
+                List.of("definitions/first.sqlx")))
+                .thenReturn(Map.of("definitions/first.sqlx", "SELECT 'edited in the console'"));
+        handler.pushCode("dev");
+
+        verify(repository, times(2)).push("test-project", "europe-west1", "test-repo", "dev",
+                Map.of("definitions/first.sqlx", "SELECT 1"), Set.of());
+        verify(repository, never()).getFileContent(any(), any(), any(), any(), any());
+    }
+
+    public void testPushCodeReadsWorkspaceChangesInOneBatch() {
+        myFixture.addFileToProject("definitions/first.sqlx", "SELECT 1");
+        myFixture.addFileToProject("definitions/second.sqlx", "SELECT 2");
+        List<String> paths = List.of("definitions/first.sqlx", "definitions/second.sqlx");
+        WorkspaceOperationsHandler handler = handlerWithResolver(fullConfig, paths);
+        handler.pushCode("dev");
+
+        when(repository.fetchFileGitStatuses("test-project", "europe-west1", "test-repo", "dev"))
+                .thenReturn(List.of(
+                        new UncommittedChange("definitions/first.sqlx", UncommittedChange.ChangeState.MODIFIED),
+                        new UncommittedChange("definitions/second.sqlx", UncommittedChange.ChangeState.MODIFIED)));
+        when(repository.readFiles("test-project", "europe-west1", "test-repo", "dev", paths))
+                .thenReturn(Map.of("definitions/first.sqlx", "SELECT 1", "definitions/second.sqlx", "SELECT 20"));
+        handler.pushCode("dev");
+
+        verify(repository).readFiles("test-project", "europe-west1", "test-repo", "dev", paths);
+        verify(repository).push("test-project", "europe-west1", "test-repo", "dev",
+                Map.of("definitions/second.sqlx", "SELECT 2"), Set.of());
+    }
+
+    public void testPushCodeFailsWhenWorkspaceChangesCannotBeRead() {
+        myFixture.addFileToProject("definitions/first.sqlx", "SELECT 1");
+        WorkspaceOperationsHandler handler = handlerWithResolver(fullConfig, List.of("definitions/first.sqlx"));
+        handler.pushCode("dev");
+
+        when(repository.fetchFileGitStatuses("test-project", "europe-west1", "test-repo", "dev"))
+                .thenReturn(List.of(new UncommittedChange(
+                        "definitions/first.sqlx", UncommittedChange.ChangeState.MODIFIED)));
+        doThrow(new GcpApiException("read failed"))
+                .when(repository).readFiles(any(), any(), any(), any(), any());
+
+        assertThrows(GcpApiException.class, () -> handler.pushCode("dev"));
+        verify(repository, times(1)).push(any(), any(), any(), any(), any(), any());
+    }
+
+    public void testPushCodeSendsEveryFileWhenWorkspaceCommitsMoved() {
+        myFixture.addFileToProject("definitions/first.sqlx", "SELECT 1");
+        WorkspaceOperationsHandler handler = handlerWithResolver(fullConfig, List.of("definitions/first.sqlx"));
+        handler.pushCode("dev");
+
+        when(repository.fetchGitState("test-project", "europe-west1", "test-repo", "dev")).thenReturn("head +1 -0");
+        handler.pushCode("dev");
+
+        verify(repository, times(2)).push("test-project", "europe-west1", "test-repo", "dev",
+                Map.of("definitions/first.sqlx", "SELECT 1"), Set.of());
+    }
+
     public void testWorkspaceFromResourceNameExtractsId() {
         Workspace workspace = Workspace.fromResourceName(
                 "projects/p/locations/l/repositories/r/workspaces/my-workspace"
@@ -205,22 +342,21 @@ public class WorkspaceOperationsTest extends BasePlatformTestCase {
                 () -> handlerWithResolver(fullConfig, paths).fetchCode(null));
     }
 
-    public void testPullCodeCallsReadFilesFromRepository() {
+    public void testPullCodeReadsRepositoryFiles() {
         List<String> paths = List.of("definitions/my_table.sqlx");
-        when(repository.readFilesFromRepository(
-                "test-project", "europe-west1", "test-repo", paths))
+        when(repository.listFiles("test-project", "europe-west1", "test-repo", null)).thenReturn(paths);
+        when(repository.readFiles("test-project", "europe-west1", "test-repo", null, paths))
                 .thenReturn(Map.of("definitions/my_table.sqlx", "SELECT 1"));
 
         handlerWithResolver(fullConfig, paths).pullCode(null);
 
-        verify(repository).readFilesFromRepository(
-                "test-project", "europe-west1", "test-repo", paths);
+        verify(repository).readFiles("test-project", "europe-west1", "test-repo", null, paths);
     }
 
     public void testPullCodeSkipsWhenNoFiles() {
         handlerWithResolver(fullConfig, List.of()).pullCode(null);
 
-        verifyNoInteractions(repository);
+        verify(repository, never()).readFiles(any(), any(), any(), any(), any());
     }
 
     public void testPullCodeSkipsWhenConfigMissing() {
@@ -231,12 +367,60 @@ public class WorkspaceOperationsTest extends BasePlatformTestCase {
 
     public void testPullCodePropagatesGcpApiException() {
         List<String> paths = List.of("definitions/my_table.sqlx");
+        when(repository.listFiles(any(), any(), any(), any())).thenReturn(paths);
         doThrow(new GcpApiException("failure", new RuntimeException()))
-                .when(repository).readFilesFromRepository(any(), any(), any(), any());
+                .when(repository).readFiles(any(), any(), any(), any(), any());
 
         assertThrows(GcpApiException.class,
                 () -> handlerWithResolver(fullConfig, paths).pullCode(null));
     }
 
+    public void testPullCodeOnlyDownloadsFilesChangedInWorkspace() {
+        List<String> paths = List.of("definitions/first.sqlx", "definitions/second.sqlx");
+        myFixture.addFileToProject("definitions/first.sqlx", "SELECT 1");
+        myFixture.addFileToProject("definitions/second.sqlx", "SELECT 2");
+        WorkspaceOperationsHandler handler = handlerWithResolver(fullConfig, paths);
+        when(repository.listFiles("test-project", "europe-west1", "test-repo", "dev")).thenReturn(paths);
+        when(repository.readFiles("test-project", "europe-west1", "test-repo", "dev", paths))
+                .thenReturn(Map.of("definitions/first.sqlx", "SELECT 1", "definitions/second.sqlx", "SELECT 2"));
+        handler.pullCode("dev");
+
+        when(repository.fetchFileGitStatuses("test-project", "europe-west1", "test-repo", "dev"))
+                .thenReturn(List.of(new UncommittedChange(
+                        "definitions/second.sqlx", UncommittedChange.ChangeState.MODIFIED)));
+        when(repository.readFiles("test-project", "europe-west1", "test-repo", "dev",
+                List.of("definitions/second.sqlx")))
+                .thenReturn(Map.of("definitions/second.sqlx", "SELECT 20"));
+        handler.pullCode("dev");
+
+        verify(repository).readFiles("test-project", "europe-west1", "test-repo", "dev",
+                List.of("definitions/second.sqlx"));
+        assertEquals("SELECT 20", new String(contentOf("definitions/second.sqlx"), StandardCharsets.UTF_8));
+    }
+
+    public void testPullCodeDownloadsEveryFileWhenWorkspaceCommitsMoved() {
+        List<String> paths = List.of("definitions/first.sqlx", "definitions/second.sqlx");
+        myFixture.addFileToProject("definitions/first.sqlx", "SELECT 1");
+        myFixture.addFileToProject("definitions/second.sqlx", "SELECT 2");
+        WorkspaceOperationsHandler handler = handlerWithResolver(fullConfig, paths);
+        when(repository.listFiles("test-project", "europe-west1", "test-repo", "dev")).thenReturn(paths);
+        when(repository.readFiles("test-project", "europe-west1", "test-repo", "dev", paths))
+                .thenReturn(Map.of("definitions/first.sqlx", "SELECT 1", "definitions/second.sqlx", "SELECT 2"))
+                .thenReturn(Map.of("definitions/first.sqlx", "SELECT 10", "definitions/second.sqlx", "SELECT 2"));
+        handler.pullCode("dev");
+
+        when(repository.fetchGitState("test-project", "europe-west1", "test-repo", "dev")).thenReturn("head +1 -0");
+        handler.pullCode("dev");
+
+        verify(repository, times(2)).readFiles("test-project", "europe-west1", "test-repo", "dev", paths);
+        assertEquals("SELECT 10", new String(contentOf("definitions/first.sqlx"), StandardCharsets.UTF_8));
+    }
 
+    private byte[] contentOf(String path) {
+        try {
+            return myFixture.findFileInTempDir(path).contentsToByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.gcp.workspace;
+
+import com.intellij.openapi.application.WriteAction;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.vfs.VfsUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.testFramework.HeavyPlatformTestCase;
+import com.intellij.testFramework.PsiTestUtil;
+import io.github.rejeb.dataform.language.gcp.common.GcpApiException;
+import io.github.rejeb.dataform.language.gcp.common.GcpConfigProvider;
+import io.github.rejeb.dataform.language.gcp.workspace.repository.WorkspaceRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Pulls into a content root on the local file system, where open documents and the files on
+ * disk can disagree.
+ */
+public class WorkspacePullLocalFileSystemTest extends HeavyPlatformTestCase {
+
+    private static final List<String> PATHS = List.of(
+            "definitions/first.sqlx", "definitions/second.sqlx", "definitions/new/third.sqlx");
+
+    private WorkspaceRepository repository;
+    private GcpConfigProvider config;
+    private VirtualFile root;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        root = getTempDir().createVirtualDir();
+        PsiTestUtil.addContentRoot(getModule(), root);
+
+        repository = mock(WorkspaceRepository.class);
+        when(repository.listFiles("test-project", "europe-west1", "test-repo", null)).thenReturn(PATHS);
+        when(repository.readFiles("test-project", "europe-west1", "test-repo", null, PATHS)).thenReturn(Map.of(
+                "definitions/first.sqlx", "SELECT 10",
+                "definitions/second.sqlx", "SELECT 20",
+                "definitions/new/third.sqlx", "SELECT 3"));
+        config = mock(GcpConfigProvider.class);
+        when(config.getProjectId()).thenReturn("test-project");
+        when(config.getLocation()).thenReturn("europe-west1");
+        when(config.getRepositoryId()).thenReturn("test-repo");
+
+        createFile("definitions/first.sqlx", "SELECT 1");
+        createFile("definitions/second.sqlx", "SELECT 2");
+    }
+
+    public void testPullReloadsOpenDocumentsAndCreatesNewFiles() throws IOException {
+        Document first = document("definitions/first.sqlx");
+
+        handler().pullCode(null);
+
+        assertEquals("SELECT 10", first.getText());
+        assertEquals("SELECT 10", onDisk("definitions/first.sqlx"));
+        assertEquals("SELECT 20", onDisk("definitions/second.sqlx"));
+        assertEquals("SELECT 3", onDisk("definitions/new/third.sqlx"));
+        assertNotNull(root.findFileByRelativePath("definitions/new/third.sqlx"));
+    }
+
+    public void testPullSkipsAndReportsDocumentsWithUnsavedChanges() throws IOException {
+        Document second = document("definitions/second.sqlx");
+        WriteCommandAction.runWriteCommandAction(getProject(), () -> second.setText("SELECT 'unsaved'"));
+
+        try {
+            handler().pullCode(null);
+            fail("Expected GcpApiException");
+        } catch (GcpApiException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("definitions/second.sqlx"));
+        }
+
+        assertEquals("SELECT 'unsaved'", second.getText());
+        assertTrue(FileDocumentManager.getInstance().isDocumentUnsaved(second));
+        assertEquals("SELECT 2", onDisk("definitions/second.sqlx"));
+        assertEquals("SELECT 10", onDisk("definitions/first.sqlx"));
+        assertEquals("SELECT 3", onDisk("definitions/new/third.sqlx"));
+    }
+
+    private WorkspaceOperationsHandler handler() {
+        return new WorkspaceOperationsHandler(repository, config, getProject(), p -> PATHS);
+    }
+
+    private void createFile(String path, String content) throws IOException {
+        WriteAction.runAndWait(() -> {
+            VirtualFile dir = VfsUtil.createDirectoryIfMissing(root, path.substring(0, path.lastIndexOf('/')));
+            VfsUtil.saveText(dir.createChildData(this, path.substring(path.lastIndexOf('/') + 1)), content);
+        });
+    }
+
+    private Document document(String path) {
+        VirtualFile file = root.findFileByRelativePath(path);
+        assertNotNull(file);
+        Document document = FileDocumentManager.getInstance().getDocument(file);
+        assertNotNull(document);
+        return document;
+    }
+
+    private String onDisk(String path) throws IOException {
+        return Files.readString(Path.of(root.getPath(), path));
+    }
+}
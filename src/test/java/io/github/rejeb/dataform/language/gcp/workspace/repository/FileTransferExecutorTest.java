@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.gcp.workspace.repository;
+
+import com.google.api.gax.grpc.GrpcStatusCode;
+import com.google.api.gax.rpc.UnavailableException;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+import io.github.rejeb.dataform.language.gcp.common.GcpApiException;
+import io.grpc.Status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class FileTransferExecutorTest extends BasePlatformTestCase {
+
+    private static UnavailableException unavailable() {
+        return new UnavailableException(new RuntimeException("unavailable"),
+                GrpcStatusCode.of(Status.Code.UNAVAILABLE), true);
+    }
+
+    public void testRetriesTransientFailuresWithGrowingBackoff() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        List<Long> delays = new ArrayList<>();
+
+        String result = FileTransferExecutor.callWithRetry("read", "a.sqlx", path -> {
+            if (attempts.incrementAndGet() < 3) throw unavailable();
+            return "content";
+        }, delays::add);
+
+        assertEquals("content", result);
+        assertEquals(3, attempts.get());
+        assertEquals(2, delays.size());
+        assertTrue("first delay " + delays.get(0), delays.get(0) >= 250 && delays.get(0) <= 750);
+        assertTrue("second delay " + delays.get(1), delays.get(1) >= 500 && delays.get(1) <= 1500);
+    }
+
+    public void testGivesUpAfterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+        List<Long> delays = new ArrayList<>();
+
+        try {
+            FileTransferExecutor.callWithRetry("read", "a.sqlx", path -> {
+                attempts.incrementAndGet();
+                throw unavailable();
+            }, delays::add);
+            fail("Expected GcpApiException");
+        } catch (Exception e) {
+            assertInstanceOf(e, GcpApiException.class);
+            assertTrue(e.getMessage(), e.getMessage().contains("after 4 attempt(s)"));
+        }
+        assertEquals(4, attempts.get());
+        assertEquals(3, delays.size());
+        assertTrue("last delay " + delays.get(2), delays.get(2) >= 1000 && delays.get(2) <= 3000);
+    }
+
+    public void testDoesNotRetryPermanentFailures() {
+        AtomicInteger attempts = new AtomicInteger();
+        List<Long> delays = new ArrayList<>();
+
+        assertThrows(GcpApiException.class, () -> FileTransferExecutor.callWithRetry("read", "a.sqlx", path -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("permission denied");
+        }, delays::add));
+
+        assertEquals(1, attempts.get());
+        assertTrue(delays.isEmpty());
+    }
+
+    public void testRunReturnsResultsInPathOrder() {
+        CountDownLatch lastDone = new CountDownLatch(1);
+
+        Map<String, String> result = FileTransferExecutor.run("read", List.of("a", "b", "c"), path -> {
+            if (path.equals("c")) {
+                lastDone.countDown();
+            } else {
+                lastDone.await(5, TimeUnit.SECONDS);
+            }
+            return path.equals("b") ? null : path.toUpperCase();
+        }, 3, null);
+
+        assertEquals(List.of("a", "c"), List.copyOf(result.keySet()));
+        assertEquals("A", result.get("a"));
+    }
+
+    public void testFirstFailureCancelsCallsStillRunning() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        try {
+            FileTransferExecutor.run("read", List.of("slow", "broken"), path -> {
+                if (path.equals("broken")) throw new IllegalStateException("not found");
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    throw e;
+                }
+                return path;
+            }, 2, null);
+            fail("Expected GcpApiException");
+        } catch (GcpApiException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("broken"));
+        }
+
+        assertTrue("the failure must not wait for the slow call",
+                System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10));
+        assertTrue("the slow call must be interrupted", interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    public void testRunEachKeepsGoingAndReportsFailuresInPathOrder() {
+        AtomicInteger calls = new AtomicInteger();
+
+        Map<String, Throwable> failures = FileTransferExecutor.runEach("write", List.of("a", "b", "c"), path -> {
+            calls.incrementAndGet();
+            if (!path.equals("b")) throw new IllegalStateException(path + " rejected");
+            return null;
+        }, 1, null);
+
+        assertEquals(3, calls.get());
+        assertEquals(List.of("a", "c"), List.copyOf(failures.keySet()));
+        assertInstanceOf(failures.get("a"), GcpApiException.class);
+    }
+
+    public void testCancelledIndicatorStopsTheTransfer() throws Exception {
+        ProgressIndicator indicator = new EmptyProgressIndicator();
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch interrupted = new CountDownLatch(2);
+        Thread canceller = new Thread(() -> {
+            try {
+                started.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {
+            }
+            indicator.cancel();
+        });
+        canceller.start();
+
+        assertThrows(ProcessCanceledException.class, () -> FileTransferExecutor.runEach("read", List.of("a", "b"), path -> {
+            started.countDown();
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return null;
+        }, 2, indicator));
+
+        canceller.join();
+        assertTrue("running calls must be interrupted", interrupted.await(5, TimeUnit.SECONDS));
+    }
+}
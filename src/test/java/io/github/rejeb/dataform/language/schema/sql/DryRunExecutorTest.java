@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.schema.sql;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DryRunExecutorTest {
+
+    private record Node(String key, List<String> dependencies) {
+        Node(String key, String... dependencies) {
+            this(key, List.of(dependencies));
+        }
+    }
+
+    private static final long START_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private static void run(DryRunExecutor executor, List<Node> nodes, Consumer<Node> task) {
+        try {
+            executor.runGraph(nodes, Node::key, Node::dependencies, task, node -> {
+            });
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static DryRunRateLimitedException rateLimited() {
+        return new DryRunRateLimitedException(new RuntimeException("429 Too Many Requests"));
+    }
+
+    @Test
+    public void startsTheLongestRemainingPathFirst() {
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        DryRunExecutor executor = new DryRunExecutor(Executors.newSingleThreadExecutor(), 1, millis -> {
+        }, () -> START_NANOS);
+
+        run(executor, List.of(
+                new Node("d"),
+                new Node("e"),
+                new Node("c", "b"),
+                new Node("b", "a"),
+                new Node("a")), node -> order.add(node.key()));
+
+        assertEquals(List.of("a", "b", "d", "e", "c"), order);
+    }
+
+    @Test
+    public void releasesDependencyCyclesUpFront() {
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        DryRunExecutor executor = new DryRunExecutor(Executors.newSingleThreadExecutor(), 1, millis -> {
+        }, () -> START_NANOS);
+
+        run(executor, List.of(
+                new Node("x", "y"),
+                new Node("y", "x"),
+                new Node("z", "x"),
+                new Node("free", "missing")), node -> order.add(node.key()));
+
+        assertEquals(List.of("x", "y", "z", "free"), order);
+    }
+
+    @Test
+    public void halvesConcurrencyOnRateLimitAndGrowsBackOneStepPerWindow() {
+        List<Integer> limits = new ArrayList<>();
+        List<Long> delays = new ArrayList<>();
+        AtomicLong clock = new AtomicLong(START_NANOS);
+        AtomicBoolean limited = new AtomicBoolean();
+        DryRunExecutor[] executor = new DryRunExecutor[1];
+        executor[0] = new DryRunExecutor(Executors.newSingleThreadExecutor(), 4, millis -> {
+            delays.add(millis);
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+        }, clock::get);
+
+        run(executor[0], List.of(new Node("a"), new Node("b"), new Node("c"), new Node("d"),
+                new Node("e"), new Node("f"), new Node("g")), node -> {
+            limits.add(executor[0].currentLimit());
+            if (limited.compareAndSet(false, true)) throw rateLimited();
+        });
+
+        assertEquals(List.of(4, 2, 2, 3, 3, 3, 4, 4), limits);
+        assertEquals(1, delays.size());
+        assertTrue(delays.get(0) >= 1_000 && delays.get(0) <= 1_500, "delay " + delays.get(0));
+    }
+
+    @Test
+    public void aBurstOfRateLimitsHalvesOnce() {
+        AtomicInteger attempts = new AtomicInteger();
+        DryRunExecutor executor = new DryRunExecutor(Executors.newSingleThreadExecutor(), 8, millis -> {
+        }, () -> START_NANOS);
+
+        run(executor, List.of(new Node("a")), node -> {
+            if (attempts.incrementAndGet() < 4) throw rateLimited();
+        });
+
+        assertEquals(4, attempts.get());
+        assertEquals(4, executor.currentLimit());
+    }
+
+    @Test
+    public void givesUpAfterMaxAttemptsWithGrowingBackoff() {
+        AtomicInteger attempts = new AtomicInteger();
+        List<Long> delays = new ArrayList<>();
+        List<String> finished = new ArrayList<>();
+        DryRunExecutor executor = new DryRunExecutor(Executors.newSingleThreadExecutor(), 1, delays::add,
+                () -> START_NANOS);
+
+        try {
+            executor.runGraph(List.of(new Node("a"), new Node("b", "a")), Node::key, Node::dependencies, node -> {
+                if (node.key().equals("a")) {
+                    attempts.incrementAndGet();
+                    throw rateLimited();
+                }
+            }, node -> finished.add(node.key()));
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(6, attempts.get());
+        assertEquals(5, delays.size());
+        assertTrue(delays.get(4) >= 16_000 && delays.get(4) <= 24_000, "last delay " + delays.get(4));
+        assertEquals(List.of("a", "b"), finished);
+    }
+
+    @Test
+    public void neverRunsMoreDryRunsThanTheLimit() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch saturated = new CountDownLatch(3);
+        DryRunExecutor executor = new DryRunExecutor(Executors.newFixedThreadPool(8), 3, millis -> {
+        }, () -> START_NANOS);
+
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < 12; i++) nodes.add(new Node("t" + i));
+        run(executor, nodes, node -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            saturated.countDown();
+            try {
+                saturated.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+        });
+
+        assertEquals(0, saturated.getCount());
+        assertEquals(3, maxRunning.get());
+    }
+
+    @Test
+    public void interruptingTheCallerStopsTheRun() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch interrupted = new CountDownLatch(2);
+        AtomicInteger calls = new AtomicInteger();
+        AtomicBoolean callerInterrupted = new AtomicBoolean();
+        DryRunExecutor executor = new DryRunExecutor(pool, 2, millis -> {
+        }, () -> START_NANOS);
+
+        Thread caller = new Thread(() -> {
+            executor.runGraph(List.of(new Node("a"), new Node("b"), new Node("c"), new Node("d")),
+                    Node::key, Node::dependencies, node -> {
+                        calls.incrementAndGet();
+                        started.countDown();
+                        try {
+                            new CountDownLatch(1).await();
+                        } catch (InterruptedException e) {
+                            interrupted.countDown();
+                            Thread.currentThread().interrupt();
+                            throw new IllegalStateException("dry run interrupted", e);
+                        }
+                    }, node -> {
+                    });
+            callerInterrupted.set(Thread.currentThread().isInterrupted());
+        });
+        caller.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        caller.interrupt();
+        caller.join(TimeUnit.SECONDS.toMillis(5));
+
+        assertFalse(caller.isAlive());
+        assertTrue(callerInterrupted.get());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS), "running dry runs must be interrupted");
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(2, calls.get());
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.schema.sql;
+
+import io.github.rejeb.dataform.language.schema.sql.model.ColumnInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class SchemaFingerprintTest {
+
+    private static final List<ColumnInfo> ORDERS = List.of(
+            new ColumnInfo("id", "INT64", "REQUIRED", null),
+            new ColumnInfo("item", "STRUCT", "NULLABLE", null,
+                    List.of(new ColumnInfo("sku", "STRING", "NULLABLE", "stock keeping unit"))));
+
+    @Test
+    public void ignoresUpstreamOrder() {
+        Map<String, List<ColumnInfo>> first = new LinkedHashMap<>();
+        first.put("p.s.orders", ORDERS);
+        first.put("p.s.customers", List.of());
+        Map<String, List<ColumnInfo>> second = new LinkedHashMap<>();
+        second.put("p.s.customers", List.of());
+        second.put("p.s.orders", ORDERS);
+
+        assertEquals(SchemaFingerprint.of(List.of("table", "select 1"), first),
+                SchemaFingerprint.of(List.of("table", "select 1"), second));
+    }
+
+    @Test
+    public void changesWithTheQuery() {
+        assertNotEquals(SchemaFingerprint.of(List.of("table", "select 1"), Map.of()),
+                SchemaFingerprint.of(List.of("table", "select 2"), Map.of()));
+        assertNotEquals(SchemaFingerprint.of(List.of("table", "select 1", "declare x int64"), Map.of()),
+                SchemaFingerprint.of(List.of("table", "select 1declare x int64"), Map.of()));
+    }
+
+    @Test
+    public void changesWithAnUpstreamSchema() {
+        List<ColumnInfo> renamedSubField = List.of(
+                ORDERS.get(0),
+                new ColumnInfo("item", "STRUCT", "NULLABLE", null,
+                        List.of(new ColumnInfo("code", "STRING", "NULLABLE", "stock keeping unit"))));
+        Map<String, List<ColumnInfo>> unknown = new HashMap<>();
+        unknown.put("p.s.orders", null);
+
+        String original = SchemaFingerprint.of(List.of("table", "select 1"), Map.of("p.s.orders", ORDERS));
+        assertNotEquals(original,
+                SchemaFingerprint.of(List.of("table", "select 1"), Map.of("p.s.orders", renamedSubField)));
+        assertNotEquals(original, SchemaFingerprint.of(List.of("table", "select 1"), unknown));
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.rejeb.dataform.language.setup;
+
+import com.intellij.execution.configurations.GeneralCommandLine;
+import com.intellij.execution.configurations.PathEnvironmentVariableUtil;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the real {@code compile-worker.js} with Node.js against a stub {@code @dataform/cli}
+ * package. Skipped when {@code node} is not on the PATH.
+ */
+public class DataformCompileWorkerTest extends BasePlatformTestCase {
+
+    private static final String STUB_API = """
+            const path = require("path");
+            global.loads = (global.loads || 0) + 1;
+            exports.compile = async ({projectDir}) => {
+                if (path.basename(projectDir) === "broken") throw new Error("compilation failed");
+                return {tables: [{target: {name: path.basename(projectDir)}}], loads: global.loads};
+            };
+            """;
+    private static final String STUB_BIN = """
+            process.stdout.write("parsed argv\\n");
+            process.exit(1);
+            """;
+
+    private File node;
+    private Path root;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        node = PathEnvironmentVariableUtil.findInPath("node");
+        root = Files.createTempDirectory("dataform-compile-worker");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try {
+            FileUtil.delete(root);
+        } finally {
+            super.tearDown();
+        }
+    }
+
+    public void testStreamsCompiledGraphsFromOneLongLivedProcess() throws IOException {
+        if (node == null) return;
+        Path cli = stubCli("api.js");
+        DataformCompileWorker worker = worker(cli, new AtomicInteger());
+
+        Path first = root.resolve("first.json");
+        Path second = root.resolve("second.json");
+        assertTrue(worker.compile(root.resolve("orders").toString(), first, 30_000));
+        assertTrue(worker.compile(root.resolve("items").toString(), second, 30_000));
+
+        assertEquals("{\"tables\":[{\"target\":{\"name\":\"orders\"}}],\"loads\":1}", Files.readString(first));
+        assertEquals("{\"tables\":[{\"target\":{\"name\":\"items\"}}],\"loads\":1}", Files.readString(second));
+    }
+
+    public void testCompileErrorsKeepTheWorkerRunning() throws IOException {
+        if (node == null) return;
+        AtomicInteger starts = new AtomicInteger();
+        DataformCompileWorker worker = worker(stubCli("api.js"), starts);
+
+        Path output = root.resolve("graph.json");
+        assertFalse(worker.compile(root.resolve("broken").toString(), output, 30_000));
+        assertTrue(worker.compile(root.resolve("orders").toString(), output, 30_000));
+
+        assertEquals(1, starts.get());
+        assertTrue(Files.readString(output).contains("\"loads\":1"));
+    }
+
+    public void testNeverLoadsTheCommandLineEntry() throws IOException {
+        if (node == null) return;
+        AtomicInteger starts = new AtomicInteger();
+        DataformCompileWorker worker = worker(stubCli("bundle.js"), starts);
+
+        Path output = root.resolve("graph.json");
+        assertFalse(worker.compile(root.resolve("orders").toString(), output, 30_000));
+        assertFalse(worker.compile(root.resolve("orders").toString(), output, 30_000));
+
+        assertEquals("a CLI without an API entry disables the worker", 1, starts.get());
+    }
+
+    private Path stubCli(String main) throws IOException {
+        Path cli = Files.createDirectories(root.resolve("cli"));
+        Files.writeString(cli.resolve("package.json"),
+                "{\"name\":\"@dataform/cli\",\"main\":\"" + main + "\",\"bin\":{\"dataform\":\"bundle.js\"}}");
+        Files.writeString(cli.resolve("api.js"), STUB_API);
+        Files.writeString(cli.resolve("bundle.js"), STUB_BIN);
+        return cli;
+    }
+
+    private DataformCompileWorker worker(Path cli, AtomicInteger starts) throws IOException {
+        Path script = root.resolve("compile-worker.js");
+        try (InputStream in = DataformCompileWorker.class.getResourceAsStream("/dataform/compile-worker.js")) {
+            assertNotNull(in);
+            Files.writeString(script, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        DataformCompileWorker worker = new DataformCompileWorker(() -> {
+            starts.incrementAndGet();
+            return Optional.of(new GeneralCommandLine(node.getAbsolutePath(), script.toString(), cli.toString()));
+        }, () -> "stub");
+        Disposer.register(getTestRootDisposable(), worker);
+        return worker;
+    }
+}
@@ -18,7 +18,9 @@ package io.github.rejeb.dataform.language.setup;
 
 import com.intellij.execution.configurations.GeneralCommandLine;
 import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
 
+import java.nio.file.Path;
 import java.util.Optional;
 
 public class DataformInterpreterManagerTestImpl implements DataformInterpreterManager {
@@ -36,4 +38,9 @@ public class DataformInterpreterManagerTestImpl implements DataformInterpreterMa
     public Optional<GeneralCommandLine> buildDataformCompileCommand() {
         return Optional.empty();
     }
+
+    @Override
+    public boolean compileWithWorker(@NotNull Path output, long timeoutMs) {
+        return false;
+    }
 }